@@ -0,0 +1,43 @@
+package com.adspeek.authservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    /**
+     * Request attribute a handler sets before returning a StreamingResponseBody
+     * that may legitimately stream for longer than the default async timeout
+     */
+    public static final String LONG_STREAM_ATTRIBUTE = AsyncRequestConfig.class.getName() + ".LONG_STREAM";
+
+    private final long longStreamTimeoutMillis;
+
+    public AsyncRequestConfig(@Value("${documents.export.async-timeout-ms:3600000}") long longStreamTimeoutMillis) {
+        this.longStreamTimeoutMillis = longStreamTimeoutMillis;
+    }
+
+    // Every other async request keeps the container default; only marked streams
+    // (bulk ZIP export) get the long timeout, set before async processing starts
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(LONG_STREAM_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+                    asyncRequest.setTimeout(longStreamTimeoutMillis);
+                }
+            }
+        });
+    }
+}
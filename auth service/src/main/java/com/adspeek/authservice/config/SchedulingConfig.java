@@ -1,10 +1,29 @@
 package com.adspeek.authservice.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @EnableScheduling
+@Slf4j
 public class SchedulingConfig {
-    // This enables Spring's scheduling capabilities
+
+    // Dedicated pool so a long job (tiering, GC, summaries) does not hold up reminders or
+    // heartbeats; jobs that must run once per cluster take a SchedulerLock lease on top
+    // (maintenance jobs through MaintenanceJobRunner) and are cron-triggered
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size:4}") int poolSize,
+            @Value("${scheduling.await-termination-seconds:30}") int awaitTerminationSeconds) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, poolSize));
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(awaitTerminationSeconds);
+        scheduler.setErrorHandler(error -> log.error("Scheduled task failed: {}", error.getMessage(), error));
+        return scheduler;
+    }
 }
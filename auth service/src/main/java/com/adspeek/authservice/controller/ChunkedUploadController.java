@@ -0,0 +1,140 @@
+package com.adspeek.authservice.controller;
+
+import com.adspeek.authservice.dto.DocumentDTO;
+import com.adspeek.authservice.dto.UploadSessionDTO;
+import com.adspeek.authservice.entity.User;
+import com.adspeek.authservice.repository.UserRepository;
+import com.adspeek.authservice.service.ChunkedUploadService;
+import com.adspeek.authservice.service.ClientService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Resumable upload protocol for large documents:
+ * POST /api/documents/uploads (init), PUT /api/documents/uploads/{id}?offset=N
+ * with the raw chunk as body, GET /api/documents/uploads/{id} to find the
+ * offset to resume from, and POST /api/documents/uploads/{id}/complete.
+ */
+@RestController
+@RequestMapping("/api/documents/uploads")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "http://localhost:4200")
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final ClientService clientService;
+    private final UserRepository userRepository;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
+    public ResponseEntity<UploadSessionDTO> initUpload(
+            @RequestParam(value = "clientId", required = false) Long clientId,
+            @RequestParam(value = "taskId", required = false) Long taskId,
+            @RequestParam("documentType") String documentType,
+            @RequestParam("fileName") String fileName,
+            @RequestParam(value = "fileType", required = false) String fileType,
+            @RequestParam("totalSize") long totalSize) {
+        try {
+            // Clients always upload into their own account
+            User currentUser = getCurrentUser();
+            if (currentUser.getRole() == User.Role.CLIENT) {
+                clientId = clientService.getClientIdByUserId(currentUser.getId());
+            }
+            if (clientId == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            UploadSessionDTO upload = chunkedUploadService.initUpload(clientId, taskId, documentType, fileName,
+                    fileType, totalSize);
+            return ResponseEntity.status(HttpStatus.CREATED).body(upload);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error starting chunked upload: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
+    public ResponseEntity<UploadSessionDTO> uploadChunk(@PathVariable String uploadId,
+            @RequestParam("offset") long offset, HttpServletRequest request) {
+        try {
+            UploadSessionDTO upload = chunkedUploadService.writeChunk(uploadId, offset, request.getInputStream(),
+                    request.getContentLengthLong());
+            return ResponseEntity.ok(upload);
+        } catch (IllegalStateException e) {
+            // Wrong offset or upload no longer open; the client re-reads the status and resumes
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            log.error("Error writing chunk of upload {}: {}", uploadId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
+    public ResponseEntity<UploadSessionDTO> getUpload(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.getUpload(uploadId));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
+    public ResponseEntity<DocumentDTO> completeUpload(@PathVariable String uploadId) {
+        try {
+            DocumentDTO document = chunkedUploadService.completeUpload(uploadId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(document);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            log.error("Error completing upload {}: {}", uploadId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        try {
+            chunkedUploadService.abortUpload(uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getName())) {
+            return userRepository.findByEmail(authentication.getName())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        }
+        throw new RuntimeException("User not authenticated");
+    }
+}
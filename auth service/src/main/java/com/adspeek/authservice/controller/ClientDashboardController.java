@@ -267,7 +267,7 @@ public class ClientDashboardController {
      * Download document for current client
      */
     @GetMapping("/documents/{documentId}/download")
-    public ResponseEntity<org.springframework.core.io.ByteArrayResource> downloadMyDocument(
+    public ResponseEntity<org.springframework.core.io.Resource> downloadMyDocument(
             @PathVariable Long documentId) {
         try {
             Long clientId = getCurrentClientId();
@@ -276,12 +276,12 @@ public class ClientDashboardController {
             }
 
             // Verify the document belongs to the current client
-            DocumentDTO document = documentService.getDocumentById(documentId);
-            if (document == null || !document.getClientId().equals(clientId)) {
+            DocumentDownloadDTO download = documentService.getDocumentDownload(documentId);
+            if (!download.getClientId().equals(clientId)) {
                 return ResponseEntity.notFound().build();
             }
 
-            return documentService.downloadDocumentWithResponse(documentId);
+            return documentService.toDownloadResponse(download);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
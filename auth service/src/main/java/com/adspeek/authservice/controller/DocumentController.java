@@ -1,19 +1,26 @@
 package com.adspeek.authservice.controller;
 
+import com.adspeek.authservice.config.AsyncRequestConfig;
 import com.adspeek.authservice.dto.DocumentDTO;
+import com.adspeek.authservice.dto.DocumentDownloadDTO;
 import com.adspeek.authservice.dto.DocumentStatisticsDTO;
 import com.adspeek.authservice.dto.LatestDocumentUploadDTO;
+import com.adspeek.authservice.service.DocumentExportService;
+import com.adspeek.authservice.service.DocumentPreviewService;
 import com.adspeek.authservice.service.DocumentService;
 import com.adspeek.authservice.service.ClientService;
 import com.adspeek.authservice.repository.UserRepository;
 import com.adspeek.authservice.entity.User;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,8 +30,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/documents")
@@ -32,7 +42,11 @@ import java.util.List;
 @Slf4j
 public class DocumentController {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 500;
+
     private final DocumentService documentService;
+    private final DocumentExportService documentExportService;
+    private final DocumentPreviewService documentPreviewService;
     private final ClientService clientService;
     private final UserRepository userRepository;
 
@@ -64,6 +78,33 @@ public class DocumentController {
         }
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @RequestParam(value = "clientId", required = false) Long clientId,
+            @RequestParam(value = "taskId", required = false) Long taskId,
+            @RequestParam(value = "documentType", required = false) String documentType,
+            @RequestParam(value = "status", required = false) String status,
+            HttpServletRequest request) {
+        if (clientId == null && taskId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            StreamingResponseBody body = documentExportService.exportAsZip(clientId, taskId, documentType, status);
+            // A large export can stream for longer than the default async timeout
+            request.setAttribute(AsyncRequestConfig.LONG_STREAM_ATTRIBUTE, Boolean.TRUE);
+            String fileName = taskId != null ? "task-" + taskId + "-documents.zip"
+                    : "client-" + clientId + "-documents.zip";
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .body(body);
+        } catch (Exception e) {
+            log.error("Error exporting documents: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
     public ResponseEntity<DocumentDTO> getDocumentById(@PathVariable Long id) {
@@ -116,11 +157,13 @@ public class DocumentController {
             @RequestParam(value = "documentType", required = false) String documentType,
             @RequestParam(value = "isVerified", required = false) String isVerified,
             @RequestParam(value = "searchTerm", required = false) String searchTerm,
+            @RequestParam(value = "afterUploadDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterUploadDate,
+            @RequestParam(value = "afterId", required = false) Long afterId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
             Page<DocumentDTO> documents = documentService.getDocumentsWithFilters(
-                    clientId, taskId, documentType, isVerified, searchTerm, page, size);
+                    clientId, taskId, documentType, isVerified, searchTerm, afterUploadDate, afterId, page, size);
             return ResponseEntity.ok(documents);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -167,19 +210,19 @@ public class DocumentController {
 
     @GetMapping("/{id}/download")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
-    public ResponseEntity<ByteArrayResource> downloadDocument(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadDocument(@PathVariable Long id) {
         try {
-            byte[] fileContent = documentService.downloadDocument(id);
-            DocumentDTO document = documentService.getDocumentById(id);
-
-            ByteArrayResource resource = new ByteArrayResource(fileContent);
+            return documentService.downloadDocumentWithResponse(id);
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(fileContent.length)
-                    .body(resource);
+    @GetMapping("/{id}/preview")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<Resource> getDocumentPreview(@PathVariable Long id) {
+        try {
+            return toPreviewResponse(id);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -220,10 +263,17 @@ public class DocumentController {
 
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT')")
-    public ResponseEntity<List<DocumentDTO>> searchDocuments(@RequestParam("term") String searchTerm) {
+    public ResponseEntity<List<DocumentDTO>> searchDocuments(@RequestParam("term") String searchTerm,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<DocumentDTO> documents = documentService.searchDocuments(searchTerm);
-            return ResponseEntity.ok(documents);
+            Page<DocumentDTO> documents = documentService.searchDocuments(searchTerm, PageRequest.of(page, size));
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(documents.getTotalElements()))
+                    .body(documents.getContent());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -328,31 +378,42 @@ public class DocumentController {
 
     @GetMapping("/my-documents/{id}/download")
     @PreAuthorize("hasRole('CLIENT')")
-    public ResponseEntity<ByteArrayResource> downloadMyDocument(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadMyDocument(@PathVariable Long id) {
         try {
             Long clientId = getCurrentClientId();
-            DocumentDTO document = documentService.getDocumentById(id);
+            DocumentDownloadDTO download = documentService.getDocumentDownload(id);
 
             // Verify the document belongs to the current client
-            if (!document.getClientId().equals(clientId)) {
+            if (!download.getClientId().equals(clientId)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            byte[] fileContent = documentService.downloadDocument(id);
-            ByteArrayResource resource = new ByteArrayResource(fileContent);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(fileContent.length)
-                    .body(resource);
+            return documentService.toDownloadResponse(download);
         } catch (Exception e) {
             log.error("Error downloading client document: {}", e.getMessage(), e);
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/my-documents/{id}/preview")
+    @PreAuthorize("hasRole('CLIENT')")
+    public ResponseEntity<Resource> getMyDocumentPreview(@PathVariable Long id) {
+        try {
+            Long clientId = getCurrentClientId();
+            DocumentDTO document = documentService.getDocumentById(id);
+
+            // Verify the document belongs to the current client
+            if (!clientId.equals(document.getClientId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            return toPreviewResponse(id);
+        } catch (Exception e) {
+            log.error("Error fetching client document preview: {}", e.getMessage(), e);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/my-documents/search")
     @PreAuthorize("hasRole('CLIENT')")
     public ResponseEntity<List<DocumentDTO>> searchMyDocuments(@RequestParam("term") String searchTerm) {
@@ -466,21 +527,25 @@ public class DocumentController {
 
     @GetMapping("/staff-documents/{id}/download")
     @PreAuthorize("hasRole('STAFF')")
-    public ResponseEntity<ByteArrayResource> downloadStaffDocument(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadStaffDocument(@PathVariable Long id) {
         try {
-            DocumentDTO document = documentService.getDocumentById(id);
-            byte[] fileContent = documentService.downloadDocument(id);
-            ByteArrayResource resource = new ByteArrayResource(fileContent);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(fileContent.length)
-                    .body(resource);
+            return documentService.downloadDocumentWithResponse(id);
         } catch (Exception e) {
             log.error("Error downloading staff document: {}", e.getMessage(), e);
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    // Previews are keyed by content, so browsers may keep them until the document changes
+    private ResponseEntity<Resource> toPreviewResponse(Long id) {
+        Resource preview = documentPreviewService.getPreview(id);
+        if (preview == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate())
+                .eTag("\"preview-" + preview.getFilename() + "\"")
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(preview);
+    }
+}
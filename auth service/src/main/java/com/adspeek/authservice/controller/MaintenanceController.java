@@ -0,0 +1,130 @@
+package com.adspeek.authservice.controller;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.service.DocumentArchiveService;
+import com.adspeek.authservice.service.DocumentSearchIndexService;
+import com.adspeek.authservice.service.DocumentStatsService;
+import com.adspeek.authservice.service.DocumentStoreReconciliationService;
+import com.adspeek.authservice.service.LegacyIdRepairService;
+import com.adspeek.authservice.service.NotificationRetentionService;
+import com.adspeek.authservice.service.NotificationUnreadCountService;
+import com.adspeek.authservice.service.StaffTaskStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/maintenance")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "http://localhost:4200")
+public class MaintenanceController {
+
+    private final LegacyIdRepairService legacyIdRepairService;
+    private final DocumentSearchIndexService documentSearchIndexService;
+    private final DocumentStatsService documentStatsService;
+    private final DocumentArchiveService documentArchiveService;
+    private final DocumentStoreReconciliationService documentStoreReconciliationService;
+    private final NotificationRetentionService notificationRetentionService;
+    private final StaffTaskStatsService staffTaskStatsService;
+    private final NotificationUnreadCountService notificationUnreadCountService;
+
+    @PostMapping("/legacy-id-repair")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<MaintenanceJob>> runLegacyIdRepair() {
+        try {
+            return ResponseEntity.ok(legacyIdRepairService.runRepair());
+        } catch (Exception e) {
+            log.error("Error running legacy ID repair: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/legacy-id-repair")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<MaintenanceJob>> getLegacyIdRepairStatus() {
+        return ResponseEntity.ok(legacyIdRepairService.getRepairStatus());
+    }
+
+    @PostMapping("/document-search-index")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MaintenanceJob> runDocumentSearchIndexBackfill() {
+        try {
+            return ResponseEntity.ok(documentSearchIndexService.runBackfill());
+        } catch (Exception e) {
+            log.error("Error running document search index backfill: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/document-stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MaintenanceJob> rebuildDocumentStats() {
+        try {
+            return ResponseEntity.ok(documentStatsService.rebuild());
+        } catch (Exception e) {
+            log.error("Error rebuilding document stats: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/document-archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MaintenanceJob> runDocumentArchiveTiering() {
+        try {
+            return ResponseEntity.ok(documentArchiveService.runTiering());
+        } catch (Exception e) {
+            log.error("Error running document archive tiering: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/document-store-reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MaintenanceJob> runDocumentStoreReconciliation() {
+        try {
+            return ResponseEntity.ok(documentStoreReconciliationService.runReconciliation());
+        } catch (Exception e) {
+            log.error("Error running document store reconciliation: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/notification-retention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MaintenanceJob> runNotificationRetention() {
+        try {
+            return ResponseEntity.ok(notificationRetentionService.runRetention());
+        } catch (Exception e) {
+            log.error("Error running notification retention: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/staff-task-stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MaintenanceJob> rebuildStaffTaskStats() {
+        try {
+            return ResponseEntity.ok(staffTaskStatsService.rebuild());
+        } catch (Exception e) {
+            log.error("Error rebuilding staff task stats: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/notification-unread-counts/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MaintenanceJob> rebuildNotificationUnreadCounts() {
+        try {
+            return ResponseEntity.ok(notificationUnreadCountService.rebuild());
+        } catch (Exception e) {
+            log.error("Error rebuilding notification unread counts: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
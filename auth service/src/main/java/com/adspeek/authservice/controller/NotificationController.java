@@ -4,16 +4,21 @@ import com.adspeek.authservice.dto.NotificationDTO;
 import com.adspeek.authservice.entity.User;
 import com.adspeek.authservice.entity.Notification;
 import com.adspeek.authservice.repository.UserRepository;
+import com.adspeek.authservice.security.StreamTicketStore;
 import com.adspeek.authservice.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -23,6 +28,7 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final UserRepository userRepository;
+    private final StreamTicketStore streamTicketStore;
 
     // Get current user ID from authentication
     private Long getCurrentUserId() {
@@ -76,6 +82,63 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Single-use ticket for opening the notification stream, valid for a few
+     * seconds. EventSource cannot set headers, so the client fetches a ticket
+     * with its bearer token and opens /stream?ticket=...; a ticket is spent on
+     * first use, so after a dropped connection the client fetches a new one
+     * and passes the last id it saw as ?lastEventId= (see {@link #streamNotifications}).
+     */
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<Map<String, Object>> issueStreamTicket() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            String ticket = streamTicketStore.issue(authentication.getName());
+            return ResponseEntity.ok()
+                    .header("Cache-Control", "no-store")
+                    .body(Map.of("ticket", ticket, "expiresIn", streamTicketStore.getTtlSeconds()));
+        } catch (Exception e) {
+            log.error("Error issuing notification stream ticket: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Server-Sent Events stream of new notifications. Clients that open the
+     * stream with EventSource authenticate with ?ticket= (see /stream-ticket)
+     * instead of a token. Tickets are single-use, so EventSource's own
+     * reconnect (same URL, spent ticket) is rejected with 401 and the browser
+     * gives up; a client therefore reconnects itself: on error it closes the
+     * EventSource, fetches a fresh ticket and opens
+     * /stream?ticket=...&lastEventId=... with the id of the last event it
+     * received. The Last-Event-ID header, when a client can send it, takes
+     * precedence over the parameter.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        try {
+            Long userId = getCurrentUserId();
+            String lastEventId = lastEventIdHeader != null && !lastEventIdHeader.isBlank() ? lastEventIdHeader
+                    : lastEventIdParam;
+            Long afterId = lastEventId != null && !lastEventId.isBlank() ? Long.parseLong(lastEventId.trim()) : null;
+            return ResponseEntity.ok()
+                    // Stop reverse proxies from buffering the stream
+                    .header("X-Accel-Buffering", "no")
+                    .body(notificationService.openNotificationStream(userId, afterId));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error opening notification stream: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/mark-read")
     public ResponseEntity<Void> markNotificationsAsRead(@RequestBody List<Long> notificationIds) {
         try {
@@ -24,6 +24,7 @@ public class DocumentDTO {
     private String filePath;
     private Long fileSize;
     private String fileType;
+    private String checksum;
     private Document.DocumentType documentType;
     private Document.DocumentStatus status;
     private Long verifiedById;
@@ -0,0 +1,30 @@
+package com.adspeek.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+/**
+ * Metadata plus a lazily opened file resource for streaming a document to the
+ * client. The file is never read into memory; the resource is streamed (and
+ * sliced for Range requests) by Spring's resource message converters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentDownloadDTO {
+    private Long documentId;
+    private Long clientId;
+    private String originalFileName;
+    private String fileType;
+    private Long contentLength;
+    private long lastModified;
+    private String eTag;
+    private Resource resource;
+    // Gzip copy of compressible content, served when the client accepts gzip
+    private Resource compressedResource;
+    private Long compressedLength;
+}
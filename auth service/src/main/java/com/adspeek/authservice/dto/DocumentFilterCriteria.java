@@ -0,0 +1,26 @@
+package com.adspeek.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filters for the admin document grid. Null fields are ignored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentFilterCriteria {
+    private Long clientId;
+    private Long taskId;
+    private String documentType;
+    private String status;
+    private String searchTerm;
+    // Search index tokens of searchTerm; when set, candidates come from
+    // document_search_tokens instead of a LIKE scan
+    private List<String> searchTokens;
+}
@@ -0,0 +1,26 @@
+package com.adspeek.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String uploadId;
+    private Long clientId;
+    private Long taskId;
+    private String documentType;
+    private String originalFileName;
+    private Long totalSize;
+    // Offset the next chunk must start at
+    private Long receivedBytes;
+    private String status;
+    private Long documentId;
+    private LocalDateTime expiresAt;
+}
@@ -12,7 +12,13 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        @Index(name = "idx_documents_checksum", columnList = "checksum"),
+        @Index(name = "idx_documents_upload_date_id", columnList = "upload_date, id"),
+        @Index(name = "idx_documents_client_upload", columnList = "client_id, upload_date, id"),
+        @Index(name = "idx_documents_task_upload", columnList = "task_id, upload_date, id"),
+        @Index(name = "idx_documents_status_upload", columnList = "status, upload_date, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -51,6 +57,10 @@ public class Document {
     @Column(name = "file_type")
     private String fileType;
 
+    // SHA-256 of the content; identifies the shared blob in DocumentStorage
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "document_type", nullable = false)
     private DocumentType documentType;
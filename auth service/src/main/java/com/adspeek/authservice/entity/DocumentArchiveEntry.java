@@ -0,0 +1,47 @@
+package com.adspeek.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Location of a cold blob inside a packed archive segment. The blob is stored
+ * at {@code entryOffset} in the segment file, {@code storedLength} bytes long,
+ * gzip-compressed when {@code compressed} is set.
+ */
+@Entity
+@Table(name = "document_archive_entries", indexes = {
+        @Index(name = "idx_document_archive_entries_segment", columnList = "segment_name")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentArchiveEntry {
+
+    @Id
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    @Column(name = "segment_name", nullable = false, length = 100)
+    private String segmentName;
+
+    @Column(name = "entry_offset", nullable = false)
+    private Long entryOffset;
+
+    @Column(name = "stored_length", nullable = false)
+    private Long storedLength;
+
+    @Column(name = "original_size", nullable = false)
+    private Long originalSize;
+
+    @Column(name = "compressed", nullable = false)
+    private Boolean compressed;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,35 @@
+package com.adspeek.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One search token of a document. Tokens are the trigrams ({@code g:abc}) of
+ * every word of the original file name, client company name and document
+ * type; rows are written by {@code DocumentSearchIndexService}.
+ */
+@Entity
+@Table(name = "document_search_tokens", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_document_search_tokens_token_document", columnNames = { "token", "document_id" })
+}, indexes = {
+        @Index(name = "idx_document_search_tokens_document", columnList = "document_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSearchToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Column(name = "token", nullable = false, length = 16)
+    private String token;
+}
@@ -0,0 +1,52 @@
+package com.adspeek.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup of document counts and sizes per client, task, status and upload
+ * day. Maintained by triggers on {@code documents} so dashboard
+ * statistics aggregate a few rollup rows instead of every document.
+ */
+@Entity
+@Table(name = "document_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_document_stats_bucket", columnNames = { "client_id", "task_id", "status",
+                "upload_day" })
+}, indexes = {
+        @Index(name = "idx_document_stats_task", columnList = "task_id"),
+        @Index(name = "idx_document_stats_upload_day", columnList = "upload_day")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    // 0 for documents that are not attached to a task
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "upload_day", nullable = false)
+    private LocalDate uploadDay;
+
+    @Column(name = "document_count", nullable = false)
+    private Long documentCount;
+
+    @Column(name = "total_file_size", nullable = false)
+    private Long totalFileSize;
+}
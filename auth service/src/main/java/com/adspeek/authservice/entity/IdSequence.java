@@ -0,0 +1,34 @@
+package com.adspeek.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-year counter backing the LEAD-YYYY-NNN / SR-YYYY-NNN identifiers.
+ * Rows are keyed by prefix and year (e.g. {@code LEAD-2025}) and only ever
+ * advanced in blocks by {@code IdSequenceAllocator}.
+ */
+@Entity
+@Table(name = "id_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdSequence {
+
+    @Id
+    @Column(name = "sequence_key", length = 32)
+    private String sequenceKey;
+
+    // Next value that has not yet been handed to any allocator block
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
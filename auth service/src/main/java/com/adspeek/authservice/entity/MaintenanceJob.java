@@ -0,0 +1,64 @@
+package com.adspeek.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress and completion record of a one-shot or resumable maintenance job.
+ * Batched jobs store the last processed primary key so an interrupted run
+ * continues where it stopped.
+ */
+@Entity
+@Table(name = "maintenance_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenanceJob {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId;
+
+    @Column(name = "processed_count")
+    private Long processedCount;
+
+    @Column(name = "updated_count")
+    private Long updatedCount;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,97 @@
+package com.adspeek.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side state of a resumable chunked upload. {@code receivedBytes} only
+ * advances after the bytes are forced to disk, so a client that reconnects
+ * continues from there without resending anything that was stored.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        @Index(name = "idx_upload_sessions_status_expires", columnList = "status, expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+
+    @Id
+    @Column(name = "upload_id", length = 36)
+    private String uploadId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "document_type", nullable = false, length = 50)
+    private String documentType;
+
+    @Column(name = "original_file_name", nullable = false)
+    private String originalFileName;
+
+    @Column(name = "file_type")
+    private String fileType;
+
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+
+    @Column(name = "received_bytes", nullable = false)
+    private Long receivedBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "temp_path", nullable = false, length = 500)
+    private String tempPath;
+
+    // Set once the assembled file was moved into DocumentStorage
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    @Column(name = "storage_path", length = 500)
+    private String storagePath;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(name = "created_by", nullable = false)
+    private Long createdBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        // Content stored, document row not yet created
+        ASSEMBLED,
+        COMPLETED,
+        ABORTED,
+        EXPIRED
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = updatedAt;
+        }
+    }
+}
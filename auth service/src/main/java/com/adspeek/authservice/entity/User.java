@@ -1,5 +1,6 @@
 package com.adspeek.authservice.entity;
 
+import com.adspeek.authservice.security.UserPrincipalCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(UserPrincipalCacheListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
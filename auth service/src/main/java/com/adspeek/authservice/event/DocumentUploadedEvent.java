@@ -0,0 +1,29 @@
+package com.adspeek.authservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published once a new document row is stored. Carries everything the
+ * post-upload side effects need so workers never reload the entity graph.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentUploadedEvent {
+    private Long documentId;
+    private Long clientId;
+    // User account of the client, the recipient of upload notifications
+    private Long clientUserId;
+    private Long taskId;
+    // Set when a staff member uploaded on behalf of the client
+    private Long uploaderStaffId;
+    private String originalFileName;
+    private String documentType;
+    private String fileType;
+    private String checksum;
+    private String storagePath;
+}
@@ -22,14 +22,6 @@ public class AdminDashboardRepository {
         return map;
     }
 
-    public List<Object[]> getStaffPerformance(Long staffId, String startDate, String endDate) {
-        return em.createNativeQuery("CALL GetStaffPerformance(:staffId, :startDate, :endDate)")
-                .setParameter("staffId", staffId)
-                .setParameter("startDate", startDate)
-                .setParameter("endDate", endDate)
-                .getResultList();
-    }
-
     public List<Object[]> getLatestUploads() {
         return em.createNativeQuery(
                 "SELECT c.company_name, d.file_name, d.upload_date FROM documents d JOIN clients c ON d.client_id = c.id ORDER BY d.upload_date DESC LIMIT 3")
@@ -0,0 +1,13 @@
+package com.adspeek.authservice.repository;
+
+import com.adspeek.authservice.entity.DocumentArchiveEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DocumentArchiveEntryRepository extends JpaRepository<DocumentArchiveEntry, String> {
+
+    List<DocumentArchiveEntry> findBySegmentNameOrderByEntryOffset(String segmentName);
+}
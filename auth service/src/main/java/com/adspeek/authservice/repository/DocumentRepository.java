@@ -4,6 +4,7 @@ import com.adspeek.authservice.entity.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,7 +12,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, DocumentRepositoryCustom {
 
     // Find document by ID with all related entities loaded
     @Query("SELECT d FROM Document d " +
@@ -387,4 +388,14 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
             @Param("searchTerm") String searchTerm, @Param("status") String status,
             @Param("documentType") String documentType, @Param("clientId") Long clientId,
             @Param("taskId") Long taskId, Pageable pageable);
-}
\ No newline at end of file
+
+    // FK cascades and ON DELETE SET NULL do not fire the document_stats triggers;
+    // these explicit statements do, so run them before deleting a client or task
+    @Modifying
+    @Query(value = "DELETE FROM documents WHERE client_id = :clientId", nativeQuery = true)
+    int deleteAllByClientIdInBulk(@Param("clientId") Long clientId);
+
+    @Modifying
+    @Query(value = "UPDATE documents SET task_id = NULL WHERE task_id = :taskId", nativeQuery = true)
+    int detachAllFromTask(@Param("taskId") Long taskId);
+}
@@ -0,0 +1,24 @@
+package com.adspeek.authservice.repository;
+
+import com.adspeek.authservice.dto.DocumentFilterCriteria;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dynamically built document queries that do not fit a static @Query.
+ * Rows use the same column layout as
+ * {@link DocumentRepository#findAllDocumentsWithDetails()}.
+ */
+public interface DocumentRepositoryCustom {
+
+    /**
+     * One page of filtered documents ordered by (upload_date, id) descending.
+     * When {@code afterUploadDate}/{@code afterId} are given the page starts
+     * right after that row (keyset/seek pagination) and {@code offset} is ignored.
+     */
+    List<Object[]> findDocumentsWithDetailsByFilter(DocumentFilterCriteria filter, LocalDateTime afterUploadDate,
+            Long afterId, long offset, int limit);
+
+    long countDocumentsByFilter(DocumentFilterCriteria filter);
+}
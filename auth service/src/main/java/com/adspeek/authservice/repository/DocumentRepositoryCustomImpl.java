@@ -0,0 +1,151 @@
+package com.adspeek.authservice.repository;
+
+import com.adspeek.authservice.dto.DocumentFilterCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the filtered document grid query from only the predicates that are
+ * set, so MySQL can use the (client_id|task_id|status, upload_date, id)
+ * indexes instead of scanning and the page is cut in the database. Search
+ * terms are narrowed through the document_search_tokens index first; the LIKE
+ * predicate only confirms the exact match on those candidates.
+ */
+public class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+
+    private static final String DETAIL_SELECT = """
+            SELECT
+                d.id,
+                d.task_id,
+                d.client_id,
+                COALESCE(c.company_name, 'N/A') as clientName,
+                d.uploaded_by,
+                COALESCE(CONCAT(u.first_name, ' ', u.last_name), 'N/A') as uploadedByName,
+                d.file_name,
+                d.original_file_name,
+                d.file_path,
+                d.file_size,
+                d.file_type,
+                d.document_type,
+                d.status,
+                d.verified_by,
+                COALESCE(CONCAT(v.first_name, ' ', v.last_name), 'N/A') as verifiedByName,
+                d.verified_at,
+                d.rejected_by,
+                COALESCE(CONCAT(r.first_name, ' ', r.last_name), 'N/A') as rejectedByName,
+                d.rejected_at,
+                d.rejection_reason,
+                d.upload_date,
+                d.created_by,
+                COALESCE(CONCAT(cr.first_name, ' ', cr.last_name), 'N/A') as createdByName,
+                d.updated_by,
+                COALESCE(CONCAT(up.first_name, ' ', up.last_name), 'N/A') as updatedByName,
+                d.created_at,
+                d.updated_at
+            FROM documents d
+            LEFT JOIN clients c ON d.client_id = c.id
+            LEFT JOIN users u ON d.uploaded_by = u.id
+            LEFT JOIN users v ON d.verified_by = v.id
+            LEFT JOIN users r ON d.rejected_by = r.id
+            LEFT JOIN users cr ON d.created_by = cr.id
+            LEFT JOIN users up ON d.updated_by = up.id
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findDocumentsWithDetailsByFilter(DocumentFilterCriteria filter,
+            LocalDateTime afterUploadDate, Long afterId, long offset, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder(DETAIL_SELECT);
+        StringBuilder where = buildWhere(filter, params);
+
+        boolean seek = afterUploadDate != null && afterId != null;
+        if (seek) {
+            appendCondition(where, "(d.upload_date < :afterUploadDate"
+                    + " OR (d.upload_date = :afterUploadDate AND d.id < :afterId))");
+            params.put("afterUploadDate", afterUploadDate);
+            params.put("afterId", afterId);
+        }
+
+        sql.append(where).append(" ORDER BY d.upload_date DESC, d.id DESC LIMIT :limit");
+        params.put("limit", limit);
+        if (!seek && offset > 0) {
+            sql.append(" OFFSET :offset");
+            params.put("offset", offset);
+        }
+
+        Query query = em.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    public long countDocumentsByFilter(DocumentFilterCriteria filter) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder where = buildWhere(filter, params);
+        // The clients join is only needed when the search term matches company names
+        String from = hasText(filter.getSearchTerm())
+                ? "SELECT COUNT(*) FROM documents d LEFT JOIN clients c ON d.client_id = c.id"
+                : "SELECT COUNT(*) FROM documents d";
+
+        Query query = em.createNativeQuery(from + where);
+        params.forEach(query::setParameter);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    private StringBuilder buildWhere(DocumentFilterCriteria filter, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder();
+        if (filter.getClientId() != null) {
+            appendCondition(where, "d.client_id = :clientId");
+            params.put("clientId", filter.getClientId());
+        }
+        if (filter.getTaskId() != null) {
+            appendCondition(where, "d.task_id = :taskId");
+            params.put("taskId", filter.getTaskId());
+        }
+        if (hasText(filter.getDocumentType())) {
+            appendCondition(where, "d.document_type = :documentType");
+            params.put("documentType", filter.getDocumentType());
+        }
+        if (hasText(filter.getStatus())) {
+            appendCondition(where, "d.status = :status");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getSearchTokens() != null && !filter.getSearchTokens().isEmpty()) {
+            appendCondition(where, """
+                    d.id IN (SELECT t.document_id FROM document_search_tokens t
+                    WHERE t.token IN (:searchTokens)
+                    GROUP BY t.document_id HAVING COUNT(*) = :searchTokenCount)""");
+            params.put("searchTokens", filter.getSearchTokens());
+            params.put("searchTokenCount", filter.getSearchTokens().size());
+        }
+        if (hasText(filter.getSearchTerm())) {
+            appendCondition(where, "(LOWER(d.original_file_name) LIKE :searchTerm"
+                    + " OR LOWER(c.company_name) LIKE :searchTerm"
+                    + " OR LOWER(d.document_type) LIKE :searchTerm)");
+            params.put("searchTerm", "%" + escapeLike(filter.getSearchTerm().trim().toLowerCase()) + "%");
+        }
+        return where;
+    }
+
+    private static void appendCondition(StringBuilder where, String condition) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(condition);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,13 @@
+package com.adspeek.authservice.repository;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MaintenanceJobRepository extends JpaRepository<MaintenanceJob, String> {
+
+    List<MaintenanceJob> findByJobNameIn(List<String> jobNames);
+}
@@ -24,9 +24,9 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Count unread notifications by user
     long countByUserIdAndIsReadFalse(Long userId);
 
-    // Mark notifications as read
+    // Mark notifications as read (already read ones keep their read_at)
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id IN :notificationIds")
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id IN :notificationIds AND n.isRead = false")
     void markNotificationsAsRead(@Param("notificationIds") List<Long> notificationIds,
             @Param("readAt") LocalDateTime readAt);
 
@@ -43,10 +43,8 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.createdAt >= :since ORDER BY n.createdAt DESC")
     List<Notification> findRecentNotifications(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 
-    // Delete old notifications (older than specified days)
-    @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate AND n.isRead = true")
-    void deleteOldReadNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
+    // Notifications a reconnecting stream missed, oldest first
+    List<Notification> findTop100ByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId);
 
     // Find notifications related to a specific task
     List<Notification> findByRelatedTaskIdOrderByCreatedAtDesc(Long taskId);
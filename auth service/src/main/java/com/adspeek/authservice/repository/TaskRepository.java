@@ -4,6 +4,7 @@ import com.adspeek.authservice.entity.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -16,6 +17,22 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
   List<Task> findByClientId(Long clientId);
 
+  // FK cascades do not fire the staff_task_stats triggers; this explicit
+  // statement does, so run it before deleting a client
+  @Modifying
+  @Query(value = "DELETE FROM tasks WHERE client_id = :clientId", nativeQuery = true)
+  int deleteAllByClientIdInBulk(@Param("clientId") Long clientId);
+
+  // Distinct user ids of the staff assigned to a client's open tasks
+  @Query(value = """
+      SELECT DISTINCT st.user_id
+      FROM tasks t
+      JOIN staff st ON t.assigned_staff_id = st.id
+      WHERE t.client_id = :clientId
+        AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+      """, nativeQuery = true)
+  List<Long> findActiveAssignedStaffUserIdsByClientId(@Param("clientId") Long clientId);
+
   // Enhanced queries for task management
   @Query(value = """
       SELECT
@@ -148,17 +165,45 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
   @Query(value = "SELECT t.* FROM tasks t WHERE t.due_date < :today AND t.status != 'COMPLETED'", nativeQuery = true)
   List<Task> findOverdueTasks(@Param("today") LocalDate today);
 
-  // Get overdue tasks with LocalDateTime
-  @Query(value = "SELECT t.* FROM tasks t WHERE t.due_date < :now AND t.status != 'COMPLETED'", nativeQuery = true)
-  List<Task> findOverdueTasks(@Param("now") LocalDateTime now);
-
   // Get tasks due soon (within 3 days)
   @Query(value = "SELECT t.* FROM tasks t WHERE t.due_date BETWEEN :today AND :threeDaysLater AND t.status != 'COMPLETED'", nativeQuery = true)
   List<Task> findTasksDueSoon(@Param("today") LocalDate today, @Param("threeDaysLater") LocalDate threeDaysLater);
 
-  // Get tasks due within 24 hours
-  @Query(value = "SELECT t.* FROM tasks t WHERE t.due_date BETWEEN :now AND :tomorrow AND t.status != 'COMPLETED'", nativeQuery = true)
-  List<Task> findTasksDueWithin24Hours(@Param("now") LocalDateTime now, @Param("tomorrow") LocalDateTime tomorrow);
+  // Reminder recipients of open tasks due in the range that have no ledger entry
+  // for their due date yet: task id, title, due date, client user id, staff user id
+  @Query(value = """
+      SELECT t.id, t.title, t.due_date, cl.user_id AS client_user_id, st.user_id AS staff_user_id
+      FROM tasks t
+      JOIN clients cl ON t.client_id = cl.id
+      LEFT JOIN staff st ON t.assigned_staff_id = st.id
+      WHERE t.due_date BETWEEN :fromDate AND :toDate
+        AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+        AND NOT EXISTS (
+          SELECT 1 FROM task_reminder_ledger l
+          WHERE l.task_id = t.id AND l.reminder_kind = :kind AND l.window_date = t.due_date)
+      ORDER BY t.id
+      """, nativeQuery = true)
+  List<Object[]> findUnremindedTasksDueBetween(@Param("fromDate") LocalDate fromDate,
+      @Param("toDate") LocalDate toDate, @Param("kind") String kind);
+
+  // Next keyset batch of open overdue tasks without a ledger entry for the day:
+  // task id, title, staff user id, client user id
+  @Query(value = """
+      SELECT t.id, t.title, st.user_id AS staff_user_id, cl.user_id AS client_user_id
+      FROM tasks t
+      JOIN clients cl ON t.client_id = cl.id
+      LEFT JOIN staff st ON t.assigned_staff_id = st.id
+      WHERE t.id > :afterId
+        AND t.due_date < :today
+        AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+        AND NOT EXISTS (
+          SELECT 1 FROM task_reminder_ledger l
+          WHERE l.task_id = t.id AND l.reminder_kind = :kind AND l.window_date = :today)
+      ORDER BY t.id
+      LIMIT :batchSize
+      """, nativeQuery = true)
+  List<Object[]> findUnnotifiedOverdueTasksAfter(@Param("afterId") Long afterId, @Param("today") LocalDate today,
+      @Param("kind") String kind, @Param("batchSize") int batchSize);
 
   // Get tasks by staff member
   @Query(value = "SELECT t.* FROM tasks t WHERE t.assigned_staff_id = :staffId ORDER BY t.created_at DESC", countQuery = "SELECT COUNT(*) FROM tasks t WHERE t.assigned_staff_id = :staffId", nativeQuery = true)
@@ -0,0 +1,40 @@
+package com.adspeek.authservice.repository;
+
+import com.adspeek.authservice.entity.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // Advance the received offset; never moves backwards and never skips a gap
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE upload_sessions
+            SET received_bytes = :receivedBytes, expires_at = :expiresAt, updated_at = NOW()
+            WHERE upload_id = :uploadId
+            AND status = 'IN_PROGRESS'
+            AND received_bytes >= :offset
+            AND received_bytes < :receivedBytes
+            """, nativeQuery = true)
+    int advanceReceivedBytes(@Param("uploadId") String uploadId, @Param("offset") long offset,
+            @Param("receivedBytes") long receivedBytes, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Serialises completes of the same upload; must run inside a transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.uploadId = :uploadId")
+    Optional<UploadSession> findByIdForUpdate(@Param("uploadId") String uploadId);
+
+    List<UploadSession> findTop100ByStatusAndExpiresAtBefore(UploadSession.Status status, LocalDateTime cutoff);
+}
@@ -2,6 +2,9 @@ package com.adspeek.authservice.repository;
 
 import com.adspeek.authservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +14,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     List<User> findByRole(User.Role role);
-}
\ No newline at end of file
+
+    // Ids only, for notification fan-out without loading user entities
+    @Query("SELECT u.id FROM User u WHERE u.role = :role")
+    List<Long> findIdsByRole(@Param("role") User.Role role);
+
+    // Maintained by triggers on notifications; deliberately not mapped on User
+    @Query(value = "SELECT unread_notification_count FROM users WHERE id = :userId", nativeQuery = true)
+    Long findUnreadNotificationCount(@Param("userId") Long userId);
+}
@@ -17,15 +17,36 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return toUserDetails(user, user.getPasswordHash());
+    }
+
+    /**
+     * Request-path variant of {@link #loadUserByUsername(String)} that serves the
+     * principal from {@link PrincipalCache} and only reads the users table on a miss.
+     */
+    public UserDetails loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetails cached = principalCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        // The filter never checks the password, so keep the hash out of the cache
+        UserDetails userDetails = toUserDetails(user, "");
+        principalCache.put(user.getId(), userDetails);
+        return userDetails;
+    }
 
+    private UserDetails toUserDetails(User user, String password) {
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
-                user.getPasswordHash(),
+                password,
                 user.getIsActive(),
                 true, true, true,
                 getAuthorities(user));
@@ -37,4 +58,4 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
         return Collections.emptyList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.adspeek.authservice.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small size-bounded LRU cache whose entries expire at a per-entry deadline.
+ * Used on the request path of the JWT filter, so every operation is O(1).
+ */
+class ExpiringLruCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    ExpiringLruCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        // Access-ordered so the eldest entry is always the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringLruCache.this.maxSize;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    synchronized void put(K key, V value, long expiresAtMillis) {
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+}
@@ -1,54 +1,92 @@
 package com.adspeek.authservice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final StreamTicketStore streamTicketStore;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String header = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
+        Claims claims = null;
 
         if (header != null && header.startsWith("Bearer ")) {
-            token = header.substring(7);
-            try {
-                username = jwtTokenProvider.getUsernameFromToken(token);
-            } catch (Exception ignored) {
-            }
+            // Single parse: signature, expiry, subject and roles all come from these claims
+            claims = jwtTokenProvider.parseClaims(header.substring(7));
+        } else if (STREAM_PATH.equals(request.getServletPath()) && request.getParameter("ticket") != null) {
+            // Browser EventSource cannot send an Authorization header; it brings a single-use ticket
+            authenticateWithTicket(request);
+            filterChain.doFilter(request, response);
+            return;
         }
 
+        String username = claims != null ? claims.getSubject() : null;
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtTokenProvider.validateToken(token)) {
-                var authentication = jwtTokenProvider.getAuthentication(token, userDetails);
-                if (authentication instanceof AbstractAuthenticationToken authToken) {
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            UserDetails userDetails = userDetailsService.loadCachedUserByUsername(username);
+            if (userDetails.isEnabled()) {
+                Authentication authentication = jwtTokenProvider.getAuthentication(claims, userDetails);
+                // Tokens minted before a role change are rejected; the client has to refresh
+                if (hasSameAuthorities(authentication, userDetails)) {
+                    if (authentication instanceof AbstractAuthenticationToken authToken) {
+                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    }
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
-                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
         filterChain.doFilter(request, response);
     }
 
+    private void authenticateWithTicket(HttpServletRequest request) {
+        String email = streamTicketStore.redeem(request.getParameter("ticket"));
+        if (email == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        UserDetails userDetails = userDetailsService.loadCachedUserByUsername(email);
+        if (userDetails.isEnabled()) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+    }
+
+    private boolean hasSameAuthorities(Authentication authentication, UserDetails userDetails) {
+        Set<String> tokenAuthorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        Set<String> userAuthorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        return tokenAuthorities.equals(userAuthorities);
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
@@ -57,4 +95,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 path.equals("/api/auth/refresh") ||
                 path.equals("/api/leads/public");
     }
-}
\ No newline at end of file
+}
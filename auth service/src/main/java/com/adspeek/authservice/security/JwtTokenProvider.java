@@ -20,6 +20,9 @@ public class JwtTokenProvider {
     private final long accessTokenValiditySeconds;
     private final long refreshTokenValiditySeconds;
 
+    // JwtParser is immutable and thread-safe once built, so one instance serves every request
+    private final JwtParser jwtParser;
+
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-validity-seconds}") long accessTokenValiditySeconds,
@@ -27,6 +30,7 @@ public class JwtTokenProvider {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
         this.accessTokenValiditySeconds = accessTokenValiditySeconds;
         this.refreshTokenValiditySeconds = refreshTokenValiditySeconds;
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(secretKey).build();
     }
 
     public String generateAccessToken(UserDetails userDetails) {
@@ -53,19 +57,37 @@ public class JwtTokenProvider {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
+    /**
+     * Parse and verify the token once, returning its claims or {@code null} if
+     * the token is malformed, expired or carries an invalid signature.
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public List<String> getRolesFromToken(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+        return getRolesFromClaims(jwtParser.parseClaimsJws(token).getBody());
+    }
+
+    public List<String> getRolesFromClaims(Claims claims) {
         Object roles = claims.get("roles");
         if (roles instanceof List<?>) {
             return ((List<?>) roles).stream().map(Object::toString).collect(Collectors.toList());
@@ -74,7 +96,15 @@ public class JwtTokenProvider {
     }
 
     public Authentication getAuthentication(String token, UserDetails userDetails) {
-        List<GrantedAuthority> authorities = getRolesFromToken(token).stream()
+        return toAuthentication(getRolesFromToken(token), userDetails);
+    }
+
+    public Authentication getAuthentication(Claims claims, UserDetails userDetails) {
+        return toAuthentication(getRolesFromClaims(claims), userDetails);
+    }
+
+    private Authentication toAuthentication(List<String> roles, UserDetails userDetails) {
+        List<GrantedAuthority> authorities = roles.stream()
                 .map(role -> {
                     // If role doesn't start with ROLE_, add it
                     String roleWithPrefix = role.startsWith("ROLE_") ? role : "ROLE_" + role;
@@ -0,0 +1,77 @@
+package com.adspeek.authservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the {@link UserDetails} resolved for an authenticated token so the JWT
+ * filter does not hit the users table on every request. Entries are keyed by
+ * email (the token subject), bounded in size, expire after a fixed TTL and are
+ * evicted whenever the underlying user row is updated or removed through JPA.
+ * A second bounded map from user id to the cached email keeps that eviction
+ * O(1), so a routine update such as the last-login stamp never scans the cache.
+ * <p>
+ * Eviction is entity-listener based: bulk JPQL/native updates of {@code users}
+ * and updates served by another instance are not seen here, so for those the
+ * TTL is the upper bound on how long a stale principal (a deactivated account,
+ * a changed role) can still authenticate. Keep {@code ttl-seconds} short.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final ExpiringLruCache<String, UserDetails> cache;
+    private final ExpiringLruCache<Long, String> emailByUserId;
+    private final long ttlMillis;
+
+    public PrincipalCache(
+            @Value("${jwt.principal-cache.max-size:10000}") int maxSize,
+            @Value("${jwt.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new ExpiringLruCache<>(maxSize);
+        this.emailByUserId = new ExpiringLruCache<>(maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public UserDetails get(String email) {
+        return cache.get(email);
+    }
+
+    public void put(Long userId, UserDetails userDetails) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        long expiresAtMillis = System.currentTimeMillis() + ttlMillis;
+        cache.put(userDetails.getUsername(), userDetails, expiresAtMillis);
+        if (userId != null) {
+            emailByUserId.put(userId, userDetails.getUsername(), expiresAtMillis);
+        }
+    }
+
+    /**
+     * Evict a user by id as well as by email, so a changed email does not leave
+     * the entry stored under the old address behind.
+     */
+    public void evict(Long userId, String email) {
+        if (email != null) {
+            cache.remove(email);
+        }
+        if (userId != null) {
+            String cachedEmail = emailByUserId.remove(userId);
+            if (cachedEmail != null && !cachedEmail.equals(email)) {
+                cache.remove(cachedEmail);
+            }
+        }
+        log.debug("Evicted cached principal for user {} ({})", userId, email);
+    }
+
+    public void clear() {
+        cache.clear();
+        emailByUserId.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.adspeek.authservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Short-lived, single-use tickets for opening the notification stream.
+ * Browser EventSource cannot send an Authorization header, and a JWT in the
+ * query string ends up in access logs and browser history; the client
+ * exchanges its JWT for a ticket instead and passes that as {@code ?ticket=}.
+ * Tickets live in {@code notification_stream_tickets} so any instance can
+ * redeem them; only their SHA-256 is stored, and redeeming deletes the row,
+ * so a ticket opens at most one stream.
+ */
+@Component
+@Slf4j
+public class StreamTicketStore {
+
+    private static final int TICKET_BYTES = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlSeconds;
+
+    public StreamTicketStore(JdbcTemplate jdbcTemplate,
+            @Value("${notifications.stream.ticket-ttl-seconds:30}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlSeconds = Math.max(1, ttlSeconds);
+    }
+
+    /**
+     * Issue a ticket for the user
+     *
+     * @return The ticket, to be redeemed within {@link #getTtlSeconds()} seconds
+     */
+    public String issue(String email) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        // Expired tickets are cleared a few at a time as new ones are issued
+        jdbcTemplate.update("DELETE FROM notification_stream_tickets WHERE expires_at < NOW(3) LIMIT 100");
+        jdbcTemplate.update("""
+                INSERT INTO notification_stream_tickets (ticket_hash, email, expires_at)
+                VALUES (?, ?, TIMESTAMPADD(SECOND, ?, NOW(3)))
+                """, hash(ticket), email, ttlSeconds);
+        return ticket;
+    }
+
+    /**
+     * Consume a ticket
+     *
+     * @return The email it was issued to, or null if it is unknown, expired or already used
+     */
+    public String redeem(String ticket) {
+        if (ticket == null || ticket.isBlank()) {
+            return null;
+        }
+        String ticketHash = hash(ticket);
+        List<String> emails = jdbcTemplate.queryForList(
+                "SELECT email FROM notification_stream_tickets WHERE ticket_hash = ? AND expires_at >= NOW(3)",
+                String.class, ticketHash);
+        // Only the request whose DELETE removes the row gets in
+        if (emails.isEmpty() || jdbcTemplate.update(
+                "DELETE FROM notification_stream_tickets WHERE ticket_hash = ?", ticketHash) != 1) {
+            return null;
+        }
+        return emails.get(0);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    private static String hash(String ticket) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(ticket.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
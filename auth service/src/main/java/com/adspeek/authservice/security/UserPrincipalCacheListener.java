@@ -0,0 +1,25 @@
+package com.adspeek.authservice.security;
+
+import com.adspeek.authservice.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link User} that drops the cached principal whenever the
+ * user row changes, so deactivation and role changes take effect immediately
+ * instead of after the principal cache TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCacheListener {
+
+    private final PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        principalCache.evict(user.getId(), user.getEmail());
+    }
+}
@@ -0,0 +1,39 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.dto.DocumentDTO;
+import com.adspeek.authservice.dto.UploadSessionDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ChunkedUploadService {
+
+    /**
+     * Start a resumable upload; chunks are then written with
+     * {@link #writeChunk} and the document is created by {@link #completeUpload}
+     */
+    UploadSessionDTO initUpload(Long clientId, Long taskId, String documentType, String originalFileName,
+            String fileType, long totalSize) throws IOException;
+
+    /**
+     * Write a chunk at the given offset. The offset may not be past the bytes
+     * already received; overlapping a stored range is allowed (resent chunk).
+     */
+    UploadSessionDTO writeChunk(String uploadId, long offset, InputStream content, long contentLength)
+            throws IOException;
+
+    /**
+     * Current state, used by clients to find the offset to resume from
+     */
+    UploadSessionDTO getUpload(String uploadId);
+
+    /**
+     * Move the fully received file into document storage and create the document
+     */
+    DocumentDTO completeUpload(String uploadId) throws IOException;
+
+    /**
+     * Discard an upload and its partial file
+     */
+    void abortUpload(String uploadId) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+public interface DocumentArchiveService {
+
+    /**
+     * Move blobs whose documents are all verified and older than the retention
+     * window from the hot store into packed archive segments. Downloads keep
+     * working transparently through {@link DocumentStorage#load}.
+     *
+     * @return The job record after the run
+     */
+    MaintenanceJob runTiering();
+}
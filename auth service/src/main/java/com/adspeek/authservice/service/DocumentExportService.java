@@ -0,0 +1,14 @@
+package com.adspeek.authservice.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface DocumentExportService {
+
+    /**
+     * Select the documents of a client or task (optionally narrowed by document
+     * type and status) and return a body that writes them as a ZIP archive
+     * straight to the response. Exactly one of clientId and taskId is used;
+     * taskId wins when both are given.
+     */
+    StreamingResponseBody exportAsZip(Long clientId, Long taskId, String documentType, String status);
+}
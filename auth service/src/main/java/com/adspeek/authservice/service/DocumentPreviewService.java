@@ -0,0 +1,33 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.event.DocumentUploadedEvent;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+
+public interface DocumentPreviewService {
+
+    /**
+     * Derive the preview image and, for compressible types, the gzip copy of a
+     * newly uploaded document
+     */
+    void generateDerivatives(DocumentUploadedEvent event);
+
+    /**
+     * Small JPEG preview of the document, generated on demand if it was
+     * evicted from the cache
+     *
+     * @return The preview, or null when the type cannot be previewed
+     */
+    Resource getPreview(Long documentId);
+
+    /**
+     * Gzip copy stored next to the blob, or null when there is none
+     */
+    Path findCompressedCopy(String storagePath);
+
+    /**
+     * Remove the preview and compressed copy once the blob itself is deleted
+     */
+    void deleteDerivatives(Long documentId, String checksum, String storagePath);
+}
@@ -0,0 +1,45 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+import java.util.List;
+
+public interface DocumentSearchIndexService {
+
+    /**
+     * (Re)write the search tokens of a document from its current file name,
+     * client company name and document type
+     */
+    void indexDocument(Long documentId);
+
+    /**
+     * Re-index every document of a client, e.g. after the company was renamed
+     */
+    void reindexClient(Long clientId);
+
+    /**
+     * Drop the search tokens of a deleted document
+     */
+    void removeDocument(Long documentId);
+
+    /**
+     * Drop the search tokens of every document of a client that is about to be
+     * deleted (the documents go with the FK cascade)
+     */
+    void removeClient(Long clientId);
+
+    /**
+     * Tokens a document must all carry to possibly match the search term.
+     * Empty when no word of the term is long enough to narrow the candidates;
+     * the search then relies on its LIKE check alone.
+     */
+    List<String> queryTokens(String searchTerm);
+
+    /**
+     * Index documents uploaded before the search index existed. Runs in
+     * primary-key batches and resumes from the last processed id.
+     *
+     * @return The job record after the run
+     */
+    MaintenanceJob runBackfill();
+}
@@ -1,12 +1,16 @@
 package com.adspeek.authservice.service;
 
 import com.adspeek.authservice.dto.DocumentDTO;
+import com.adspeek.authservice.dto.DocumentDownloadDTO;
 import com.adspeek.authservice.dto.LatestDocumentUploadDTO;
 import com.adspeek.authservice.dto.DocumentStatisticsDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface DocumentService {
@@ -14,6 +18,11 @@ public interface DocumentService {
         // Upload document
         DocumentDTO uploadDocument(MultipartFile file, Long clientId, Long taskId, String documentType);
 
+        // Create the document row for content already placed in DocumentStorage
+        // (e.g. an assembled chunked upload)
+        DocumentDTO createDocumentFromBlob(DocumentStorage.StoredBlob blob, String originalFileName, String fileType,
+                        Long clientId, Long taskId, String documentType);
+
         // Get document by ID
         DocumentDTO getDocumentById(Long id);
 
@@ -30,6 +39,11 @@ public interface DocumentService {
         Page<DocumentDTO> getDocumentsWithFilters(Long clientId, Long taskId, String documentType, String isVerified,
                         String searchTerm, int page, int size);
 
+        // Get documents with filters, continuing after the last row of the previous
+        // page (keyset pagination on upload date and id)
+        Page<DocumentDTO> getDocumentsWithFilters(Long clientId, Long taskId, String documentType, String isVerified,
+                        String searchTerm, LocalDateTime afterUploadDate, Long afterId, int page, int size);
+
         Page<LatestDocumentUploadDTO> getLatestUploads(Pageable pageable);
 
         // Get documents with pagination
@@ -44,7 +58,8 @@ public interface DocumentService {
         // Delete document
         void deleteDocument(Long id);
 
-        // Download document (deprecated - use downloadDocumentWithResponse instead)
+        // Download document (deprecated - reads the whole file into memory, use
+        // downloadDocumentWithResponse instead)
         @Deprecated
         byte[] downloadDocument(Long id);
 
@@ -60,6 +75,9 @@ public interface DocumentService {
         // Search documents
         List<DocumentDTO> searchDocuments(String searchTerm);
 
+        // Search documents by file name, client company name or document type
+        Page<DocumentDTO> searchDocuments(String searchTerm, Pageable pageable);
+
         // Get document count by client
         Long getDocumentCountByClient(Long clientId);
 
@@ -74,9 +92,14 @@ public interface DocumentService {
 
         DocumentStatisticsDTO getDocumentStatisticsByClient(Long clientId);
 
-        // Download document with proper response
-        org.springframework.http.ResponseEntity<org.springframework.core.io.ByteArrayResource> downloadDocumentWithResponse(
-                        Long id);
+        // Download document with proper response (streamed, supports Range and ETag)
+        ResponseEntity<Resource> downloadDocumentWithResponse(Long id);
+
+        // Resolve a document's file for streaming without reading it into memory
+        DocumentDownloadDTO getDocumentDownload(Long id);
+
+        // Build the streaming download response for a resolved document
+        ResponseEntity<Resource> toDownloadResponse(DocumentDownloadDTO download);
 
         // Client-specific search methods
         List<DocumentDTO> searchDocumentsByClient(Long clientId, String searchTerm);
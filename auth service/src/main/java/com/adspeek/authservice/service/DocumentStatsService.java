@@ -0,0 +1,28 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.dto.DocumentStatisticsDTO;
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+/**
+ * Dashboard document statistics served from the {@code document_stats}
+ * rollup, which triggers on {@code documents} keep in step with every insert,
+ * update and delete
+ */
+public interface DocumentStatsService {
+
+    DocumentStatisticsDTO getGlobalStatistics();
+
+    DocumentStatisticsDTO getClientStatistics(Long clientId);
+
+    /**
+     * Statistics over documents of tasks currently assigned to the staff member
+     */
+    DocumentStatisticsDTO getStaffStatistics(Long staffId);
+
+    /**
+     * Recompute the rollup from the documents table
+     *
+     * @return The job record after the run
+     */
+    MaintenanceJob rebuild();
+}
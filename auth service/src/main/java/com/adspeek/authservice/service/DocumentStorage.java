@@ -0,0 +1,73 @@
+package com.adspeek.authservice.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Storage backend for uploaded document content. Implementations are content
+ * addressed: identical bytes are stored once and identified by their SHA-256
+ * checksum, which rows in the {@code documents} table reference.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Store the stream, hashing it while it is written
+     *
+     * @return The stored blob; {@code deduplicated} is true when identical content already existed
+     */
+    StoredBlob store(InputStream content) throws IOException;
+
+    /**
+     * Move an already written file (e.g. an assembled chunked upload) into the store
+     */
+    StoredBlob storeFile(Path source) throws IOException;
+
+    /**
+     * Resolve a storage path as recorded in {@code documents.file_path}
+     */
+    Path resolve(String storagePath);
+
+    /**
+     * Open a stored blob for streaming, from the hot store or its archive segment
+     */
+    Resource load(String storagePath);
+
+    /**
+     * Size and modification time of a stored blob, wherever it is kept
+     *
+     * @return null when the blob exists neither hot nor archived
+     */
+    BlobAttributes stat(String storagePath) throws IOException;
+
+    /**
+     * Move a hot blob into a packed archive segment; {@link #load} keeps
+     * serving it from there
+     *
+     * @param compress gzip the content inside the segment (pointless for JPEG, PDF, ZIP, ...)
+     * @return false when the blob was not in the hot store
+     */
+    boolean archive(String storagePath, boolean compress) throws IOException;
+
+    /**
+     * Re-hash a stored blob and compare it with the checksum it was stored under
+     *
+     * @return false when the content no longer matches (or the blob is missing)
+     */
+    boolean verify(String storagePath, String checksum) throws IOException;
+
+    /**
+     * Remove a file that belongs to a single document (legacy, not content
+     * addressed). Shared blobs are never deleted inline; the store
+     * reconciliation job reclaims them once unreferenced past its grace period.
+     */
+    void delete(String storagePath) throws IOException;
+
+    record StoredBlob(String checksum, String storagePath, long size, boolean deduplicated) {
+    }
+
+    record BlobAttributes(long size, long lastModified, boolean archived) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+public interface DocumentStoreReconciliationService {
+
+    /**
+     * Reconcile the blob store with the {@code documents} table: quarantine
+     * blobs and legacy files no row references, drop unreferenced archive
+     * entries and compact their segments, purge expired quarantine, report
+     * rows whose content is missing, and drop derived rows (search tokens,
+     * stats) left behind by deleted documents and clients
+     *
+     * @return The job record after the run; its counters and message carry the run's figures
+     */
+    MaintenanceJob runReconciliation();
+}
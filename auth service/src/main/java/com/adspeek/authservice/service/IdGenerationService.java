@@ -21,4 +21,20 @@ public interface IdGenerationService {
      * @return The next service request ID (e.g., SR-2025-001)
      */
     String generateNextServiceRequestId();
+
+    /**
+     * Generate the next lead ID within the given year's sequence
+     * 
+     * @param year The year encoded in the ID
+     * @return The next lead ID for that year (e.g., LEAD-2024-017)
+     */
+    String generateLeadIdForYear(int year);
+
+    /**
+     * Generate the next service request ID within the given year's sequence
+     * 
+     * @param year The year encoded in the ID
+     * @return The next service request ID for that year (e.g., SR-2024-017)
+     */
+    String generateServiceRequestIdForYear(int year);
 }
@@ -0,0 +1,22 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+import java.util.List;
+
+public interface LegacyIdRepairService {
+
+    /**
+     * Rewrite old-format lead and service request IDs (e.g. timestamp based
+     * LEAD123456) to the LEAD-YYYY-NNN / SR-YYYY-NNN format. Each table is
+     * processed once in primary-key batches; completed tables are skipped.
+     *
+     * @return The job records after the run
+     */
+    List<MaintenanceJob> runRepair();
+
+    /**
+     * Current progress of the repair jobs
+     */
+    List<MaintenanceJob> getRepairStatus();
+}
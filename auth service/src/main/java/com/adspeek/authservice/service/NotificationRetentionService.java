@@ -0,0 +1,23 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+public interface NotificationRetentionService {
+
+    /**
+     * Purge read notifications past their type's retention period, in
+     * primary-key chunks with pauses in between, archiving them first when
+     * archiving is enabled
+     *
+     * @return The job record after the run
+     */
+    MaintenanceJob runRetention();
+
+    /**
+     * Purge read notifications older than the given number of days, whatever
+     * their type, using the same chunked delete
+     *
+     * @return Number of notifications deleted
+     */
+    long purgeReadOlderThan(int days);
+}
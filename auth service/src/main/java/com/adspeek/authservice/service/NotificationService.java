@@ -3,6 +3,7 @@ package com.adspeek.authservice.service;
 import com.adspeek.authservice.dto.NotificationDTO;
 import com.adspeek.authservice.entity.Notification;
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -18,6 +19,9 @@ public interface NotificationService {
     // Get unread notifications for a user
     List<NotificationDTO> getUnreadNotifications(Long userId);
 
+    // Open a Server-Sent Events stream, replaying what was created after lastEventId
+    SseEmitter openNotificationStream(Long userId, Long lastEventId);
+
     // Count unread notifications for a user
     long getUnreadNotificationCount(Long userId);
 
@@ -0,0 +1,14 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+public interface NotificationUnreadCountService {
+
+    /**
+     * Recompute every user's unread notification count from the notifications
+     * table, writing only the counts that drifted
+     *
+     * @return The job record after the run
+     */
+    MaintenanceJob rebuild();
+}
@@ -0,0 +1,22 @@
+package com.adspeek.authservice.service;
+
+import com.adspeek.authservice.dto.AdminDashboardStatsDTO;
+import com.adspeek.authservice.entity.MaintenanceJob;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StaffTaskStatsService {
+
+    /**
+     * Completed and open task counts of every staff member for tasks assigned in the range
+     */
+    List<AdminDashboardStatsDTO.StaffPerformance> getStaffPerformance(LocalDate from, LocalDate to);
+
+    /**
+     * Recompute the counters from the tasks table
+     *
+     * @return The job record after the run
+     */
+    MaintenanceJob rebuild();
+}
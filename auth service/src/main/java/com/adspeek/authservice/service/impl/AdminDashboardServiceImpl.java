@@ -3,23 +3,22 @@ package com.adspeek.authservice.service.impl;
 import com.adspeek.authservice.dto.AdminDashboardStatsDTO;
 import com.adspeek.authservice.dto.AdminDashboardStatsDTO.ChartPoint;
 import com.adspeek.authservice.repository.AdminDashboardRepository;
-import com.adspeek.authservice.repository.StaffRepository;
 import com.adspeek.authservice.service.AdminDashboardService;
 import com.adspeek.authservice.service.LeadService;
+import com.adspeek.authservice.service.StaffTaskStatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class AdminDashboardServiceImpl implements AdminDashboardService {
     private final AdminDashboardRepository adminDashboardRepository;
-    private final StaffRepository staffRepository;
+    private final StaffTaskStatsService staffTaskStatsService;
     private final LeadService leadService;
 
     @Override
@@ -32,23 +31,10 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
         int completedFilings = adminDashboardRepository.getCompletedFilingsCount().intValue();
         int totalStaff = ((Number) summary.getOrDefault("total_staff", 0)).intValue();
 
-        // 2. Staff performance (for all staff)
-        List<AdminDashboardStatsDTO.StaffPerformance> staffPerformance = new ArrayList<>();
-        LocalDate start = LocalDate.now().minusMonths(1);
+        // 2. Staff performance (for all staff, one grouped query over the per-staff counters)
         LocalDate end = LocalDate.now();
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        staffRepository.findAll().forEach(staff -> {
-            List<Object[]> perf = adminDashboardRepository.getStaffPerformance(staff.getId(), start.format(fmt),
-                    end.format(fmt));
-            if (!perf.isEmpty()) {
-                Object[] row = perf.get(0);
-                staffPerformance.add(AdminDashboardStatsDTO.StaffPerformance.builder()
-                        .name(staff.getUser().getFirstName() + " " + staff.getUser().getLastName())
-                        .completed(row[1] != null ? ((Number) row[1]).intValue() : 0)
-                        .pending(row[2] != null ? ((Number) row[2]).intValue() : 0)
-                        .build());
-            }
-        });
+        List<AdminDashboardStatsDTO.StaffPerformance> staffPerformance = staffTaskStatsService
+                .getStaffPerformance(end.minusMonths(1), end);
 
         // 3. Latest uploads
         List<AdminDashboardStatsDTO.LatestUpload> latestUploads = new ArrayList<>();
@@ -0,0 +1,315 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.dto.DocumentDTO;
+import com.adspeek.authservice.dto.UploadSessionDTO;
+import com.adspeek.authservice.entity.Document;
+import com.adspeek.authservice.entity.UploadSession;
+import com.adspeek.authservice.entity.User;
+import com.adspeek.authservice.repository.ClientRepository;
+import com.adspeek.authservice.repository.TaskRepository;
+import com.adspeek.authservice.repository.UploadSessionRepository;
+import com.adspeek.authservice.repository.UserRepository;
+import com.adspeek.authservice.service.ChunkedUploadService;
+import com.adspeek.authservice.service.DocumentService;
+import com.adspeek.authservice.service.DocumentStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable uploads: init reserves a session and an empty file next to the
+ * blob store, every chunk is transferred from the request stream straight to
+ * its position in that file, and complete moves the file into
+ * {@link DocumentStorage} (same filesystem, so it is a rename, not a copy).
+ * Complete runs in two steps, storing the content and then creating the
+ * document, each under a row lock on the session; a concurrent or retried
+ * complete of the same upload waits and then finds the step done.
+ */
+@Service
+@Slf4j
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ClientRepository clientRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final DocumentService documentService;
+    private final DocumentStorage documentStorage;
+    private final SchedulerLock schedulerLock;
+    private final TransactionTemplate transactionTemplate;
+    private final Path incomingRoot;
+    private final long maxFileSize;
+    private final long maxChunkSize;
+    private final long sessionTtlHours;
+
+    public ChunkedUploadServiceImpl(UploadSessionRepository uploadSessionRepository,
+            ClientRepository clientRepository, TaskRepository taskRepository, UserRepository userRepository,
+            DocumentService documentService, DocumentStorage documentStorage, SchedulerLock schedulerLock,
+            PlatformTransactionManager transactionManager,
+            @Value("${documents.storage.root:uploads/documents}") String storageRoot,
+            @Value("${documents.chunked-upload.max-file-size:2147483648}") long maxFileSize,
+            @Value("${documents.chunked-upload.max-chunk-size:16777216}") long maxChunkSize,
+            @Value("${documents.chunked-upload.session-ttl-hours:24}") long sessionTtlHours) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.clientRepository = clientRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.documentService = documentService;
+        this.documentStorage = documentStorage;
+        this.schedulerLock = schedulerLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Under the storage root so completing an upload is an atomic rename
+        this.incomingRoot = Paths.get(storageRoot).resolve("incoming");
+        this.maxFileSize = maxFileSize;
+        this.maxChunkSize = maxChunkSize;
+        this.sessionTtlHours = sessionTtlHours;
+    }
+
+    @Override
+    public UploadSessionDTO initUpload(Long clientId, Long taskId, String documentType, String originalFileName,
+            String fileType, long totalSize) throws IOException {
+        if (totalSize <= 0 || totalSize > maxFileSize) {
+            throw new IllegalArgumentException("File size must be between 1 and " + maxFileSize + " bytes");
+        }
+        if (originalFileName == null || originalFileName.isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        Document.DocumentType.valueOf(documentType);
+        if (!clientRepository.existsById(clientId)) {
+            throw new RuntimeException("Client not found");
+        }
+        if (taskId != null && !taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        Files.createDirectories(incomingRoot);
+        Path tempFile = incomingRoot.resolve(uploadId + ".upload");
+        Files.createFile(tempFile);
+
+        UploadSession session = UploadSession.builder()
+                .uploadId(uploadId)
+                .clientId(clientId)
+                .taskId(taskId)
+                .documentType(documentType)
+                .originalFileName(originalFileName)
+                .fileType(fileType)
+                .totalSize(totalSize)
+                .receivedBytes(0L)
+                .status(UploadSession.Status.IN_PROGRESS)
+                .tempPath(tempFile.toString())
+                .createdBy(requireCurrentUser().getId())
+                .expiresAt(LocalDateTime.now().plusHours(sessionTtlHours))
+                .build();
+        return toDTO(uploadSessionRepository.save(session));
+    }
+
+    @Override
+    public UploadSessionDTO writeChunk(String uploadId, long offset, InputStream content, long contentLength)
+            throws IOException {
+        UploadSession session = findOwnedSession(uploadId);
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS) {
+            throw new IllegalStateException("Upload is " + session.getStatus());
+        }
+        if (offset < 0 || offset > session.getReceivedBytes()) {
+            throw new IllegalStateException("Chunk offset " + offset + " does not match received bytes "
+                    + session.getReceivedBytes());
+        }
+        long remaining = session.getTotalSize() - offset;
+        long limit = Math.min(remaining, maxChunkSize);
+        if (contentLength > limit) {
+            throw new IllegalArgumentException("Chunk of " + contentLength + " bytes exceeds the allowed "
+                    + limit + " bytes");
+        }
+
+        long written = 0;
+        // transferFrom writes at an absolute position straight from the request
+        // stream, so chunks are neither buffered whole nor copied a second time
+        try (FileChannel file = FileChannel.open(Paths.get(session.getTempPath()), StandardOpenOption.WRITE);
+                ReadableByteChannel source = Channels.newChannel(content)) {
+            long expected = contentLength >= 0 ? contentLength : limit;
+            while (written < expected) {
+                long transferred = file.transferFrom(source, offset + written, expected - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            // Only acknowledge bytes that are durable
+            file.force(false);
+        }
+
+        long end = offset + written;
+        uploadSessionRepository.advanceReceivedBytes(uploadId, offset, end,
+                LocalDateTime.now().plusHours(sessionTtlHours));
+        return toDTO(uploadSessionRepository.findById(uploadId).orElse(session));
+    }
+
+    @Override
+    public UploadSessionDTO getUpload(String uploadId) {
+        return toDTO(findOwnedSession(uploadId));
+    }
+
+    @Override
+    public DocumentDTO completeUpload(String uploadId) throws IOException {
+        UploadSession session = findOwnedSession(uploadId);
+        if (session.getStatus() == UploadSession.Status.COMPLETED && session.getDocumentId() != null) {
+            return documentService.getDocumentById(session.getDocumentId());
+        }
+
+        // Committed on its own, so a failed document insert leaves an ASSEMBLED session to retry
+        try {
+            transactionTemplate.executeWithoutResult(status -> assemble(uploadId));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return transactionTemplate.execute(status -> createDocument(uploadId));
+    }
+
+    private void assemble(String uploadId) {
+        UploadSession session = lockSession(uploadId);
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS) {
+            // Already stored by another complete; its temp file is gone
+            return;
+        }
+        if (session.getReceivedBytes() < session.getTotalSize()) {
+            throw new IllegalStateException("Upload incomplete: " + session.getReceivedBytes() + " of "
+                    + session.getTotalSize() + " bytes received");
+        }
+        try {
+            Path tempFile = Paths.get(session.getTempPath());
+            if (Files.size(tempFile) > session.getTotalSize()) {
+                try (FileChannel file = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    file.truncate(session.getTotalSize());
+                }
+            }
+            DocumentStorage.StoredBlob blob = documentStorage.storeFile(tempFile);
+            // Remember the blob so a retried complete does not need the moved temp file
+            session.setChecksum(blob.checksum());
+            session.setStoragePath(blob.storagePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        session.setStatus(UploadSession.Status.ASSEMBLED);
+        uploadSessionRepository.save(session);
+    }
+
+    private DocumentDTO createDocument(String uploadId) {
+        UploadSession session = lockSession(uploadId);
+        if (session.getStatus() == UploadSession.Status.COMPLETED && session.getDocumentId() != null) {
+            return documentService.getDocumentById(session.getDocumentId());
+        }
+        if (session.getStatus() != UploadSession.Status.ASSEMBLED) {
+            throw new IllegalStateException("Upload is " + session.getStatus());
+        }
+
+        DocumentDTO document = documentService.createDocumentFromBlob(
+                new DocumentStorage.StoredBlob(session.getChecksum(), session.getStoragePath(),
+                        session.getTotalSize(), false),
+                session.getOriginalFileName(), session.getFileType(), session.getClientId(), session.getTaskId(),
+                session.getDocumentType());
+
+        session.setDocumentId(document.getId());
+        session.setStatus(UploadSession.Status.COMPLETED);
+        uploadSessionRepository.save(session);
+        return document;
+    }
+
+    @Override
+    public void abortUpload(String uploadId) throws IOException {
+        UploadSession session = findOwnedSession(uploadId);
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS) {
+            throw new IllegalStateException("Upload is " + session.getStatus());
+        }
+        Files.deleteIfExists(Paths.get(session.getTempPath()));
+        session.setStatus(UploadSession.Status.ABORTED);
+        uploadSessionRepository.save(session);
+    }
+
+    /**
+     * Drop partial files of uploads that were abandoned
+     */
+    @Scheduled(cron = "${documents.chunked-upload.cleanup-cron:0 20 * * * *}")
+    public void expireAbandonedUploads() {
+        schedulerLock.runExclusively("CHUNKED_UPLOAD_EXPIRY", this::expireAbandonedUploadsNow);
+    }
+
+    private void expireAbandonedUploadsNow() {
+        List<UploadSession> expired;
+        do {
+            expired = uploadSessionRepository.findTop100ByStatusAndExpiresAtBefore(UploadSession.Status.IN_PROGRESS,
+                    LocalDateTime.now());
+            for (UploadSession session : expired) {
+                try {
+                    Files.deleteIfExists(Paths.get(session.getTempPath()));
+                } catch (IOException e) {
+                    log.warn("Failed to delete partial upload {}: {}", session.getTempPath(), e.getMessage());
+                }
+                session.setStatus(UploadSession.Status.EXPIRED);
+            }
+            uploadSessionRepository.saveAll(expired);
+            if (!expired.isEmpty()) {
+                log.info("Expired {} abandoned chunked uploads", expired.size());
+            }
+        } while (expired.size() == 100);
+    }
+
+    private UploadSession lockSession(String uploadId) {
+        return uploadSessionRepository.findByIdForUpdate(uploadId)
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+    }
+
+    private UploadSession findOwnedSession(String uploadId) {
+        UploadSession session = uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+        User currentUser = requireCurrentUser();
+        if (!session.getCreatedBy().equals(currentUser.getId()) && currentUser.getRole() != User.Role.ADMIN) {
+            throw new AccessDeniedException("Upload belongs to another user");
+        }
+        return session;
+    }
+
+    private User requireCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return userRepository.findByEmail(authentication.getName())
+                    .orElseThrow(() -> new RuntimeException("Current user not found"));
+        }
+        throw new RuntimeException("Current user not found");
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session) {
+        return UploadSessionDTO.builder()
+                .uploadId(session.getUploadId())
+                .clientId(session.getClientId())
+                .taskId(session.getTaskId())
+                .documentType(session.getDocumentType())
+                .originalFileName(session.getOriginalFileName())
+                .totalSize(session.getTotalSize())
+                .receivedBytes(session.getReceivedBytes())
+                .status(session.getStatus().name())
+                .documentId(session.getDocumentId())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
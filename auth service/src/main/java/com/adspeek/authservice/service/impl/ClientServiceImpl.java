@@ -8,12 +8,14 @@ import com.adspeek.authservice.entity.Client;
 import com.adspeek.authservice.entity.User;
 import com.adspeek.authservice.entity.Staff;
 import com.adspeek.authservice.repository.ClientRepository;
+import com.adspeek.authservice.repository.DocumentRepository;
 import com.adspeek.authservice.repository.UserRepository;
 import com.adspeek.authservice.repository.StaffRepository;
 import com.adspeek.authservice.repository.TaskRepository;
 import com.adspeek.authservice.service.ClientService;
 import com.adspeek.authservice.service.AuditLogService;
 import com.adspeek.authservice.service.NotificationService;
+import com.adspeek.authservice.service.DocumentSearchIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -38,8 +40,10 @@ public class ClientServiceImpl implements ClientService {
     private final UserRepository userRepository;
     private final StaffRepository staffRepository;
     private final TaskRepository taskRepository;
+    private final DocumentRepository documentRepository;
     private final AuditLogService auditLogService;
     private final NotificationService notificationService;
+    private final DocumentSearchIndexService documentSearchIndexService;
 
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -288,6 +292,7 @@ public class ClientServiceImpl implements ClientService {
         // Get current authenticated user for updatedBy
         User currentUser = getCurrentUser();
 
+        boolean companyRenamed = !java.util.Objects.equals(client.getCompanyName(), clientDTO.getCompanyName());
         client.setCompanyName(clientDTO.getCompanyName());
         client.setCompanyType(clientDTO.getCompanyType());
         client.setGstNumber(clientDTO.getGstNumber());
@@ -311,6 +316,12 @@ public class ClientServiceImpl implements ClientService {
         client.setUpdatedBy(currentUser);
 
         Client updatedClient = clientRepository.save(client);
+
+        // Document search matches on the company name; flush so the re-index reads it
+        if (companyRenamed) {
+            clientRepository.flush();
+            documentSearchIndexService.reindexClient(updatedClient.getId());
+        }
         return convertToDTO(updatedClient);
     }
 
@@ -322,7 +333,18 @@ public class ClientServiceImpl implements ClientService {
         // Get the user associated with this client
         User user = client.getUser();
 
-        // First delete the client record
+        // Search tokens are keyed by document id only, so drop them before the documents go
+        documentSearchIndexService.removeClient(id);
+
+        // Delete the documents explicitly so the document_stats triggers see them (an FK
+        // cascade would not); the blobs they leave behind are quarantined by the document
+        // store reconciliation job
+        documentRepository.deleteAllByClientIdInBulk(id);
+
+        // Likewise the tasks, so the staff_task_stats triggers see them
+        taskRepository.deleteAllByClientIdInBulk(id);
+
+        // Then delete the client record
         clientRepository.delete(client);
 
         // Then delete the associated user
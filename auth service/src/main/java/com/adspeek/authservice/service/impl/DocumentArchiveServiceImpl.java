@@ -0,0 +1,135 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.service.DocumentArchiveService;
+import com.adspeek.authservice.service.DocumentPreviewService;
+import com.adspeek.authservice.service.DocumentStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Nightly tiering of cold document content. A blob is archived once every
+ * document referencing it is VERIFIED and both verified and uploaded before
+ * the retention window, so a blob shared with a newer or pending document
+ * stays hot. Candidates are read in checksum order in bounded batches.
+ */
+@Service
+@Slf4j
+public class DocumentArchiveServiceImpl implements DocumentArchiveService {
+
+    static final String TIERING_JOB = "DOCUMENT_ARCHIVE_TIERING";
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "pdf", "jpg", "jpeg", "png", "gif", "zip", "rar", "7z", "gz", "docx", "xlsx", "pptx");
+
+    private static final String SELECT_CANDIDATES = """
+            SELECT d.checksum, MIN(d.file_path), MIN(d.original_file_name), MAX(d.file_size)
+            FROM documents d
+            WHERE d.checksum IS NOT NULL
+            AND d.checksum > ?
+            AND NOT EXISTS (SELECT 1 FROM document_archive_entries a WHERE a.checksum = d.checksum)
+            GROUP BY d.checksum
+            HAVING SUM(CASE WHEN d.status = 'VERIFIED' AND d.verified_at < ? AND d.upload_date < ?
+                            THEN 0 ELSE 1 END) = 0
+            ORDER BY d.checksum
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final DocumentStorage documentStorage;
+    private final DocumentPreviewService documentPreviewService;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long maxBlobsPerRun;
+
+    public DocumentArchiveServiceImpl(JdbcTemplate jdbcTemplate, MaintenanceJobRunner maintenanceJobRunner,
+            DocumentStorage documentStorage, DocumentPreviewService documentPreviewService,
+            @Value("${documents.archive.enabled:true}") boolean enabled,
+            @Value("${documents.archive.retention-days:365}") int retentionDays,
+            @Value("${documents.archive.batch-size:200}") int batchSize,
+            @Value("${documents.archive.max-blobs-per-run:10000}") long maxBlobsPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.documentStorage = documentStorage;
+        this.documentPreviewService = documentPreviewService;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBlobsPerRun = maxBlobsPerRun;
+    }
+
+    @Scheduled(cron = "${documents.archive.cron:0 30 2 * * *}")
+    public void scheduledTiering() {
+        if (enabled) {
+            runTiering();
+        }
+    }
+
+    @Override
+    public MaintenanceJob runTiering() {
+        return maintenanceJobRunner.run(TIERING_JOB, job -> {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+            String afterChecksum = "";
+            long archivedBytes = 0;
+            long failures = 0;
+            while (job.getProcessedCount() < maxBlobsPerRun) {
+                List<Candidate> candidates = jdbcTemplate.query(SELECT_CANDIDATES,
+                        (rs, rowNum) -> new Candidate(rs.getString(1), rs.getString(2), rs.getString(3),
+                                rs.getLong(4)),
+                        afterChecksum, cutoff, cutoff, batchSize);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                for (Candidate candidate : candidates) {
+                    try {
+                        if (documentStorage.archive(candidate.storagePath(), shouldCompress(candidate.fileName()))) {
+                            dropCompressedCopy(candidate.storagePath());
+                            job.setUpdatedCount(job.getUpdatedCount() + 1);
+                            archivedBytes += candidate.fileSize();
+                        }
+                    } catch (IOException e) {
+                        failures++;
+                        log.warn("Failed to archive blob {}: {}", candidate.checksum(), e.getMessage());
+                    }
+                }
+                afterChecksum = candidates.get(candidates.size() - 1).checksum();
+                job.setProcessedCount(job.getProcessedCount() + candidates.size());
+                maintenanceJobRunner.checkpoint(job);
+                if (candidates.size() < batchSize) {
+                    break;
+                }
+            }
+            job.setMessage("Archived " + archivedBytes + " bytes" + (failures > 0 ? ", " + failures + " failed" : ""));
+        });
+    }
+
+    // The gzip download copy is only useful while the blob is hot
+    private void dropCompressedCopy(String storagePath) throws IOException {
+        Path compressed = documentPreviewService.findCompressedCopy(storagePath);
+        if (compressed != null) {
+            Files.deleteIfExists(compressed);
+        }
+    }
+
+    private static boolean shouldCompress(String fileName) {
+        int dot = fileName != null ? fileName.lastIndexOf('.') : -1;
+        return dot < 0 || !COMPRESSED_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private record Candidate(String checksum, String storagePath, String fileName, long fileSize) {
+    }
+}
@@ -0,0 +1,324 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.DocumentArchiveEntry;
+import com.adspeek.authservice.repository.DocumentArchiveEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Packed archive segments for cold blobs. Segments are append-only files
+ * under {@code <root>/archive}; each blob is appended as one record (a gzip
+ * member, or raw bytes for content that is already compressed) and located
+ * through {@link DocumentArchiveEntry}. Reads open the segment and read only
+ * the entry's byte range with positional reads, so a segment is never
+ * scanned or unpacked as a whole.
+ */
+@Component
+@Slf4j
+public class DocumentArchiveStore {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{6})\\.seg");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentArchiveEntryRepository archiveEntryRepository;
+    private final Path archiveRoot;
+    private final long segmentMaxBytes;
+
+    // Guarded by "this"; appends go to one segment at a time
+    private int currentSegment = -1;
+
+    public DocumentArchiveStore(DocumentArchiveEntryRepository archiveEntryRepository,
+            @Value("${documents.storage.root:uploads/documents}") String storageRoot,
+            @Value("${documents.archive.segment-max-bytes:536870912}") long segmentMaxBytes) {
+        this.archiveEntryRepository = archiveEntryRepository;
+        this.archiveRoot = Paths.get(storageRoot).resolve("archive");
+        this.segmentMaxBytes = segmentMaxBytes;
+    }
+
+    public Optional<DocumentArchiveEntry> find(String checksum) {
+        return checksum != null ? archiveEntryRepository.findById(checksum) : Optional.empty();
+    }
+
+    /**
+     * Append a blob to the open segment and record its location. The segment
+     * is forced to disk before the entry is saved, so an entry never points at
+     * bytes that could be lost; a crash in between only leaves unreferenced
+     * bytes at the end of the segment.
+     */
+    public synchronized DocumentArchiveEntry append(String checksum, Path blob, boolean compress) throws IOException {
+        Path segment = openSegment();
+        long originalSize = Files.size(blob);
+        long offset;
+        long storedLength;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            offset = channel.size();
+            OutputStream out = Channels.newOutputStream(channel);
+            if (compress) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+                Files.copy(blob, gzip);
+                // finish() completes the member without closing the shared channel
+                gzip.finish();
+            } else {
+                Files.copy(blob, out);
+            }
+            channel.force(true);
+            storedLength = channel.size() - offset;
+        }
+
+        return archiveEntryRepository.save(DocumentArchiveEntry.builder()
+                .checksum(checksum)
+                .segmentName(segment.getFileName().toString())
+                .entryOffset(offset)
+                .storedLength(storedLength)
+                .originalSize(originalSize)
+                .compressed(compress)
+                .archivedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Stream the original content of an archived blob. An entry read before a
+     * compaction may name a segment that has since been retired; its current
+     * location is looked up again in that case.
+     */
+    public InputStream open(DocumentArchiveEntry entry) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(archiveRoot.resolve(entry.getSegmentName()), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            Optional<DocumentArchiveEntry> moved = find(entry.getChecksum())
+                    .filter(current -> !current.getSegmentName().equals(entry.getSegmentName()));
+            if (moved.isEmpty()) {
+                throw e;
+            }
+            log.debug("Archived blob {} moved from {} to {}", entry.getChecksum(), entry.getSegmentName(),
+                    moved.get().getSegmentName());
+            return open(moved.get());
+        }
+        InputStream slice = new SegmentSliceInputStream(channel, entry.getEntryOffset(),
+                entry.getEntryOffset() + entry.getStoredLength());
+        return Boolean.TRUE.equals(entry.getCompressed()) ? new GZIPInputStream(slice, BUFFER_SIZE) : slice;
+    }
+
+    public Resource asResource(DocumentArchiveEntry entry) {
+        return new ArchivedBlobResource(entry);
+    }
+
+    /**
+     * Forget an archived blob. Its bytes stay in the segment until the
+     * segment is compacted; segments are never modified in place.
+     */
+    public void remove(String checksum) {
+        if (checksum != null && archiveEntryRepository.existsById(checksum)) {
+            archiveEntryRepository.deleteById(checksum);
+        }
+    }
+
+    /**
+     * Segment files currently on disk, in name order
+     */
+    public List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(archiveRoot)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(archiveRoot)) {
+            return files.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Copy the live entries of a segment to the open segment as stored (no
+     * recompression), repoint their rows and move the old segment file into
+     * {@code retiredDir}. The copies are forced to disk before any row is
+     * repointed, so every row always points at complete bytes. The open
+     * segment itself is never compacted.
+     *
+     * @return Size of the retired segment file, or 0 if it was skipped
+     */
+    public synchronized long compact(String segmentName, Path retiredDir) throws IOException {
+        Path source = archiveRoot.resolve(segmentName);
+        Path target = openSegment();
+        if (!Files.isRegularFile(source) || target.getFileName().toString().equals(segmentName)) {
+            return 0;
+        }
+        List<DocumentArchiveEntry> live = archiveEntryRepository.findBySegmentNameOrderByEntryOffset(segmentName);
+        if (!live.isEmpty()) {
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                    FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.APPEND)) {
+                List<Long> offsets = new ArrayList<>(live.size());
+                for (DocumentArchiveEntry entry : live) {
+                    long offset = out.size();
+                    long position = entry.getEntryOffset();
+                    long end = position + entry.getStoredLength();
+                    while (position < end) {
+                        position += in.transferTo(position, end - position, out);
+                    }
+                    offsets.add(offset);
+                }
+                out.force(true);
+                for (int i = 0; i < live.size(); i++) {
+                    live.get(i).setSegmentName(target.getFileName().toString());
+                    live.get(i).setEntryOffset(offsets.get(i));
+                }
+            }
+            archiveEntryRepository.saveAll(live);
+        }
+        long size = Files.size(source);
+        Files.createDirectories(retiredDir);
+        Files.move(source, retiredDir.resolve(segmentName), StandardCopyOption.REPLACE_EXISTING);
+        log.info("Compacted archive segment {}: {} live entries moved to {}", segmentName, live.size(),
+                target.getFileName());
+        return size;
+    }
+
+    private Path openSegment() throws IOException {
+        Files.createDirectories(archiveRoot);
+        if (currentSegment < 0) {
+            currentSegment = 1;
+            try (Stream<Path> files = Files.list(archiveRoot)) {
+                currentSegment = files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                        .filter(Matcher::matches)
+                        .mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+                        .max()
+                        .orElse(1);
+            }
+        }
+        Path segment = segmentPath(currentSegment);
+        if (Files.exists(segment) && Files.size(segment) >= segmentMaxBytes) {
+            currentSegment++;
+            segment = segmentPath(currentSegment);
+            log.info("Starting document archive segment {}", segment.getFileName());
+        }
+        return segment;
+    }
+
+    private Path segmentPath(int number) {
+        return archiveRoot.resolve(String.format("segment-%06d.seg", number));
+    }
+
+    /**
+     * Reads [position, end) of a segment with positional reads
+     */
+    private static class SegmentSliceInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        SegmentSliceInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, end - position);
+            int read = channel.read(ByteBuffer.wrap(buffer, off, toRead), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Resource view of an archived blob with the original length, so download
+     * responses keep Content-Length and Range support
+     */
+    private class ArchivedBlobResource extends AbstractResource {
+
+        private final DocumentArchiveEntry entry;
+
+        ArchivedBlobResource(DocumentArchiveEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public boolean exists() {
+            return Files.isRegularFile(archiveRoot.resolve(entry.getSegmentName()))
+                    || find(entry.getChecksum()).isPresent();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return open(entry);
+        }
+
+        @Override
+        public long contentLength() {
+            return entry.getOriginalSize();
+        }
+
+        @Override
+        public long lastModified() {
+            return entry.getArchivedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public String getFilename() {
+            return entry.getChecksum();
+        }
+
+        @Override
+        public String getDescription() {
+            return "archived blob " + entry.getChecksum() + " in " + entry.getSegmentName();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.repository.DocumentRepository;
+import com.adspeek.authservice.service.DocumentExportService;
+import com.adspeek.authservice.service.DocumentStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk ZIP export. Only document metadata is loaded up front; file content is
+ * copied entry by entry through one fixed-size buffer into a ZipOutputStream
+ * wrapped around the response, so memory use does not depend on how many or
+ * how large the exported files are and nothing is staged on disk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentExportServiceImpl implements DocumentExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Formats that are already compressed; deflating them again only costs CPU
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "pdf", "jpg", "jpeg", "png", "gif", "zip", "rar", "7z", "gz", "docx", "xlsx", "pptx");
+
+    private final DocumentRepository documentRepository;
+    private final DocumentStorage documentStorage;
+
+    @Override
+    public StreamingResponseBody exportAsZip(Long clientId, Long taskId, String documentType, String status) {
+        List<Object[]> rows = taskId != null
+                ? documentRepository.findDocumentsWithDetailsByTaskId(taskId)
+                : documentRepository.findDocumentsWithDetailsByClientId(clientId);
+
+        // Row layout as in findDocumentsWithDetailsByClientId: 0 id, 7 original_file_name,
+        // 8 file_path, 11 document_type, 12 status
+        List<ExportEntry> entries = new ArrayList<>();
+        for (Object[] row : rows) {
+            String rowType = row[11] != null ? row[11].toString() : null;
+            String rowStatus = row[12] != null ? row[12].toString() : null;
+            if (documentType != null && !documentType.isEmpty() && !documentType.equals(rowType)) {
+                continue;
+            }
+            if (status != null && !status.isEmpty() && !status.equals(rowStatus)) {
+                continue;
+            }
+            entries.add(new ExportEntry(((Number) row[0]).longValue(), (String) row[7], (String) row[8], rowType));
+        }
+
+        return outputStream -> writeZip(entries, outputStream);
+    }
+
+    private void writeZip(List<ExportEntry> entries, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Set<String> usedNames = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+
+        ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        for (ExportEntry entry : entries) {
+            String entryName = uniqueName(entry, usedNames);
+            try (InputStream in = documentStorage.load(entry.storagePath()).getInputStream()) {
+                zip.setLevel(isCompressed(entryName) ? Deflater.BEST_SPEED : Deflater.DEFAULT_COMPRESSION);
+                zip.putNextEntry(new ZipEntry(entryName));
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+                zip.closeEntry();
+            } catch (FileNotFoundException | NoSuchFileException e) {
+                log.warn("Skipping document {} in export, file missing: {}", entry.id(), entry.storagePath());
+                missing.add(entry.id() + "\t" + entryName);
+            }
+            // Push each finished entry to the client instead of letting the servlet buffer grow
+            zip.flush();
+        }
+
+        if (!missing.isEmpty()) {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry("MISSING_FILES.txt"));
+            zip.write(("Documents whose files could not be found:\n" + String.join("\n", missing) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    // Group by document type and keep names unique inside the archive
+    private static String uniqueName(ExportEntry entry, Set<String> usedNames) {
+        String folder = entry.documentType() != null ? entry.documentType() + "/" : "";
+        String fileName = entry.originalFileName() != null && !entry.originalFileName().isBlank()
+                ? entry.originalFileName().replace('\\', '_').replace('/', '_')
+                : "document-" + entry.id();
+        String candidate = folder + fileName;
+        if (usedNames.add(candidate)) {
+            return candidate;
+        }
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        candidate = folder + base + " (" + entry.id() + ")" + extension;
+        usedNames.add(candidate);
+        return candidate;
+    }
+
+    private static boolean isCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private record ExportEntry(long id, String originalFileName, String storagePath, String documentType) {
+    }
+}
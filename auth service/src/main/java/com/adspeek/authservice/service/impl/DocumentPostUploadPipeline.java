@@ -0,0 +1,292 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.dto.StaffActivityDTO;
+import com.adspeek.authservice.event.DocumentUploadedEvent;
+import com.adspeek.authservice.service.AuditLogService;
+import com.adspeek.authservice.service.DocumentSearchIndexService;
+import com.adspeek.authservice.service.NotificationService;
+import com.adspeek.authservice.service.StaffActivityService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the side effects of a document upload (audit log, staff activity,
+ * notification, search index) after the upload request has returned. Every
+ * stage is its own task on a bounded worker pool. When the queue is full the
+ * stage is written to {@code document_pipeline_retries} instead of running on
+ * the request thread, and a leased drain job runs it later. A failed stage is
+ * retried with exponential backoff without re-running the stages that already
+ * succeeded.
+ */
+@Component
+@Slf4j
+public class DocumentPostUploadPipeline {
+
+    static final String DRAIN_JOB = "DOCUMENT_PIPELINE_RETRY_DRAIN";
+
+    private final Map<String, Consumer<DocumentUploadedEvent>> stages = Collections
+            .synchronizedMap(new LinkedHashMap<>());
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate deferTransaction;
+    private final ObjectMapper objectMapper;
+    private final SchedulerLock schedulerLock;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int drainBatchSize;
+
+    public DocumentPostUploadPipeline(AuditLogService auditLogService, StaffActivityService staffActivityService,
+            NotificationService notificationService, DocumentSearchIndexService documentSearchIndexService,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            SchedulerLock schedulerLock,
+            @Value("${documents.post-upload.core-threads:2}") int coreThreads,
+            @Value("${documents.post-upload.max-threads:4}") int maxThreads,
+            @Value("${documents.post-upload.queue-capacity:500}") int queueCapacity,
+            @Value("${documents.post-upload.max-attempts:3}") int maxAttempts,
+            @Value("${documents.post-upload.retry-backoff-ms:1000}") long retryBackoffMillis,
+            @Value("${documents.post-upload.drain-batch-size:100}") int drainBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The upload's transaction has committed but is still bound while
+        // after-commit listeners run, so a deferred stage is written in its own
+        this.deferTransaction = new TransactionTemplate(transactionManager);
+        this.deferTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.schedulerLock = schedulerLock;
+        this.drainBatchSize = Math.max(1, drainBatchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+        int core = Math.max(1, coreThreads);
+        this.workers = new ThreadPoolExecutor(core, Math.max(core, maxThreads), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), namedThreads("document-post-upload"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("document-post-upload-retry"));
+
+        stages.put("audit", event -> auditLogService.logActivityForCurrentUser(
+                "DOCUMENT_UPLOADED",
+                "DOCUMENT",
+                event.getDocumentId(),
+                null,
+                "{\"fileName\":\"" + event.getOriginalFileName() + "\",\"documentType\":\""
+                        + event.getDocumentType() + "\"}",
+                null,
+                null));
+        stages.put("staff-activity", event -> {
+            if (event.getUploaderStaffId() != null) {
+                staffActivityService.createActivity(StaffActivityDTO.builder()
+                        .staffId(event.getUploaderStaffId())
+                        .activityType("DOCUMENT_UPLOADED")
+                        .taskDescription("Uploaded document: " + event.getOriginalFileName())
+                        .workStatus("COMPLETED")
+                        .logDate(LocalDate.now())
+                        .taskId(event.getTaskId())
+                        .clientId(event.getClientId())
+                        .build());
+            }
+        });
+        stages.put("notification", event -> {
+            if (event.getUploaderStaffId() != null) {
+                // Staff uploaded document for client
+                notificationService.notifyDocumentUploadedByStaff(event.getDocumentId(), event.getClientUserId(),
+                        event.getUploaderStaffId());
+            } else {
+                // Client uploaded document
+                notificationService.notifyDocumentUploaded(event.getDocumentId(), event.getClientUserId());
+            }
+        });
+        stages.put("search-index", event -> documentSearchIndexService.indexDocument(event.getDocumentId()));
+    }
+
+    /**
+     * Register an additional stage, run for every upload after the built-in ones
+     */
+    public void addStage(String name, Consumer<DocumentUploadedEvent> stage) {
+        stages.put(name, stage);
+    }
+
+    // Runs after the upload commits (or right away when there is no transaction),
+    // still on the request thread so the caller's security context is captured
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentUploaded(DocumentUploadedEvent event) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        stages.forEach((name, stage) -> submit(new StageRun(name, stage, event, context), 1));
+    }
+
+    /**
+     * Run the stages that were deferred because the worker queue was full or
+     * the pipeline was shutting down
+     */
+    @Scheduled(cron = "${documents.post-upload.drain-cron:30 * * * * *}")
+    public void drainDeferredStages() {
+        schedulerLock.runExclusively(DRAIN_JOB, this::drainDeferred);
+    }
+
+    void drainDeferred() {
+        List<DeferredStage> due = jdbcTemplate.query("""
+                SELECT id, stage_name, event_json, principal_name, attempt
+                FROM document_pipeline_retries
+                WHERE next_attempt_at <= NOW(3)
+                ORDER BY id
+                LIMIT ?
+                """, (rs, rowNum) -> new DeferredStage(rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getString(4), rs.getInt(5)), drainBatchSize);
+        for (DeferredStage row : due) {
+            runDeferred(row);
+        }
+        if (!due.isEmpty()) {
+            log.info("Drained {} deferred post-upload stages", due.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Post-upload pipeline stopped with {} queued stages", workers.getQueue().size());
+            workers.shutdownNow();
+        }
+    }
+
+    private void submit(StageRun run, int attempt) {
+        try {
+            workers.execute(new DelegatingSecurityContextRunnable(() -> execute(run, attempt), run.context()));
+        } catch (RejectedExecutionException e) {
+            // Queue full or shutting down: persist it rather than run it on the caller's thread
+            defer(run, attempt, 0);
+        }
+    }
+
+    private void defer(StageRun run, int attempt, long delayMillis) {
+        Authentication authentication = run.context().getAuthentication();
+        try {
+            String eventJson = objectMapper.writeValueAsString(run.event());
+            deferTransaction.executeWithoutResult(status -> jdbcTemplate.update("""
+                    INSERT INTO document_pipeline_retries
+                        (document_id, stage_name, event_json, principal_name, attempt, next_attempt_at)
+                    VALUES (?, ?, ?, ?, ?, TIMESTAMPADD(MICROSECOND, ?, NOW(3)))
+                    """, run.event().getDocumentId(), run.name(), eventJson,
+                    authentication != null ? authentication.getName() : null, attempt, delayMillis * 1000));
+            log.debug("Deferred post-upload stage {} of document {} (attempt {})", run.name(),
+                    run.event().getDocumentId(), attempt);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Could not defer post-upload stage {} of document {}: {}", run.name(),
+                    run.event().getDocumentId(), e.getMessage(), e);
+        }
+    }
+
+    private void runDeferred(DeferredStage row) {
+        Consumer<DocumentUploadedEvent> stage = stages.get(row.stageName());
+        DocumentUploadedEvent event = null;
+        try {
+            event = objectMapper.readValue(row.eventJson(), DocumentUploadedEvent.class);
+        } catch (JsonProcessingException e) {
+            log.error("Unreadable deferred post-upload event (row {}): {}", row.id(), e.getMessage());
+        }
+        if (stage == null || event == null) {
+            log.warn("Dropping deferred post-upload stage {} (row {})", row.stageName(), row.id());
+            deleteDeferred(row.id());
+            return;
+        }
+
+        // Stages that log "for the current user" run as the uploader again
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        if (row.principalName() != null) {
+            context.setAuthentication(new UsernamePasswordAuthenticationToken(row.principalName(), null,
+                    Collections.emptyList()));
+        }
+        SecurityContextHolder.setContext(context);
+        try {
+            stage.accept(event);
+            deleteDeferred(row.id());
+        } catch (Exception e) {
+            if (row.attempt() >= maxAttempts) {
+                log.error("Post-upload stage {} failed for document {} after {} attempts: {}", row.stageName(),
+                        event.getDocumentId(), row.attempt(), e.getMessage(), e);
+                deleteDeferred(row.id());
+                return;
+            }
+            long delay = retryBackoffMillis << (row.attempt() - 1);
+            log.warn("Post-upload stage {} failed for document {} (attempt {}), retrying in {} ms: {}",
+                    row.stageName(), event.getDocumentId(), row.attempt(), delay, e.getMessage());
+            jdbcTemplate.update("""
+                    UPDATE document_pipeline_retries
+                    SET attempt = attempt + 1, next_attempt_at = TIMESTAMPADD(MICROSECOND, ?, NOW(3))
+                    WHERE id = ?
+                    """, delay * 1000, row.id());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void deleteDeferred(long id) {
+        jdbcTemplate.update("DELETE FROM document_pipeline_retries WHERE id = ?", id);
+    }
+
+    private void execute(StageRun run, int attempt) {
+        try {
+            run.stage().accept(run.event());
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                log.error("Post-upload stage {} failed for document {} after {} attempts: {}", run.name(),
+                        run.event().getDocumentId(), attempt, e.getMessage(), e);
+                return;
+            }
+            long delay = retryBackoffMillis << (attempt - 1);
+            log.warn("Post-upload stage {} failed for document {} (attempt {}), retrying in {} ms: {}", run.name(),
+                    run.event().getDocumentId(), attempt, delay, e.getMessage());
+            try {
+                retryScheduler.schedule(() -> submit(run, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                defer(run, attempt + 1, delay);
+            }
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record DeferredStage(long id, String stageName, String eventJson, String principalName, int attempt) {
+    }
+
+    private record StageRun(String name, Consumer<DocumentUploadedEvent> stage, DocumentUploadedEvent event,
+            SecurityContext context) {
+    }
+}
@@ -0,0 +1,419 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.Document;
+import com.adspeek.authservice.event.DocumentUploadedEvent;
+import com.adspeek.authservice.repository.DocumentRepository;
+import com.adspeek.authservice.service.DocumentPreviewService;
+import com.adspeek.authservice.service.DocumentStorage;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Upload-time derivatives of document content:
+ * <ul>
+ * <li>a small JPEG preview (scaled image, or the first page of a PDF) kept in
+ * {@code <root>/previews} as an LRU disk cache with a total size cap; evicted
+ * previews are regenerated on the next request</li>
+ * <li>for compressible types, a gzip copy stored next to the blob as
+ * {@code <blob>.gz} and served to clients that accept gzip</li>
+ * </ul>
+ * Previews are keyed by content checksum, so identical uploads share one.
+ * Uploads are untrusted, so nothing is decoded at full size: images are read
+ * subsampled to about the preview size once their header dimensions are
+ * checked against {@code max-source-pixels}, and a PDF page is rendered at
+ * the DPI that fits its media box into the preview size.
+ */
+@Service
+@Slf4j
+public class DocumentPreviewServiceImpl implements DocumentPreviewService {
+
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    private static final Set<String> IMAGE_TYPES = Set.of(
+            "image/jpeg", "image/jpg", "image/png", "image/gif", "image/bmp");
+
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+            "text/plain", "text/csv", "text/xml", "application/xml", "application/json",
+            "application/msword", "application/vnd.ms-excel", "application/rtf", "image/bmp", "image/tiff");
+
+    private final DocumentRepository documentRepository;
+    private final DocumentStorage documentStorage;
+    private final DocumentPostUploadPipeline postUploadPipeline;
+    private final Path previewRoot;
+    private final int maxDimension;
+    private final float jpegQuality;
+    private final long cacheMaxBytes;
+    private final long maxSourceBytes;
+    private final long maxSourcePixels;
+    private final boolean compressionEnabled;
+
+    // Access-ordered preview key -> file size; eldest entries are evicted first
+    private final LinkedHashMap<String, Long> cacheIndex = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+
+    public DocumentPreviewServiceImpl(DocumentRepository documentRepository, DocumentStorage documentStorage,
+            DocumentPostUploadPipeline postUploadPipeline,
+            @Value("${documents.storage.root:uploads/documents}") String storageRoot,
+            @Value("${documents.preview.max-dimension:320}") int maxDimension,
+            @Value("${documents.preview.jpeg-quality:0.7}") float jpegQuality,
+            @Value("${documents.preview.cache-max-bytes:268435456}") long cacheMaxBytes,
+            @Value("${documents.preview.max-source-bytes:52428800}") long maxSourceBytes,
+            @Value("${documents.preview.max-source-pixels:50000000}") long maxSourcePixels,
+            @Value("${documents.compression.enabled:true}") boolean compressionEnabled) {
+        this.documentRepository = documentRepository;
+        this.documentStorage = documentStorage;
+        this.postUploadPipeline = postUploadPipeline;
+        this.previewRoot = Paths.get(storageRoot).resolve("previews");
+        this.maxDimension = Math.max(16, maxDimension);
+        this.jpegQuality = jpegQuality;
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.maxSourceBytes = maxSourceBytes;
+        this.maxSourcePixels = Math.max(1, maxSourcePixels);
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    @PostConstruct
+    public void init() {
+        postUploadPipeline.addStage("preview", this::generateDerivatives);
+        loadCacheIndex();
+    }
+
+    @Override
+    public void generateDerivatives(DocumentUploadedEvent event) {
+        Path source = documentStorage.resolve(event.getStoragePath());
+        try {
+            renderPreview(previewKey(event.getDocumentId(), event.getChecksum()), source, event.getFileType(),
+                    event.getOriginalFileName());
+            if (compressionEnabled && isCompressible(event.getFileType())) {
+                storeCompressedCopy(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Resource getPreview(Long documentId) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
+        String key = previewKey(document.getId(), document.getChecksum());
+        Path preview = previewPath(key);
+
+        synchronized (cacheIndex) {
+            if (cacheIndex.get(key) != null && Files.isRegularFile(preview)) {
+                touch(preview);
+                return new FileSystemResource(preview);
+            }
+        }
+        try {
+            Path rendered = renderPreview(key, documentStorage.resolve(document.getFilePath()),
+                    document.getFileType(), document.getOriginalFileName());
+            return rendered != null ? new FileSystemResource(rendered) : null;
+        } catch (IOException e) {
+            log.warn("Failed to render preview for document {}: {}", documentId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Path findCompressedCopy(String storagePath) {
+        Path compressed = compressedPath(documentStorage.resolve(storagePath));
+        return Files.isRegularFile(compressed) ? compressed : null;
+    }
+
+    @Override
+    public void deleteDerivatives(Long documentId, String checksum, String storagePath) {
+        String key = previewKey(documentId, checksum);
+        try {
+            Files.deleteIfExists(previewPath(key));
+            if (storagePath != null) {
+                Files.deleteIfExists(compressedPath(documentStorage.resolve(storagePath)));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete derivatives of document {}: {}", documentId, e.getMessage());
+        }
+        synchronized (cacheIndex) {
+            Long size = cacheIndex.remove(key);
+            if (size != null) {
+                cachedBytes -= size;
+            }
+        }
+    }
+
+    private Path renderPreview(String key, Path source, String fileType, String fileName) throws IOException {
+        Path target = previewPath(key);
+        if (Files.isRegularFile(target)) {
+            register(key, target);
+            return target;
+        }
+        if (!Files.isRegularFile(source) || Files.size(source) > maxSourceBytes) {
+            return null;
+        }
+
+        BufferedImage image = null;
+        if (isPdf(fileType, fileName)) {
+            image = renderFirstPage(source, fileName);
+        } else if (isImage(fileType, fileName)) {
+            image = readImage(source, fileName);
+        }
+        if (image == null) {
+            return null;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(key + "." + UUID.randomUUID() + ".part");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            writeJpeg(scale(image), out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        register(key, target);
+        return target;
+    }
+
+    private BufferedImage renderFirstPage(Path source, String fileName) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(source.toFile())) {
+            if (pdf.getNumberOfPages() == 0) {
+                return null;
+            }
+            // Media box is in points (1/72 inch); never render above 72 DPI
+            PDRectangle box = pdf.getPage(0).getMediaBox();
+            float longSide = Math.max(box.getWidth(), box.getHeight());
+            if (!(longSide > 0)) {
+                return null;
+            }
+            float dpi = Math.min(72f, maxDimension * 72f / longSide);
+            double pixels = Math.ceil(box.getWidth() * dpi / 72f) * Math.ceil(box.getHeight() * dpi / 72f);
+            if (pixels > maxSourcePixels) {
+                log.warn("Skipping preview of {}: first page would render at {} pixels", fileName, (long) pixels);
+                return null;
+            }
+            return new PDFRenderer(pdf).renderImageWithDPI(0, dpi, ImageType.RGB);
+        }
+    }
+
+    private BufferedImage readImage(Path source, String fileName) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // Header only; no pixel data is decoded yet
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0) {
+                    return null;
+                }
+                if ((long) width * height > maxSourcePixels) {
+                    log.warn("Skipping preview of {}: {}x{} exceeds {} pixels", fileName, width, height,
+                            maxSourcePixels);
+                    return null;
+                }
+                // Keep every n-th pixel so the decoded image is about the preview size
+                int step = Math.max(1, Math.max(width, height) / maxDimension);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void storeCompressedCopy(Path source) throws IOException {
+        Path target = compressedPath(source);
+        if (Files.exists(target) || !Files.isRegularFile(source)) {
+            return;
+        }
+        Path temp = source.resolveSibling(source.getFileName() + "." + UUID.randomUUID() + ".part");
+        try (InputStream in = Files.newInputStream(source);
+                OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+            in.transferTo(out);
+        }
+        // Keep the copy only when it actually saves space
+        if (Files.size(temp) > Files.size(source) * 9 / 10) {
+            Files.deleteIfExists(temp);
+            return;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private void register(String key, Path preview) throws IOException {
+        long size = Files.size(preview);
+        List<String> evicted = new ArrayList<>();
+        synchronized (cacheIndex) {
+            Long previous = cacheIndex.put(key, size);
+            cachedBytes += size - (previous != null ? previous : 0L);
+            Iterator<Map.Entry<String, Long>> eldest = cacheIndex.entrySet().iterator();
+            while (cachedBytes > cacheMaxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                cachedBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        for (String evictedKey : evicted) {
+            Files.deleteIfExists(previewPath(evictedKey));
+        }
+        touch(preview);
+    }
+
+    // Rebuild the LRU order from file modification times (updated on every hit)
+    private void loadCacheIndex() {
+        if (!Files.isDirectory(previewRoot)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(previewRoot)) {
+            List<Path> previews = files.filter(path -> path.toString().endsWith(".jpg"))
+                    .sorted((a, b) -> lastModified(a).compareTo(lastModified(b)))
+                    .toList();
+            synchronized (cacheIndex) {
+                for (Path preview : previews) {
+                    String name = preview.getFileName().toString();
+                    long size = Files.size(preview);
+                    cacheIndex.put(name.substring(0, name.length() - 4), size);
+                    cachedBytes += size;
+                }
+            }
+            log.info("Loaded {} document previews ({} bytes) into the preview cache", previews.size(), cachedBytes);
+        } catch (IOException e) {
+            log.warn("Failed to scan preview cache {}: {}", previewRoot, e.getMessage());
+        }
+    }
+
+    private Path previewPath(String key) {
+        return previewRoot.resolve(key.substring(0, 2)).resolve(key + ".jpg");
+    }
+
+    private static Path compressedPath(Path blob) {
+        return blob.resolveSibling(blob.getFileName() + COMPRESSED_SUFFIX);
+    }
+
+    private static String previewKey(Long documentId, String checksum) {
+        return checksum != null ? checksum : "doc-" + documentId;
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects eviction order after a restart
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static boolean isPdf(String fileType, String fileName) {
+        return "application/pdf".equalsIgnoreCase(fileType) || hasExtension(fileName, ".pdf");
+    }
+
+    private static boolean isImage(String fileType, String fileName) {
+        return (fileType != null && IMAGE_TYPES.contains(fileType.toLowerCase(Locale.ROOT)))
+                || hasExtension(fileName, ".jpg", ".jpeg", ".png", ".gif", ".bmp");
+    }
+
+    private static boolean isCompressible(String fileType) {
+        return fileType != null && (fileType.toLowerCase(Locale.ROOT).startsWith("text/")
+                || COMPRESSIBLE_TYPES.contains(fileType.toLowerCase(Locale.ROOT)));
+    }
+
+    private static boolean hasExtension(String fileName, String... extensions) {
+        if (fileName == null) {
+            return false;
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        for (String extension : extensions) {
+            if (lower.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,210 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.service.DocumentSearchIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code document_search_tokens}, an inverted index over the fields
+ * the document search matches on. Every word is indexed by all of its
+ * trigrams. The index only narrows the candidates: a document must carry
+ * every trigram of the search term's words, and the substring LIKE on the
+ * candidates decides the match, so results are exactly those of the old
+ * {@code LIKE '%term%'} scan. Words shorter than a trigram cannot be narrowed
+ * this way; they add no tokens, and a term made only of such words falls back
+ * to the plain LIKE scan. Every trigram of a document is indexed (their number
+ * is bounded by the column lengths), so no long name is ever cut short.
+ */
+@Service
+@Slf4j
+public class DocumentSearchIndexServiceImpl implements DocumentSearchIndexService {
+
+    static final String BACKFILL_JOB = "DOCUMENT_SEARCH_INDEX_BACKFILL";
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NGRAM_LENGTH = 3;
+    private static final int MAX_QUERY_TOKENS = 16;
+
+    private static final String SELECT_INDEX_ROWS = """
+            SELECT d.id, d.original_file_name, c.company_name, d.document_type
+            FROM documents d
+            LEFT JOIN clients c ON d.client_id = c.id
+            """;
+
+    private static final RowMapper<IndexRow> INDEX_ROW_MAPPER = (rs, rowNum) -> new IndexRow(rs.getLong(1),
+            rs.getString(2), rs.getString(3), rs.getString(4));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final int batchSize;
+    private final boolean backfillOnStartup;
+
+    public DocumentSearchIndexServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MaintenanceJobRunner maintenanceJobRunner,
+            @Value("${documents.search-index.batch-size:500}") int batchSize,
+            @Value("${documents.search-index.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.batchSize = Math.max(1, batchSize);
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            runBackfill();
+        }
+    }
+
+    @Override
+    public void indexDocument(Long documentId) {
+        List<IndexRow> rows = jdbcTemplate.query(SELECT_INDEX_ROWS + " WHERE d.id = ?", INDEX_ROW_MAPPER,
+                documentId);
+        if (rows.isEmpty()) {
+            removeDocument(documentId);
+            return;
+        }
+        writeTokens(rows);
+    }
+
+    @Override
+    public void reindexClient(Long clientId) {
+        long afterId = 0L;
+        while (true) {
+            List<IndexRow> rows = jdbcTemplate.query(
+                    SELECT_INDEX_ROWS + " WHERE d.client_id = ? AND d.id > ? ORDER BY d.id LIMIT ?",
+                    INDEX_ROW_MAPPER, clientId, afterId, batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+            writeTokens(rows);
+            afterId = rows.get(rows.size() - 1).id();
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void removeDocument(Long documentId) {
+        jdbcTemplate.update("DELETE FROM document_search_tokens WHERE document_id = ?", documentId);
+    }
+
+    @Override
+    public void removeClient(Long clientId) {
+        jdbcTemplate.update("""
+                DELETE t FROM document_search_tokens t
+                JOIN documents d ON d.id = t.document_id
+                WHERE d.client_id = ?
+                """, clientId);
+    }
+
+    @Override
+    public List<String> queryTokens(String searchTerm) {
+        if (searchTerm == null) {
+            return Collections.emptyList();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        // A short word may be the middle of a longer indexed word ("an" in "pan"),
+        // so it adds no tokens and is left to the LIKE check
+        for (String word : words(searchTerm)) {
+            addTrigrams(word, tokens);
+        }
+        // A few tokens already narrow the candidates to a handful of rows; the
+        // LIKE check on the page does the exact match
+        return tokens.stream().limit(MAX_QUERY_TOKENS).collect(Collectors.toList());
+    }
+
+    @Override
+    public MaintenanceJob runBackfill() {
+        return maintenanceJobRunner.resume(BACKFILL_JOB, job -> {
+            log.info("Starting {} from id {}", BACKFILL_JOB, job.getLastProcessedId());
+            while (true) {
+                List<IndexRow> rows = jdbcTemplate.query(SELECT_INDEX_ROWS + " WHERE d.id > ? ORDER BY d.id LIMIT ?",
+                        INDEX_ROW_MAPPER, job.getLastProcessedId(), batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                writeTokens(rows);
+
+                job.setLastProcessedId(rows.get(rows.size() - 1).id());
+                job.setProcessedCount(job.getProcessedCount() + rows.size());
+                job.setUpdatedCount(job.getUpdatedCount() + rows.size());
+                maintenanceJobRunner.checkpoint(job);
+
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        });
+    }
+
+    private void writeTokens(List<IndexRow> rows) {
+        List<Object[]> deletes = new ArrayList<>(rows.size());
+        List<Object[]> inserts = new ArrayList<>();
+        for (IndexRow row : rows) {
+            deletes.add(new Object[] { row.id() });
+            for (String token : documentTokens(row)) {
+                inserts.add(new Object[] { row.id(), token });
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("DELETE FROM document_search_tokens WHERE document_id = ?", deletes);
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT IGNORE INTO document_search_tokens (document_id, token) VALUES (?, ?)", inserts);
+            }
+        });
+    }
+
+    static Set<String> documentTokens(IndexRow row) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String value : new String[] { row.originalFileName(), row.companyName(), row.documentType() }) {
+            if (value == null) {
+                continue;
+            }
+            for (String word : words(value)) {
+                addTrigrams(word, tokens);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> words(String value) {
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(value.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static void addTrigrams(String word, Set<String> tokens) {
+        for (int i = 0; i + NGRAM_LENGTH <= word.length(); i++) {
+            tokens.add("g:" + word.substring(i, i + NGRAM_LENGTH));
+        }
+    }
+
+    record IndexRow(long id, String originalFileName, String companyName, String documentType) {
+    }
+}
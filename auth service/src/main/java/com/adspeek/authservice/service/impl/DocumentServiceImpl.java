@@ -1,9 +1,12 @@
 package com.adspeek.authservice.service.impl;
 
 import com.adspeek.authservice.dto.DocumentDTO;
+import com.adspeek.authservice.dto.DocumentDownloadDTO;
+import com.adspeek.authservice.dto.DocumentFilterCriteria;
 import com.adspeek.authservice.dto.DocumentStatisticsDTO;
 import com.adspeek.authservice.dto.LatestDocumentUploadDTO;
 import com.adspeek.authservice.entity.Client;
+import com.adspeek.authservice.event.DocumentUploadedEvent;
 import com.adspeek.authservice.entity.Document;
 import com.adspeek.authservice.entity.Task;
 import com.adspeek.authservice.entity.User;
@@ -13,27 +16,36 @@ import com.adspeek.authservice.repository.DocumentRepository;
 import com.adspeek.authservice.repository.TaskRepository;
 import com.adspeek.authservice.repository.UserRepository;
 import com.adspeek.authservice.repository.StaffRepository;
+import com.adspeek.authservice.service.DocumentPreviewService;
+import com.adspeek.authservice.service.DocumentSearchIndexService;
 import com.adspeek.authservice.service.DocumentService;
-import com.adspeek.authservice.service.AuditLogService;
+import com.adspeek.authservice.service.DocumentStatsService;
+import com.adspeek.authservice.service.DocumentStorage;
 import com.adspeek.authservice.service.NotificationService;
 import com.adspeek.authservice.service.StaffActivityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 
@@ -41,16 +53,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DocumentServiceImpl implements DocumentService {
 
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+
     private final DocumentRepository documentRepository;
     private final ClientRepository clientRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final StaffRepository staffRepository;
-    private final AuditLogService auditLogService;
     private final NotificationService notificationService;
     private final StaffActivityService staffActivityService;
-
-    private static final String UPLOAD_DIR = "uploads/documents/";
+    private final DocumentStorage documentStorage;
+    private final DocumentSearchIndexService documentSearchIndexService;
+    private final DocumentStatsService documentStatsService;
+    private final DocumentPreviewService documentPreviewService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public DocumentDTO uploadDocument(MultipartFile file, Long clientId, Long taskId, String documentType) {
@@ -72,94 +88,83 @@ public class DocumentServiceImpl implements DocumentService {
                         .orElseThrow(() -> new RuntimeException("Task not found"));
             }
 
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-            String filePath = UPLOAD_DIR + uniqueFilename;
-
-            // Save file to disk
-            Path targetPath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), targetPath);
-
-            // Create document entity
-            Document document = Document.builder()
-                    .client(client)
-                    .task(task)
-                    .uploadedBy(currentUser)
-                    .fileName(uniqueFilename)
-                    .originalFileName(originalFilename)
-                    .filePath(filePath)
-                    .fileSize(file.getSize())
-                    .fileType(file.getContentType())
-                    .documentType(Document.DocumentType.valueOf(documentType))
-                    .status(Document.DocumentStatus.PENDING)
-                    .uploadDate(LocalDateTime.now())
-                    .createdBy(currentUser)
-                    .updatedBy(currentUser)
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
+            // Store content once per checksum; identical re-uploads reuse the same blob
+            DocumentStorage.StoredBlob blob = documentStorage.store(file.getInputStream());
 
-            Document savedDocument = documentRepository.save(document);
-
-            // Log the activity
-            auditLogService.logActivityForCurrentUser(
-                    "DOCUMENT_UPLOADED",
-                    "DOCUMENT",
-                    savedDocument.getId(),
-                    null,
-                    "{\"fileName\":\"" + savedDocument.getOriginalFileName() + "\",\"documentType\":\""
-                            + savedDocument.getDocumentType() + "\"}",
-                    null,
-                    null);
-
-            // Log staff activity for document upload
-            Staff currentStaff = getCurrentStaff();
-            if (currentStaff != null) {
-                try {
-                    staffActivityService.createActivity(
-                            com.adspeek.authservice.dto.StaffActivityDTO.builder()
-                                    .staffId(currentStaff.getId())
-                                    .activityType("DOCUMENT_UPLOADED")
-                                    .taskDescription("Uploaded document: " + savedDocument.getOriginalFileName())
-                                    .workStatus("COMPLETED")
-                                    .logDate(java.time.LocalDate.now())
-                                    .taskId(taskId)
-                                    .clientId(clientId)
-                                    .build());
-                } catch (Exception e) {
-                    System.err.println("Error logging staff activity for document upload: " + e.getMessage());
-                }
-            }
+            return saveUploadedDocument(blob, file.getOriginalFilename(), file.getContentType(), client, task,
+                    documentType, currentUser);
 
-            // Send notification for document upload
-            // Check if current user is staff and send appropriate notification
-            if (currentStaff != null) {
-                // Staff uploaded document for client
-                notificationService.notifyDocumentUploadedByStaff(savedDocument.getId(), client.getUser().getId(),
-                        currentStaff.getId());
-            } else {
-                // Client uploaded document
-                notificationService.notifyDocumentUploaded(savedDocument.getId(), client.getUser().getId());
-            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload document", e);
+        }
+    }
 
-            // Fetch the document with all related entities to avoid
-            // LazyInitializationException
-            Document documentWithDetails = documentRepository.findByIdWithDetails(savedDocument.getId())
-                    .orElse(savedDocument);
+    @Override
+    public DocumentDTO createDocumentFromBlob(DocumentStorage.StoredBlob blob, String originalFileName,
+            String fileType, Long clientId, Long taskId, String documentType) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            throw new RuntimeException("Current user not found");
+        }
 
-            return toDTO(documentWithDetails);
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new RuntimeException("Client not found"));
 
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload document", e);
+        Task task = null;
+        if (taskId != null) {
+            task = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new RuntimeException("Task not found"));
         }
+
+        return saveUploadedDocument(blob, originalFileName, fileType, client, task, documentType, currentUser);
+    }
+
+    private DocumentDTO saveUploadedDocument(DocumentStorage.StoredBlob blob, String originalFilename,
+            String fileType, Client client, Task task, String documentType, User currentUser) {
+        int extensionStart = originalFilename.lastIndexOf(".");
+        String fileExtension = extensionStart >= 0 ? originalFilename.substring(extensionStart) : "";
+
+        // Create document entity
+        Document document = Document.builder()
+                .client(client)
+                .task(task)
+                .uploadedBy(currentUser)
+                .fileName(blob.checksum() + fileExtension)
+                .originalFileName(originalFilename)
+                .filePath(blob.storagePath())
+                .fileSize(blob.size())
+                .fileType(fileType)
+                .checksum(blob.checksum())
+                .documentType(Document.DocumentType.valueOf(documentType))
+                .status(Document.DocumentStatus.PENDING)
+                .uploadDate(LocalDateTime.now())
+                .createdBy(currentUser)
+                .updatedBy(currentUser)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        // document_stats is maintained by triggers on documents
+        Document savedDocument = documentRepository.save(document);
+
+        // Audit log, staff activity, notifications, search indexing and checksum
+        // verification run on the post-upload pipeline after the response
+        Staff currentStaff = getCurrentStaff();
+        eventPublisher.publishEvent(DocumentUploadedEvent.builder()
+                .documentId(savedDocument.getId())
+                .clientId(client.getId())
+                .clientUserId(client.getUser().getId())
+                .taskId(task != null ? task.getId() : null)
+                .uploaderStaffId(currentStaff != null ? currentStaff.getId() : null)
+                .originalFileName(savedDocument.getOriginalFileName())
+                .documentType(savedDocument.getDocumentType().name())
+                .fileType(savedDocument.getFileType())
+                .checksum(savedDocument.getChecksum())
+                .storagePath(savedDocument.getFilePath())
+                .build());
+
+        // All associations were loaded above, no need to re-fetch with details
+        return toDTO(savedDocument);
     }
 
     @Override
@@ -208,51 +213,36 @@ public class DocumentServiceImpl implements DocumentService {
     @Override
     public Page<DocumentDTO> getDocumentsWithFilters(Long clientId, Long taskId, String documentType, String isVerified,
             String searchTerm, int page, int size) {
+        return getDocumentsWithFilters(clientId, taskId, documentType, isVerified, searchTerm, null, null, page, size);
+    }
+
+    @Override
+    public Page<DocumentDTO> getDocumentsWithFilters(Long clientId, Long taskId, String documentType, String isVerified,
+            String searchTerm, LocalDateTime afterUploadDate, Long afterId, int page, int size) {
         try {
-            // For now, we'll implement basic filtering by getting all documents and
-            // filtering in memory
-            // In a production environment, you'd want to implement this with native queries
-            List<DocumentDTO> allDocuments = getAllDocuments();
-
-            // Apply filters
-            List<DocumentDTO> filteredDocuments = allDocuments.stream()
-                    .filter(doc -> clientId == null || doc.getClientId().equals(clientId))
-                    .filter(doc -> taskId == null || (doc.getTaskId() != null && doc.getTaskId().equals(taskId)))
-                    .filter(doc -> documentType == null || doc.getDocumentType().toString().equals(documentType))
-                    .filter(doc -> {
-                        if (isVerified == null || isVerified.isEmpty())
-                            return true;
-                        // Handle new status-based filtering
-                        if ("VERIFIED".equals(isVerified)) {
-                            return "VERIFIED".equals(doc.getStatus().toString());
-                        } else if ("PENDING".equals(isVerified)) {
-                            return "PENDING".equals(doc.getStatus().toString());
-                        } else if ("REJECTED".equals(isVerified)) {
-                            return "REJECTED".equals(doc.getStatus().toString());
-                        }
-                        // Fallback for old boolean-based filtering (for backward compatibility)
-                        if ("true".equals(isVerified)) {
-                            return "VERIFIED".equals(doc.getStatus().toString());
-                        } else if ("false".equals(isVerified)) {
-                            return "PENDING".equals(doc.getStatus().toString());
-                        }
-                        return true;
-                    })
-                    .filter(doc -> searchTerm == null || searchTerm.isEmpty() ||
-                            doc.getOriginalFileName().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                            doc.getClientName().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                            doc.getDocumentType().toString().toLowerCase().contains(searchTerm.toLowerCase()))
+            DocumentFilterCriteria filter = DocumentFilterCriteria.builder()
+                    .clientId(clientId)
+                    .taskId(taskId)
+                    .documentType(documentType)
+                    .status(toStatusFilter(isVerified))
+                    .searchTerm(searchTerm)
+                    .searchTokens(documentSearchIndexService.queryTokens(searchTerm))
+                    .build();
+            org.springframework.data.domain.PageRequest pageRequest = org.springframework.data.domain.PageRequest
+                    .of(Math.max(page, 0), Math.max(size, 1));
+
+            // Filtering, ordering and paging all happen in the database; with a
+            // cursor (afterUploadDate, afterId) the page is found by index seek
+            // instead of skipping OFFSET rows
+            List<DocumentDTO> documents = documentRepository
+                    .findDocumentsWithDetailsByFilter(filter, afterUploadDate, afterId, pageRequest.getOffset(),
+                            pageRequest.getPageSize())
+                    .stream()
+                    .map(this::mapToDocumentDTO)
                     .collect(Collectors.toList());
+            long total = documentRepository.countDocumentsByFilter(filter);
 
-            // Apply pagination
-            int start = page * size;
-            int end = Math.min(start + size, filteredDocuments.size());
-            List<DocumentDTO> pagedDocuments = filteredDocuments.subList(start, end);
-
-            return new org.springframework.data.domain.PageImpl<>(
-                    pagedDocuments,
-                    org.springframework.data.domain.PageRequest.of(page, size),
-                    filteredDocuments.size());
+            return new org.springframework.data.domain.PageImpl<>(documents, pageRequest, total);
         } catch (Exception e) {
             System.err.println("Error in getDocumentsWithFilters: " + e.getMessage());
             e.printStackTrace();
@@ -260,14 +250,36 @@ public class DocumentServiceImpl implements DocumentService {
         }
     }
 
+    // Maps the grid's isVerified parameter to a document status. Status names are
+    // passed through; "true"/"false" are kept for backward compatibility.
+    private String toStatusFilter(String isVerified) {
+        if (isVerified == null || isVerified.isEmpty()) {
+            return null;
+        }
+        switch (isVerified) {
+            case "VERIFIED":
+            case "PENDING":
+            case "REJECTED":
+                return isVerified;
+            case "true":
+                return Document.DocumentStatus.VERIFIED.name();
+            case "false":
+                return Document.DocumentStatus.PENDING.name();
+            default:
+                return null;
+        }
+    }
+
     @Override
     public Page<DocumentDTO> getDocumentsWithPagination(Pageable pageable) {
-        // This would need to be implemented with a custom query for pagination
-        // For now, returning all documents
-        List<DocumentDTO> allDocuments = getAllDocuments();
-        // This is a simplified implementation - in production, you'd want proper
-        // pagination
-        return Page.empty(pageable);
+        DocumentFilterCriteria noFilter = new DocumentFilterCriteria();
+        List<DocumentDTO> documents = documentRepository
+                .findDocumentsWithDetailsByFilter(noFilter, null, null, pageable.getOffset(), pageable.getPageSize())
+                .stream()
+                .map(this::mapToDocumentDTO)
+                .collect(Collectors.toList());
+        return new org.springframework.data.domain.PageImpl<>(documents, pageable,
+                documentRepository.count());
     }
 
     @Override
@@ -280,6 +292,7 @@ public class DocumentServiceImpl implements DocumentService {
             throw new RuntimeException("Current user not found");
         }
 
+
         // If document is currently VERIFIED, set it to PENDING (unverify)
         // If document is currently PENDING or REJECTED, set it to VERIFIED
         if (document.getStatus() == Document.DocumentStatus.VERIFIED) {
@@ -349,6 +362,7 @@ public class DocumentServiceImpl implements DocumentService {
             throw new RuntimeException("Current user not found");
         }
 
+
         // If document is currently REJECTED, set it to PENDING (unreject)
         // If document is currently PENDING or VERIFIED, set it to REJECTED
         if (document.getStatus() == Document.DocumentStatus.REJECTED) {
@@ -414,16 +428,24 @@ public class DocumentServiceImpl implements DocumentService {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        // Delete file from disk
-        try {
-            Path filePath = Paths.get(document.getFilePath());
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            // Log error but don't throw exception
-            System.err.println("Failed to delete file: " + document.getFilePath());
-        }
-
+        // Remove the row first so a failure never leaves a row pointing at a missing file
         documentRepository.delete(document);
+        documentSearchIndexService.removeDocument(id);
+
+        // Blobs (and their checksum-keyed preview and gzip copy) are shared between
+        // documents with identical content. Deleting them here would race with an
+        // upload deduplicating against the same checksum, so an unreferenced blob is
+        // left to the store reconciliation job, which reclaims it after its grace
+        // period. Only legacy files stored per document are removed right away.
+        if (document.getChecksum() == null) {
+            try {
+                documentPreviewService.deleteDerivatives(document.getId(), null, document.getFilePath());
+                documentStorage.delete(document.getFilePath());
+            } catch (IOException e) {
+                // Log error but don't throw exception
+                System.err.println("Failed to delete file: " + document.getFilePath());
+            }
+        }
     }
 
     @Override
@@ -432,8 +454,9 @@ public class DocumentServiceImpl implements DocumentService {
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
         try {
-            Path filePath = Paths.get(document.getFilePath());
-            return Files.readAllBytes(filePath);
+            try (InputStream in = documentStorage.load(document.getFilePath()).getInputStream()) {
+                return in.readAllBytes();
+            }
         } catch (IOException e) {
             throw new RuntimeException("Failed to read document file", e);
         }
@@ -441,51 +464,7 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     public DocumentStatisticsDTO getDocumentStatistics() {
-        // Get current date for today's calculations
-        LocalDate today = LocalDate.now();
-        LocalDate startOfWeek = today.minusDays(today.getDayOfWeek().getValue() - 1);
-        LocalDate startOfMonth = today.withDayOfMonth(1);
-
-        // Get all documents for calculations
-        List<Document> allDocuments = documentRepository.findAll();
-
-        // Calculate documents uploaded today
-        long documentsUploadedToday = allDocuments.stream()
-                .filter(doc -> doc.getUploadDate() != null &&
-                        doc.getUploadDate().toLocalDate().equals(today))
-                .count();
-
-        // Calculate documents uploaded this week
-        long documentsUploadedThisWeek = allDocuments.stream()
-                .filter(doc -> doc.getUploadDate() != null &&
-                        !doc.getUploadDate().toLocalDate().isBefore(startOfWeek))
-                .count();
-
-        // Calculate documents uploaded this month
-        long documentsUploadedThisMonth = allDocuments.stream()
-                .filter(doc -> doc.getUploadDate() != null &&
-                        !doc.getUploadDate().toLocalDate().isBefore(startOfMonth))
-                .count();
-
-        // Calculate total file size
-        long totalFileSize = allDocuments.stream()
-                .mapToLong(Document::getFileSize)
-                .sum();
-
-        // Calculate average file size
-        double averageFileSize = allDocuments.isEmpty() ? 0 : (double) totalFileSize / allDocuments.size();
-
-        return DocumentStatisticsDTO.builder()
-                .totalDocuments((long) allDocuments.size())
-                .verifiedDocuments(documentRepository.countByStatus(Document.DocumentStatus.VERIFIED))
-                .pendingDocuments(documentRepository.countByStatus(Document.DocumentStatus.PENDING))
-                .rejectedDocuments(documentRepository.countByStatus(Document.DocumentStatus.REJECTED))
-                .documentsUploadedToday(documentsUploadedToday)
-                .documentsUploadedThisWeek(documentsUploadedThisWeek)
-                .documentsUploadedThisMonth(documentsUploadedThisMonth)
-                .totalFileSize(totalFileSize)
-                .averageFileSize((long) averageFileSize)
-                .build();
+        return documentStatsService.getGlobalStatistics();
     }
 
     @Override
@@ -509,9 +488,26 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     public List<DocumentDTO> searchDocuments(String searchTerm) {
-        // This would need to be implemented with a custom search query
-        // For now, returning all documents
-        return getAllDocuments();
+        return searchDocuments(searchTerm,
+                org.springframework.data.domain.PageRequest.of(0, DEFAULT_SEARCH_PAGE_SIZE)).getContent();
+    }
+
+    @Override
+    public Page<DocumentDTO> searchDocuments(String searchTerm, Pageable pageable) {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return getDocumentsWithPagination(pageable);
+        }
+        DocumentFilterCriteria filter = DocumentFilterCriteria.builder()
+                .searchTerm(searchTerm)
+                .searchTokens(documentSearchIndexService.queryTokens(searchTerm))
+                .build();
+        List<DocumentDTO> documents = documentRepository
+                .findDocumentsWithDetailsByFilter(filter, null, null, pageable.getOffset(), pageable.getPageSize())
+                .stream()
+                .map(this::mapToDocumentDTO)
+                .collect(Collectors.toList());
+        return new org.springframework.data.domain.PageImpl<>(documents, pageable,
+                documentRepository.countDocumentsByFilter(filter));
     }
 
     @Override
@@ -583,6 +579,7 @@ public class DocumentServiceImpl implements DocumentService {
                 .filePath(document.getFilePath())
                 .fileSize(document.getFileSize())
                 .fileType(document.getFileType())
+                .checksum(document.getChecksum())
                 .documentType(document.getDocumentType())
                 .status(document.getStatus())
                 .verifiedById(document.getVerifiedBy() != null ? document.getVerifiedBy().getId() : null)
@@ -671,50 +668,93 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     public DocumentStatisticsDTO getDocumentStatisticsByClient(Long clientId) {
-        List<Document> clientDocuments = documentRepository.findByClientId(clientId);
-
-        long totalDocuments = clientDocuments.size();
-        long verifiedDocuments = clientDocuments.stream()
-                .filter(doc -> doc.getStatus() == Document.DocumentStatus.VERIFIED)
-                .count();
-        long pendingDocuments = clientDocuments.stream()
-                .filter(doc -> doc.getStatus() == Document.DocumentStatus.PENDING)
-                .count();
-        long rejectedDocuments = clientDocuments.stream()
-                .filter(doc -> doc.getStatus() == Document.DocumentStatus.REJECTED)
-                .count();
-
-        return DocumentStatisticsDTO.builder()
-                .totalDocuments(totalDocuments)
-                .verifiedDocuments(verifiedDocuments)
-                .pendingDocuments(pendingDocuments)
-                .rejectedDocuments(rejectedDocuments)
-                .build();
+        return documentStatsService.getClientStatistics(clientId);
     }
 
     @Override
-    public org.springframework.http.ResponseEntity<org.springframework.core.io.ByteArrayResource> downloadDocumentWithResponse(
-            Long id) {
+    public ResponseEntity<Resource> downloadDocumentWithResponse(Long id) {
+        return toDownloadResponse(getDocumentDownload(id));
+    }
+
+    @Override
+    public DocumentDownloadDTO getDocumentDownload(Long id) {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
         try {
-            Path filePath = Paths.get(document.getFilePath());
-            byte[] fileContent = Files.readAllBytes(filePath);
-
-            org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(
-                    fileContent);
-
-            return org.springframework.http.ResponseEntity.ok()
-                    .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                    .contentType(org.springframework.http.MediaType.APPLICATION_OCTET_STREAM)
-                    .body(resource);
+            // Archived blobs are served from their segment, so only the hot store is checked for a gzip copy
+            DocumentStorage.BlobAttributes attributes = documentStorage.stat(document.getFilePath());
+            if (attributes == null) {
+                throw new RuntimeException("Document file not found");
+            }
+            long lastModified = attributes.lastModified();
+            Path compressed = attributes.archived() ? null
+                    : documentPreviewService.findCompressedCopy(document.getFilePath());
+
+            return DocumentDownloadDTO.builder()
+                    .documentId(document.getId())
+                    .clientId(document.getClient().getId())
+                    .originalFileName(document.getOriginalFileName())
+                    .fileType(document.getFileType())
+                    .contentLength(attributes.size())
+                    .lastModified(lastModified)
+                    .eTag(buildETag(document, attributes.size(), lastModified))
+                    // Backed by a FileChannel (or a segment slice); streamed in chunks, never buffered whole
+                    .resource(documentStorage.load(document.getFilePath()))
+                    .compressedResource(compressed != null ? new FileSystemResource(compressed) : null)
+                    .compressedLength(compressed != null ? Files.size(compressed) : null)
+                    .build();
         } catch (IOException e) {
             throw new RuntimeException("Failed to read document file", e);
         }
     }
 
+    // Content checksum is a strong validator; legacy rows without one fall back to size and mtime
+    private String buildETag(Document document, long size, long lastModified) {
+        if (document.getChecksum() != null) {
+            return "\"" + document.getChecksum() + "\"";
+        }
+        return "\"" + document.getId() + "-" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    @Override
+    public ResponseEntity<Resource> toDownloadResponse(DocumentDownloadDTO download) {
+        // Byte ranges always refer to the original content, so ranged requests get the plain file
+        if (download.getCompressedResource() != null && acceptsGzipWithoutRange()) {
+            String eTag = download.getETag().substring(0, download.getETag().length() - 1) + "-gzip\"";
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"" + download.getOriginalFileName() + "\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(eTag)
+                    .lastModified(download.getLastModified())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(download.getCompressedLength())
+                    .body(download.getCompressedResource());
+        }
+
+        // Spring answers If-None-Match/If-Modified-Since with 304 from the ETag and
+        // Last-Modified headers, and turns a Range header into a 206 partial response
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + download.getOriginalFileName() + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(download.getETag())
+                .lastModified(download.getLastModified())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(download.getResource());
+    }
+
+    private static boolean acceptsGzipWithoutRange() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        String acceptEncoding = attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")
+                && attributes.getRequest().getHeader(HttpHeaders.RANGE) == null;
+    }
+
     @Override
     public List<DocumentDTO> searchDocumentsByClient(Long clientId, String searchTerm) {
         List<Document> documents = documentRepository.findByClientIdAndOriginalFileNameContainingIgnoreCase(clientId,
@@ -765,27 +805,7 @@ public class DocumentServiceImpl implements DocumentService {
                     .build();
         }
 
-        // Get all documents for tasks assigned to this staff member
-        Page<Object[]> allDocuments = documentRepository.findDocumentsByAssignedStaffWithFilters(currentStaff.getId(),
-                null, null, null, null, null, Pageable.unpaged());
-
-        long totalDocuments = allDocuments.getTotalElements();
-        long verifiedDocuments = allDocuments.getContent().stream()
-                .filter(row -> "VERIFIED".equals(row[12])) // status is at index 12
-                .count();
-        long pendingDocuments = allDocuments.getContent().stream()
-                .filter(row -> "PENDING".equals(row[12])) // status is at index 12
-                .count();
-        long rejectedDocuments = allDocuments.getContent().stream()
-                .filter(row -> "REJECTED".equals(row[12])) // status is at index 12
-                .count();
-
-        return DocumentStatisticsDTO.builder()
-                .totalDocuments(totalDocuments)
-                .verifiedDocuments(verifiedDocuments)
-                .pendingDocuments(pendingDocuments)
-                .rejectedDocuments(rejectedDocuments)
-                .build();
+        return documentStatsService.getStaffStatistics(currentStaff.getId());
     }
 
     // Helper method to get current staff member
@@ -0,0 +1,152 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.dto.DocumentStatisticsDTO;
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.service.DocumentStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Answers the dashboard statistics with one aggregate over the
+ * {@code document_stats} rollup rows of the requested scope. The rollup is
+ * maintained by AFTER INSERT/UPDATE/DELETE triggers on {@code documents}
+ * (see db/document_stats_migration.sql), so every delta commits or rolls back
+ * with the document change itself. FK cascades do not fire triggers, so
+ * client and task deletes go through explicit statements first.
+ * {@link #rebuild()} recomputes the rollup from {@code documents}; it runs
+ * once on first startup and then on a schedule, on one instance, to repair
+ * any drift (e.g. rows changed while the triggers were missing).
+ */
+@Service
+@Slf4j
+public class DocumentStatsServiceImpl implements DocumentStatsService {
+
+    static final String REBUILD_JOB = "DOCUMENT_STATS_REBUILD";
+
+    private static final String AGGREGATE_SELECT = """
+            SELECT
+                COALESCE(SUM(s.document_count), 0),
+                COALESCE(SUM(CASE WHEN s.status = 'VERIFIED' THEN s.document_count END), 0),
+                COALESCE(SUM(CASE WHEN s.status = 'PENDING' THEN s.document_count END), 0),
+                COALESCE(SUM(CASE WHEN s.status = 'REJECTED' THEN s.document_count END), 0),
+                COALESCE(SUM(CASE WHEN s.upload_day = ? THEN s.document_count END), 0),
+                COALESCE(SUM(CASE WHEN s.upload_day >= ? THEN s.document_count END), 0),
+                COALESCE(SUM(CASE WHEN s.upload_day >= ? THEN s.document_count END), 0),
+                COALESCE(SUM(s.total_file_size), 0)
+            FROM document_stats s
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final boolean rebuildOnStartup;
+
+    public DocumentStatsServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MaintenanceJobRunner maintenanceJobRunner,
+            @Value("${documents.stats.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Build the rollup once for documents that existed before it did
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        if (!maintenanceJobRunner.isCompleted(REBUILD_JOB)) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${documents.stats.reconcile-cron:0 45 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Override
+    public DocumentStatisticsDTO getGlobalStatistics() {
+        return aggregate(AGGREGATE_SELECT);
+    }
+
+    @Override
+    public DocumentStatisticsDTO getClientStatistics(Long clientId) {
+        return aggregate(AGGREGATE_SELECT + " WHERE s.client_id = ?", clientId);
+    }
+
+    @Override
+    public DocumentStatisticsDTO getStaffStatistics(Long staffId) {
+        // Joined through tasks so reassigning a task moves its documents with it
+        return aggregate(AGGREGATE_SELECT + " INNER JOIN tasks t ON t.id = s.task_id WHERE t.assigned_staff_id = ?",
+                staffId);
+    }
+
+    @Override
+    public MaintenanceJob rebuild() {
+        return maintenanceJobRunner.run(REBUILD_JOB, job -> {
+            // Delete and re-insert in one transaction. The documents are share-locked
+            // first, in the same order the triggers lock (document, then rollup row),
+            // so concurrent uploads wait for the rebuild instead of deadlocking with it
+            Integer buckets = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM documents LOCK IN SHARE MODE", Long.class);
+                jdbcTemplate.update("DELETE FROM document_stats");
+                return jdbcTemplate.update("""
+                        INSERT INTO document_stats
+                            (client_id, task_id, status, upload_day, document_count, total_file_size)
+                        SELECT d.client_id,
+                               COALESCE(d.task_id, 0),
+                               COALESCE(d.status, 'PENDING'),
+                               COALESCE(DATE(d.upload_date), DATE('1970-01-01')),
+                               COUNT(*),
+                               COALESCE(SUM(d.file_size), 0)
+                        FROM documents d
+                        GROUP BY d.client_id, COALESCE(d.task_id, 0), COALESCE(d.status, 'PENDING'),
+                                 COALESCE(DATE(d.upload_date), DATE('1970-01-01'))
+                        """);
+            });
+            job.setUpdatedCount(buckets != null ? buckets.longValue() : 0L);
+        });
+    }
+
+    private DocumentStatisticsDTO aggregate(String sql, Object... scopeArgs) {
+        LocalDate today = LocalDate.now();
+        LocalDate startOfWeek = today.minusDays(today.getDayOfWeek().getValue() - 1);
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+
+        Object[] args = new Object[3 + scopeArgs.length];
+        args[0] = Date.valueOf(today);
+        args[1] = Date.valueOf(startOfWeek);
+        args[2] = Date.valueOf(startOfMonth);
+        System.arraycopy(scopeArgs, 0, args, 3, scopeArgs.length);
+
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            long total = rs.getLong(1);
+            long totalFileSize = rs.getLong(8);
+            return DocumentStatisticsDTO.builder()
+                    .totalDocuments(total)
+                    .verifiedDocuments(rs.getLong(2))
+                    .pendingDocuments(rs.getLong(3))
+                    .rejectedDocuments(rs.getLong(4))
+                    .documentsUploadedToday(rs.getLong(5))
+                    .documentsUploadedThisWeek(rs.getLong(6))
+                    .documentsUploadedThisMonth(rs.getLong(7))
+                    .totalFileSize(totalFileSize)
+                    .averageFileSize(total > 0 ? totalFileSize / total : 0L)
+                    .build();
+        }, args);
+    }
+}
@@ -0,0 +1,506 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.service.DocumentPreviewService;
+import com.adspeek.authservice.service.DocumentStorage;
+import com.adspeek.authservice.service.DocumentStoreReconciliationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Scheduled reconciliation of the document store. Blob files and
+ * {@code documents} rows are both walked in bounded batches with a pause
+ * between batches, so a run never holds more than one batch in memory and
+ * never saturates the disk or the database.
+ * <ul>
+ * <li>Blobs no document (or assembled chunked upload) references are moved to
+ * {@code <root>/quarantine/<date>} rather than deleted, and purged once the
+ * quarantine retention has passed. This is the only place shared blobs are
+ * reclaimed, both for single document deletes and for documents removed by a
+ * client delete. A blob touched by a deduplicating upload while it was being
+ * moved is put back.</li>
+ * <li>Files in the legacy upload directory (one file per document, stored
+ * before content addressing) that no row points at anymore are quarantined
+ * the same way.</li>
+ * <li>Archive entries no document references are deleted, and segments whose
+ * dead bytes pass {@code segment-compact-ratio} are compacted; the retired
+ * segment file goes to the quarantine as well.</li>
+ * <li>Rows whose content exists neither hot nor archived are counted and
+ * logged; they are never deleted automatically.</li>
+ * <li>Search tokens and stats buckets of deleted documents and clients are
+ * removed.</li>
+ * </ul>
+ * Files younger than the grace period are skipped, since an upload stores its
+ * blob before the document row commits. Progress is checkpointed after every
+ * batch and phase, which also renews the job's lease.
+ */
+@Service
+@Slf4j
+public class DocumentStoreReconciliationServiceImpl implements DocumentStoreReconciliationService {
+
+    static final String RECONCILIATION_JOB = "DOCUMENT_STORE_RECONCILIATION";
+
+    private static final int MAX_REPORTED_ROWS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final DocumentStorage documentStorage;
+    private final DocumentPreviewService documentPreviewService;
+    private final Path blobRoot;
+    private final Path tempRoot;
+    private final Path quarantineRoot;
+    private final Path legacyRoot;
+    private final DocumentArchiveStore archiveStore;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final long graceHours;
+    private final int quarantineRetentionDays;
+    private final double segmentCompactRatio;
+
+    public DocumentStoreReconciliationServiceImpl(JdbcTemplate jdbcTemplate,
+            MaintenanceJobRunner maintenanceJobRunner, DocumentStorage documentStorage,
+            DocumentPreviewService documentPreviewService, DocumentArchiveStore archiveStore,
+            @Value("${documents.storage.root:uploads/documents}") String storageRoot,
+            @Value("${documents.gc.legacy-root:uploads/documents}") String legacyRoot,
+            @Value("${documents.gc.enabled:true}") boolean enabled,
+            @Value("${documents.gc.batch-size:500}") int batchSize,
+            @Value("${documents.gc.batch-pause-ms:200}") long batchPauseMillis,
+            @Value("${documents.gc.grace-hours:24}") long graceHours,
+            @Value("${documents.gc.quarantine-retention-days:30}") int quarantineRetentionDays,
+            @Value("${documents.gc.segment-compact-ratio:0.5}") double segmentCompactRatio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.documentStorage = documentStorage;
+        this.documentPreviewService = documentPreviewService;
+        this.archiveStore = archiveStore;
+        this.legacyRoot = Paths.get(legacyRoot);
+        Path root = Paths.get(storageRoot);
+        this.blobRoot = root.resolve("blobs");
+        this.tempRoot = root.resolve("tmp");
+        this.quarantineRoot = root.resolve("quarantine");
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = Math.max(0, batchPauseMillis);
+        this.graceHours = graceHours;
+        this.quarantineRetentionDays = quarantineRetentionDays;
+        this.segmentCompactRatio = segmentCompactRatio;
+    }
+
+    @Scheduled(cron = "${documents.gc.cron:0 0 4 * * SUN}")
+    public void scheduledReconciliation() {
+        if (enabled) {
+            runReconciliation();
+        }
+    }
+
+    @Override
+    public MaintenanceJob runReconciliation() {
+        return maintenanceJobRunner.run(RECONCILIATION_JOB, job -> {
+            RunTotals totals = new RunTotals(job);
+            quarantineOrphanBlobs(totals);
+            checkpoint(totals);
+            quarantineOrphanLegacyFiles(totals);
+            checkpoint(totals);
+            deleteOrphanArchiveEntries(totals);
+            checkpoint(totals);
+            compactArchiveSegments(totals);
+            checkpoint(totals);
+            deleteStaleTempFiles(totals);
+            purgeExpiredQuarantine(totals);
+            checkpoint(totals);
+            findDanglingRows(totals);
+            checkpoint(totals);
+            long derivedRows = deleteDerivedRows(totals);
+
+            job.setProcessedCount(totals.scanned);
+            job.setUpdatedCount(totals.quarantined);
+            job.setMessage("quarantined=" + totals.quarantined + " (" + totals.quarantinedBytes + " bytes)"
+                    + ", archiveEntriesDeleted=" + totals.archiveEntriesDeleted
+                    + ", segmentsCompacted=" + totals.segmentsCompacted
+                    + ", reclaimedBytes=" + totals.reclaimedBytes
+                    + ", danglingRows=" + totals.danglingRows
+                    + (totals.danglingIds.isEmpty() ? "" : " " + totals.danglingIds)
+                    + ", derivedRowsDeleted=" + derivedRows);
+        });
+    }
+
+    private void quarantineOrphanBlobs(RunTotals totals) throws IOException, InterruptedException {
+        if (!Files.isDirectory(blobRoot)) {
+            return;
+        }
+        Instant graceCutoff = Instant.now().minus(graceHours, ChronoUnit.HOURS);
+        Path quarantineDir = quarantineRoot.resolve(LocalDate.now().toString());
+        // Files.walk reads directories lazily, so only the current batch is held
+        try (Stream<Path> files = Files.walk(blobRoot)) {
+            Iterator<Path> blobs = files.filter(Files::isRegularFile)
+                    .filter(path -> isBlobName(path.getFileName().toString()))
+                    .iterator();
+            List<Path> batch = new ArrayList<>(batchSize);
+            while (blobs.hasNext()) {
+                batch.add(blobs.next());
+                if (batch.size() == batchSize || !blobs.hasNext()) {
+                    quarantineBatch(batch, graceCutoff, quarantineDir, totals);
+                    batch.clear();
+                    endBatch(totals);
+                }
+            }
+        }
+    }
+
+    private void quarantineBatch(List<Path> batch, Instant graceCutoff, Path quarantineDir, RunTotals totals)
+            throws IOException {
+        totals.scanned += batch.size();
+
+        List<String> checksums = batch.stream().map(path -> path.getFileName().toString()).toList();
+        Set<String> referenced = referencedChecksums(checksums);
+        for (Path blob : batch) {
+            String checksum = blob.getFileName().toString();
+            if (referenced.contains(checksum)
+                    || Files.getLastModifiedTime(blob).toInstant().isAfter(graceCutoff)) {
+                continue;
+            }
+            // Re-check right before moving; an upload may have just deduplicated against it
+            if (!referencedChecksums(List.of(checksum)).isEmpty()) {
+                continue;
+            }
+            long size = Files.size(blob);
+            Files.createDirectories(quarantineDir);
+            Path quarantined = quarantineDir.resolve(checksum);
+            Files.move(blob, quarantined, StandardCopyOption.REPLACE_EXISTING);
+            // An upload that deduplicated against the blob just before the move has touched
+            // its mtime (the move keeps it) and may not have committed its row yet
+            if (Files.getLastModifiedTime(quarantined).toInstant().isAfter(graceCutoff)
+                    || !referencedChecksums(List.of(checksum)).isEmpty()) {
+                restore(quarantined, blob);
+                continue;
+            }
+            documentPreviewService.deleteDerivatives(null, checksum, blob.toString().replace('\\', '/'));
+
+            totals.quarantined++;
+            totals.quarantinedBytes += size;
+            log.info("Quarantined orphaned blob {} ({} bytes)", checksum, size);
+        }
+    }
+
+    // Files written by the pre-blob upload code directly into the legacy directory;
+    // no new ones are created, so only deleted rows can orphan them
+    private void quarantineOrphanLegacyFiles(RunTotals totals) throws IOException, InterruptedException {
+        if (!Files.isDirectory(legacyRoot)) {
+            return;
+        }
+        Instant graceCutoff = Instant.now().minus(graceHours, ChronoUnit.HOURS);
+        Path quarantineDir = quarantineRoot.resolve(LocalDate.now().toString());
+        boolean legacyRowsExist = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM documents WHERE checksum IS NULL)", Boolean.class));
+        // Files.list is not recursive: blobs, tmp, archive and the other subdirectories are skipped
+        try (Stream<Path> files = Files.list(legacyRoot)) {
+            Iterator<Path> legacyFiles = files.filter(Files::isRegularFile)
+                    .filter(path -> isLegacyName(path.getFileName().toString()))
+                    .iterator();
+            List<Path> batch = new ArrayList<>(batchSize);
+            while (legacyFiles.hasNext()) {
+                batch.add(legacyFiles.next());
+                if (batch.size() == batchSize || !legacyFiles.hasNext()) {
+                    if (!quarantineLegacyBatch(batch, graceCutoff, quarantineDir, legacyRowsExist, totals)) {
+                        return;
+                    }
+                    batch.clear();
+                    endBatch(totals);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if the sweep should stop because the batch matched no row
+     *         although legacy rows exist, which means the stored paths are in
+     *         a form this match does not recognise
+     */
+    private boolean quarantineLegacyBatch(List<Path> batch, Instant graceCutoff, Path quarantineDir,
+            boolean legacyRowsExist, RunTotals totals) throws IOException {
+        totals.scanned += batch.size();
+
+        // Legacy rows kept checksum NULL and the path they were stored under, which may be
+        // relative, absolute or use backslashes; the file name is the part they all share
+        List<String> names = batch.stream().map(path -> path.getFileName().toString()).toList();
+        String placeholders = String.join(",", Collections.nCopies(names.size(), "?"));
+        Set<String> referenced = new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT SUBSTRING_INDEX(REPLACE(file_path, '\\\\', '/'), '/', -1)
+                FROM documents
+                WHERE checksum IS NULL
+                AND SUBSTRING_INDEX(REPLACE(file_path, '\\\\', '/'), '/', -1) IN (%s)
+                """.formatted(placeholders), String.class, names.toArray()));
+        if (referenced.isEmpty() && legacyRowsExist) {
+            log.warn("No legacy document row matches any of {} files in {}; skipping the legacy sweep",
+                    batch.size(), legacyRoot);
+            return false;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Path file = batch.get(i);
+            if (referenced.contains(names.get(i))
+                    || Files.getLastModifiedTime(file).toInstant().isAfter(graceCutoff)) {
+                continue;
+            }
+            long size = Files.size(file);
+            Files.createDirectories(quarantineDir);
+            Files.move(file, quarantineDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".gz"));
+
+            totals.quarantined++;
+            totals.quarantinedBytes += size;
+            log.info("Quarantined orphaned legacy file {} ({} bytes)", file.getFileName(), size);
+        }
+        return true;
+    }
+
+    private void deleteOrphanArchiveEntries(RunTotals totals) throws InterruptedException {
+        String afterChecksum = "";
+        while (true) {
+            List<String> orphaned = jdbcTemplate.queryForList("""
+                    SELECT a.checksum
+                    FROM document_archive_entries a
+                    WHERE a.checksum > ?
+                    AND NOT EXISTS (SELECT 1 FROM documents d WHERE d.checksum = a.checksum)
+                    AND NOT EXISTS (SELECT 1 FROM upload_sessions u
+                                    WHERE u.status = 'ASSEMBLED' AND u.checksum = a.checksum)
+                    ORDER BY a.checksum
+                    LIMIT ?
+                    """, String.class, afterChecksum, batchSize);
+            for (String checksum : orphaned) {
+                // Re-checked in the statement; a new upload of the same content writes a hot copy anyway
+                int deleted = jdbcTemplate.update("""
+                        DELETE FROM document_archive_entries
+                        WHERE checksum = ?
+                        AND NOT EXISTS (SELECT 1 FROM documents d WHERE d.checksum = ?)
+                        """, checksum, checksum);
+                if (deleted > 0) {
+                    totals.archiveEntriesDeleted++;
+                    documentPreviewService.deleteDerivatives(null, checksum, null);
+                }
+            }
+            if (orphaned.size() < batchSize) {
+                return;
+            }
+            afterChecksum = orphaned.get(orphaned.size() - 1);
+            endBatch(totals);
+        }
+    }
+
+    private void compactArchiveSegments(RunTotals totals) throws IOException, InterruptedException {
+        Map<String, Long> liveBytes = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT segment_name, SUM(stored_length) FROM document_archive_entries GROUP BY segment_name",
+                (RowCallbackHandler) rs -> liveBytes.put(rs.getString(1), rs.getLong(2)));
+        Path quarantineDir = quarantineRoot.resolve(LocalDate.now().toString());
+        for (Path segment : archiveStore.listSegments()) {
+            String name = segment.getFileName().toString();
+            long size = Files.size(segment);
+            long dead = size - liveBytes.getOrDefault(name, 0L);
+            if (size == 0 || dead < size * segmentCompactRatio) {
+                continue;
+            }
+            long retired = archiveStore.compact(name, quarantineDir);
+            if (retired > 0) {
+                totals.segmentsCompacted++;
+                totals.quarantinedBytes += dead;
+                endBatch(totals);
+            }
+        }
+    }
+
+    private void restore(Path quarantined, Path blob) throws IOException {
+        try {
+            Files.move(quarantined, blob);
+            log.info("Restored blob {} that was deduplicated against while being quarantined", blob.getFileName());
+        } catch (FileAlreadyExistsException e) {
+            // The upload already stored a fresh copy of the same content
+            Files.deleteIfExists(quarantined);
+        }
+    }
+
+    private Set<String> referencedChecksums(List<String> checksums) {
+        if (checksums.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String placeholders = String.join(",", Collections.nCopies(checksums.size(), "?"));
+        Object[] args = new Object[checksums.size() * 2];
+        for (int i = 0; i < checksums.size(); i++) {
+            args[i] = checksums.get(i);
+            args[checksums.size() + i] = checksums.get(i);
+        }
+        // Assembled chunked uploads own a blob before their document row exists
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT checksum FROM documents WHERE checksum IN (" + placeholders + ")"
+                        + " UNION SELECT checksum FROM upload_sessions WHERE status = 'ASSEMBLED'"
+                        + " AND checksum IN (" + placeholders + ")",
+                String.class, args));
+    }
+
+    // Leftovers of uploads that crashed between writing and moving their temp file
+    private void deleteStaleTempFiles(RunTotals totals) throws IOException {
+        if (!Files.isDirectory(tempRoot)) {
+            return;
+        }
+        Instant graceCutoff = Instant.now().minus(graceHours, ChronoUnit.HOURS);
+        try (Stream<Path> files = Files.list(tempRoot)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(graceCutoff)) {
+                    long size = Files.size(file);
+                    Files.deleteIfExists(file);
+                    totals.reclaimedBytes += size;
+                }
+            }
+        }
+    }
+
+    private void purgeExpiredQuarantine(RunTotals totals) throws IOException {
+        if (!Files.isDirectory(quarantineRoot)) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(quarantineRetentionDays);
+        try (Stream<Path> days = Files.list(quarantineRoot)) {
+            for (Path day : (Iterable<Path>) days::iterator) {
+                if (!Files.isDirectory(day) || !quarantineDate(day).isBefore(cutoff)) {
+                    continue;
+                }
+                try (Stream<Path> files = Files.list(day)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        long size = Files.size(file);
+                        Files.deleteIfExists(file);
+                        totals.reclaimedBytes += size;
+                    }
+                }
+                Files.deleteIfExists(day);
+                log.info("Purged document quarantine {}", day.getFileName());
+            }
+        }
+    }
+
+    private void findDanglingRows(RunTotals totals) throws IOException, InterruptedException {
+        long afterId = 0L;
+        while (true) {
+            List<DocumentFile> rows = jdbcTemplate.query(
+                    "SELECT id, file_path FROM documents WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new DocumentFile(rs.getLong(1), rs.getString(2)), afterId, batchSize);
+            for (DocumentFile row : rows) {
+                if (documentStorage.stat(row.filePath()) == null) {
+                    totals.danglingRows++;
+                    if (totals.danglingIds.size() < MAX_REPORTED_ROWS) {
+                        totals.danglingIds.add(row.id());
+                    }
+                    log.warn("Document {} has no stored content at {}", row.id(), row.filePath());
+                }
+            }
+            if (rows.size() < batchSize) {
+                return;
+            }
+            afterId = rows.get(rows.size() - 1).id();
+            endBatch(totals);
+        }
+    }
+
+    private long deleteDerivedRows(RunTotals totals) throws InterruptedException {
+        long deleted = 0;
+        int removed;
+        do {
+            removed = jdbcTemplate.update("""
+                    DELETE FROM document_search_tokens
+                    WHERE document_id IN (
+                        SELECT id FROM (
+                            SELECT DISTINCT t.document_id AS id
+                            FROM document_search_tokens t
+                            LEFT JOIN documents d ON d.id = t.document_id
+                            WHERE d.id IS NULL
+                            LIMIT ?
+                        ) orphaned
+                    )
+                    """, batchSize);
+            deleted += removed;
+            if (removed > 0) {
+                endBatch(totals);
+            }
+        } while (removed > 0);
+        deleted += jdbcTemplate.update(
+                "DELETE FROM document_stats WHERE client_id NOT IN (SELECT id FROM clients)");
+        return deleted;
+    }
+
+    private void endBatch(RunTotals totals) throws InterruptedException {
+        checkpoint(totals);
+        pause();
+    }
+
+    private void checkpoint(RunTotals totals) {
+        totals.job.setProcessedCount(totals.scanned);
+        totals.job.setUpdatedCount(totals.quarantined);
+        maintenanceJobRunner.checkpoint(totals.job);
+    }
+
+    private void pause() throws InterruptedException {
+        if (batchPauseMillis > 0) {
+            Thread.sleep(batchPauseMillis);
+        }
+    }
+
+    // Blob files are named by their SHA-256; skips .gz copies and in-flight .part files
+    private static boolean isBlobName(String name) {
+        return name.length() == 64 && name.chars().allMatch(c -> Character.digit(c, 16) >= 0);
+    }
+
+    // Derivatives (.gz copies) go with their file; .part files are uploads in flight
+    private static boolean isLegacyName(String name) {
+        return !name.endsWith(".gz") && !name.endsWith(".part");
+    }
+
+    private static LocalDate quarantineDate(Path day) {
+        try {
+            return LocalDate.parse(day.getFileName().toString());
+        } catch (DateTimeParseException e) {
+            return LocalDate.MAX;
+        }
+    }
+
+    private record DocumentFile(long id, String filePath) {
+    }
+
+    private static class RunTotals {
+        final MaintenanceJob job;
+        long scanned;
+        long quarantined;
+        long quarantinedBytes;
+        long reclaimedBytes;
+        long archiveEntriesDeleted;
+        long segmentsCompacted;
+        long danglingRows;
+        final List<Long> danglingIds = new ArrayList<>();
+
+        RunTotals(MaintenanceJob job) {
+            this.job = job;
+        }
+    }
+}
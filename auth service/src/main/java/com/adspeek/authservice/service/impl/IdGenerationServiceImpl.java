@@ -5,7 +5,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Year;
 
@@ -14,33 +13,54 @@ import java.time.Year;
 @Slf4j
 public class IdGenerationServiceImpl implements IdGenerationService {
 
+    private static final String LEAD_PREFIX = "LEAD";
+    private static final String SERVICE_REQUEST_PREFIX = "SR";
+
+    private static final String LEAD_MAX_SQL = """
+            SELECT COALESCE(MAX(
+            	CASE
+            		WHEN lead_id REGEXP '^LEAD-[0-9]{4}-[0-9]{3,}$'
+            		THEN CAST(SUBSTRING_INDEX(lead_id, '-', -1) AS UNSIGNED)
+            		ELSE 0
+            	END
+            ), 0)
+            FROM leads
+            WHERE lead_id LIKE ?
+            """;
+
+    private static final String SERVICE_REQUEST_MAX_SQL = """
+            SELECT COALESCE(MAX(
+            	CASE
+            		WHEN request_id REGEXP '^SR-[0-9]{4}-[0-9]{3,}$'
+            		THEN CAST(SUBSTRING_INDEX(request_id, '-', -1) AS UNSIGNED)
+            		ELSE 0
+            	END
+            ), 0)
+            FROM service_requests
+            WHERE request_id LIKE ?
+            """;
+
     private final JdbcTemplate jdbcTemplate;
+    private final IdSequenceAllocator idSequenceAllocator;
 
     @Override
-    @Transactional
     public String generateNextLeadId() {
-        int currentYear = Year.now().getValue();
-        String yearPrefix = String.valueOf(currentYear);
-
-        // First, try to fix any old format IDs for the current year
-        fixOldLeadIdsForYear(currentYear);
+        return generateLeadIdForYear(Year.now().getValue());
+    }
 
-        // Get the next sequence number for the current year
-        String sql = """
-                SELECT CAST(COALESCE(MAX(
-                	CASE
-                		WHEN lead_id REGEXP '^LEAD-[0-9]{4}-[0-9]{3}$'
-                		THEN CAST(SUBSTRING_INDEX(lead_id, '-', -1) AS UNSIGNED)
-                		ELSE 0
-                	END
-                ), 0) + 1 AS SIGNED)
-                FROM leads
-                WHERE lead_id LIKE ?
-                """;
+    @Override
+    public String generateNextServiceRequestId() {
+        return generateServiceRequestIdForYear(Year.now().getValue());
+    }
 
-        Long nextNumberLong = jdbcTemplate.queryForObject(sql, Long.class, "LEAD-" + yearPrefix + "-%");
+    @Override
+    public String generateLeadIdForYear(int year) {
+        String yearPrefix = String.valueOf(year);
 
-        int nextNumber = (nextNumberLong == null || nextNumberLong <= 0L) ? 1 : nextNumberLong.intValue();
+        // Take the next number from the per-year sequence; the legacy MAX scan only
+        // seeds the sequence the first time a year is seen
+        long nextNumber = idSequenceAllocator.next(LEAD_PREFIX, year,
+                () -> findMaxSequenceNumber(LEAD_MAX_SQL, LEAD_PREFIX + "-" + yearPrefix + "-%") + 1);
 
         String formattedNumber = String.format("%03d", nextNumber);
         String leadId = "LEAD-" + yearPrefix + "-" + formattedNumber;
@@ -50,30 +70,12 @@ public class IdGenerationServiceImpl implements IdGenerationService {
     }
 
     @Override
-    @Transactional
-    public String generateNextServiceRequestId() {
-        int currentYear = Year.now().getValue();
-        String yearPrefix = String.valueOf(currentYear);
+    public String generateServiceRequestIdForYear(int year) {
+        String yearPrefix = String.valueOf(year);
 
-        // First, try to fix any old format IDs for the current year
-        fixOldServiceRequestIdsForYear(currentYear);
-
-        // Get the next sequence number for the current year
-        String sql = """
-                SELECT CAST(COALESCE(MAX(
-                	CASE
-                		WHEN request_id REGEXP '^SR-[0-9]{4}-[0-9]{3}$'
-                		THEN CAST(SUBSTRING_INDEX(request_id, '-', -1) AS UNSIGNED)
-                		ELSE 0
-                	END
-                ), 0) + 1 AS SIGNED)
-                FROM service_requests
-                WHERE request_id LIKE ?
-                """;
-
-        Long nextNumberLong = jdbcTemplate.queryForObject(sql, Long.class, "SR-" + yearPrefix + "-%");
-
-        int nextNumber = (nextNumberLong == null || nextNumberLong <= 0L) ? 1 : nextNumberLong.intValue();
+        long nextNumber = idSequenceAllocator.next(SERVICE_REQUEST_PREFIX, year,
+                () -> findMaxSequenceNumber(SERVICE_REQUEST_MAX_SQL,
+                        SERVICE_REQUEST_PREFIX + "-" + yearPrefix + "-%") + 1);
 
         String formattedNumber = String.format("%03d", nextNumber);
         String requestId = "SR-" + yearPrefix + "-" + formattedNumber;
@@ -83,50 +85,10 @@ public class IdGenerationServiceImpl implements IdGenerationService {
     }
 
     /**
-     * Fix old format lead IDs for a specific year
-     */
-    private void fixOldLeadIdsForYear(int year) {
-        try {
-            String yearPrefix = String.valueOf(year);
-            String updateSql = """
-                    UPDATE leads
-                    SET lead_id = CONCAT('LEAD-', ?, '-', LPAD(id, 3, '0'))
-                    WHERE lead_id LIKE 'LEAD%'
-                      AND lead_id NOT LIKE 'LEAD-%-%'
-                      AND lead_id NOT REGEXP '^LEAD-[0-9]{4}-[0-9]{3}$'
-                      AND YEAR(created_at) = ?
-                    """;
-
-            int updated = jdbcTemplate.update(updateSql, yearPrefix, year);
-            if (updated > 0) {
-                log.info("Fixed {} old format lead IDs for year {}", updated, year);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to fix old lead IDs for year {}: {}", year, e.getMessage());
-        }
-    }
-
-    /**
-     * Fix old format service request IDs for a specific year
+     * Highest NNN already used for a year; only used to seed a new year's sequence
      */
-    private void fixOldServiceRequestIdsForYear(int year) {
-        try {
-            String yearPrefix = String.valueOf(year);
-            String updateSql = """
-                    UPDATE service_requests
-                    SET request_id = CONCAT('SR-', ?, '-', LPAD(id, 3, '0'))
-                    WHERE request_id LIKE 'SR%'
-                      AND request_id NOT LIKE 'SR-%-%'
-                      AND request_id NOT REGEXP '^SR-[0-9]{4}-[0-9]{3}$'
-                      AND YEAR(created_at) = ?
-                    """;
-
-            int updated = jdbcTemplate.update(updateSql, yearPrefix, year);
-            if (updated > 0) {
-                log.info("Fixed {} old format service request IDs for year {}", updated, year);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to fix old service request IDs for year {}: {}", year, e.getMessage());
-        }
+    private long findMaxSequenceNumber(String sql, String likePattern) {
+        Long max = jdbcTemplate.queryForObject(sql, Long.class, likePattern);
+        return max == null || max < 0L ? 0L : max;
     }
 }
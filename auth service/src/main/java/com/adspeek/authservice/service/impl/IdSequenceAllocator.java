@@ -0,0 +1,108 @@
+package com.adspeek.authservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out sequence numbers from blocks reserved in the {@code id_sequences}
+ * table. Each reservation locks a single row, advances it by the block size and
+ * commits in its own transaction; values inside a block are then handed out
+ * lock-free with an {@link AtomicLong}. Blocks never overlap, so IDs stay unique
+ * across threads and instances. Unused values of a block are lost on restart,
+ * which leaves gaps but never duplicates.
+ */
+@Component
+@Slf4j
+public class IdSequenceAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdSequenceAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${id-generation.block-size:50}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * Next value for the given prefix and year.
+     *
+     * @param firstValue supplies the starting value when the year has no row yet
+     *                   (only called once per prefix and year)
+     */
+    public long next(String prefix, int year, LongSupplier firstValue) {
+        String sequenceKey = prefix + "-" + year;
+        while (true) {
+            Block block = blocks.get(sequenceKey);
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.limit) {
+                    return value;
+                }
+            }
+            refill(sequenceKey, block, firstValue);
+        }
+    }
+
+    private synchronized void refill(String sequenceKey, Block current, LongSupplier firstValue) {
+        if (blocks.get(sequenceKey) != current) {
+            // Another thread already installed a fresh block
+            return;
+        }
+        long start = reserveBlock(sequenceKey, firstValue);
+        blocks.put(sequenceKey, new Block(start, start + blockSize));
+        log.debug("Reserved ID block {} [{}, {})", sequenceKey, start, start + blockSize);
+    }
+
+    private long reserveBlock(String sequenceKey, LongSupplier firstValue) {
+        Long start = transactionTemplate.execute(status -> {
+            Long nextValue = lockSequence(sequenceKey);
+            if (nextValue == null) {
+                jdbcTemplate.update(
+                        "INSERT IGNORE INTO id_sequences (sequence_key, next_value, updated_at) VALUES (?, ?, NOW())",
+                        sequenceKey, Math.max(1L, firstValue.getAsLong()));
+                nextValue = lockSequence(sequenceKey);
+            }
+            jdbcTemplate.update(
+                    "UPDATE id_sequences SET next_value = ?, updated_at = NOW() WHERE sequence_key = ?",
+                    nextValue + blockSize, sequenceKey);
+            return nextValue;
+        });
+        if (start == null) {
+            throw new IllegalStateException("Failed to reserve ID block for " + sequenceKey);
+        }
+        return start;
+    }
+
+    private Long lockSequence(String sequenceKey) {
+        List<Long> values = jdbcTemplate.queryForList(
+                "SELECT next_value FROM id_sequences WHERE sequence_key = ? FOR UPDATE", Long.class, sequenceKey);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.repository.MaintenanceJobRepository;
+import com.adspeek.authservice.service.IdGenerationService;
+import com.adspeek.authservice.service.LegacyIdRepairService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * One-shot replacement for the per-insert fixOld*IdsForYear UPDATEs that used
+ * to run inside ID generation. Walks each table by primary key (keyset
+ * pagination), rewrites only the rows still in an old format using the regular
+ * per-year sequence, and stores progress after every batch so an interrupted
+ * run resumes from the last processed id.
+ */
+@Service
+@Slf4j
+public class LegacyIdRepairServiceImpl implements LegacyIdRepairService {
+
+    static final String LEAD_JOB = "LEGACY_LEAD_ID_REPAIR";
+    static final String SERVICE_REQUEST_JOB = "LEGACY_SERVICE_REQUEST_ID_REPAIR";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MaintenanceJobRepository maintenanceJobRepository;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final IdGenerationService idGenerationService;
+    private final int batchSize;
+    private final boolean runOnStartup;
+
+    public LegacyIdRepairServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MaintenanceJobRepository maintenanceJobRepository, MaintenanceJobRunner maintenanceJobRunner,
+            IdGenerationService idGenerationService,
+            @Value("${maintenance.legacy-id-repair.batch-size:500}") int batchSize,
+            @Value("${maintenance.legacy-id-repair.run-on-startup:true}") boolean runOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceJobRepository = maintenanceJobRepository;
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.idGenerationService = idGenerationService;
+        this.batchSize = Math.max(1, batchSize);
+        this.runOnStartup = runOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (runOnStartup) {
+            runRepair();
+        }
+    }
+
+    @Override
+    public List<MaintenanceJob> runRepair() {
+        repairTable(new RepairTarget(LEAD_JOB, "leads", "lead_id", "LEAD",
+                idGenerationService::generateLeadIdForYear));
+        repairTable(new RepairTarget(SERVICE_REQUEST_JOB, "service_requests", "request_id", "SR",
+                idGenerationService::generateServiceRequestIdForYear));
+        return getRepairStatus();
+    }
+
+    @Override
+    public List<MaintenanceJob> getRepairStatus() {
+        return maintenanceJobRepository.findByJobNameIn(List.of(LEAD_JOB, SERVICE_REQUEST_JOB));
+    }
+
+    private void repairTable(RepairTarget target) {
+        String selectSql = "SELECT id, " + target.column() + ", created_at FROM " + target.table()
+                + " WHERE id > ? ORDER BY id LIMIT ?";
+        String updateSql = "UPDATE " + target.table() + " SET " + target.column() + " = ? WHERE id = ?";
+
+        maintenanceJobRunner.resume(target.jobName(), job -> {
+            log.info("Starting {} from id {}", target.jobName(), job.getLastProcessedId());
+            while (true) {
+                List<LegacyRow> rows = jdbcTemplate.query(selectSql,
+                        (rs, rowNum) -> new LegacyRow(rs.getLong(1), rs.getString(2), rs.getTimestamp(3)),
+                        job.getLastProcessedId(), batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                List<Object[]> updates = new ArrayList<>();
+                for (LegacyRow row : rows) {
+                    if (target.needsRepair(row.businessId())) {
+                        int year = row.createdAt() != null ? row.createdAt().toLocalDateTime().getYear()
+                                : Year.now().getValue();
+                        updates.add(new Object[] { target.idForYear().apply(year), row.id() });
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(
+                            status -> jdbcTemplate.batchUpdate(updateSql, updates));
+                }
+
+                job.setLastProcessedId(rows.get(rows.size() - 1).id());
+                job.setProcessedCount(job.getProcessedCount() + rows.size());
+                job.setUpdatedCount(job.getUpdatedCount() + updates.size());
+                maintenanceJobRunner.checkpoint(job);
+                log.info("{}: processed {} rows, repaired {} (last id {})", target.jobName(),
+                        job.getProcessedCount(), job.getUpdatedCount(), job.getLastProcessedId());
+
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        });
+    }
+
+    private record LegacyRow(long id, String businessId, Timestamp createdAt) {
+    }
+
+    private record RepairTarget(String jobName, String table, String column, String prefix,
+            IntFunction<String> idForYear) {
+
+        /**
+         * Same selection as the old UPDATE: starts with the prefix but is neither
+         * PREFIX-x-y shaped nor in the PREFIX-YYYY-NNN format.
+         */
+        boolean needsRepair(String businessId) {
+            if (businessId == null || !businessId.startsWith(prefix)) {
+                return false;
+            }
+            boolean dashed = businessId.startsWith(prefix + "-")
+                    && businessId.indexOf('-', prefix.length() + 1) >= 0;
+            return !dashed;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.DocumentArchiveEntry;
+import com.adspeek.authservice.service.DocumentStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Content-addressed store on the local filesystem. Blobs live under
+ * {@code <root>/blobs/ab/cd/<sha256>}, where the two fan-out levels keep every
+ * directory small. Content is hashed while it is copied to a temp file in the
+ * same filesystem and then moved into place atomically, so a blob path only
+ * ever holds complete content. Cold blobs can be moved into packed segments
+ * of the {@link DocumentArchiveStore}; a hot copy always takes precedence.
+ */
+@Component
+@Slf4j
+public class LocalContentAddressedDocumentStorage implements DocumentStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentArchiveStore archiveStore;
+    private final Path root;
+    private final Path blobRoot;
+    private final Path tempRoot;
+
+    public LocalContentAddressedDocumentStorage(DocumentArchiveStore archiveStore,
+            @Value("${documents.storage.root:uploads/documents}") String root) {
+        this.archiveStore = archiveStore;
+        this.root = Paths.get(root);
+        this.blobRoot = this.root.resolve("blobs");
+        this.tempRoot = this.root.resolve("tmp");
+    }
+
+    @Override
+    public StoredBlob store(InputStream content) throws IOException {
+        Files.createDirectories(tempRoot);
+        Path tempFile = tempRoot.resolve(UUID.randomUUID() + ".part");
+        MessageDigest digest = newDigest();
+        long size;
+        try (DigestInputStream in = new DigestInputStream(content, digest)) {
+            size = Files.copy(in, tempFile);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return moveIntoPlace(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    @Override
+    public StoredBlob storeFile(Path source) throws IOException {
+        MessageDigest digest = newDigest();
+        long size = hash(source, digest);
+        return moveIntoPlace(source, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    @Override
+    public Path resolve(String storagePath) {
+        return Paths.get(storagePath);
+    }
+
+    @Override
+    public Resource load(String storagePath) {
+        Path path = resolve(storagePath);
+        if (!Files.isRegularFile(path)) {
+            Optional<DocumentArchiveEntry> archived = archiveStore.find(checksumOf(path));
+            if (archived.isPresent()) {
+                return archiveStore.asResource(archived.get());
+            }
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public BlobAttributes stat(String storagePath) throws IOException {
+        Path path = resolve(storagePath);
+        if (Files.isRegularFile(path)) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new BlobAttributes(attributes.size(), attributes.lastModifiedTime().toMillis(), false);
+        }
+        return archiveStore.find(checksumOf(path))
+                .map(entry -> {
+                    Resource resource = archiveStore.asResource(entry);
+                    return new BlobAttributes(entry.getOriginalSize(), lastModifiedOf(resource), true);
+                })
+                .orElse(null);
+    }
+
+    @Override
+    public boolean archive(String storagePath, boolean compress) throws IOException {
+        Path path = resolve(storagePath);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        archiveStore.append(checksumOf(path), path, compress);
+        // Only drop the hot copy once the archive entry is durable
+        Files.deleteIfExists(path);
+        return true;
+    }
+
+    @Override
+    public boolean verify(String storagePath, String checksum) throws IOException {
+        Path path = resolve(storagePath);
+        if (checksum == null) {
+            return false;
+        }
+        MessageDigest digest = newDigest();
+        if (Files.isRegularFile(path)) {
+            hash(path, digest);
+        } else {
+            Optional<DocumentArchiveEntry> archived = archiveStore.find(checksumOf(path));
+            if (archived.isEmpty()) {
+                return false;
+            }
+            try (InputStream in = new DigestInputStream(archiveStore.open(archived.get()), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return checksum.equalsIgnoreCase(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    @Override
+    public void delete(String storagePath) throws IOException {
+        Path path = resolve(storagePath);
+        Files.deleteIfExists(path);
+        archiveStore.remove(checksumOf(path));
+    }
+
+    private StoredBlob moveIntoPlace(Path file, String checksum, long size) throws IOException {
+        Path target = blobRoot.resolve(checksum.substring(0, 2)).resolve(checksum.substring(2, 4)).resolve(checksum);
+        String storagePath = target.toString().replace('\\', '/');
+
+        if (Files.exists(target)) {
+            try {
+                // A fresh mtime keeps the blob inside the reconciliation grace period until the row
+                // commits; the reconciliation job re-checks it after quarantining and puts it back
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                Files.deleteIfExists(file);
+                log.debug("Deduplicated upload against existing blob {}", checksum);
+                return new StoredBlob(checksum, storagePath, size, true);
+            } catch (NoSuchFileException e) {
+                // Quarantined between the check and the touch: store our own copy below
+            }
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Same content stored concurrently by another upload
+            Files.deleteIfExists(file);
+            return new StoredBlob(checksum, storagePath, size, true);
+        }
+        return new StoredBlob(checksum, storagePath, size, false);
+    }
+
+    private static long hash(Path file, MessageDigest digest) throws IOException {
+        long size = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+                size += read;
+            }
+        }
+        return size;
+    }
+
+    // Blob files are named after their checksum
+    private static String checksumOf(Path path) {
+        return path.getFileName() != null ? path.getFileName().toString() : null;
+    }
+
+    private static long lastModifiedOf(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
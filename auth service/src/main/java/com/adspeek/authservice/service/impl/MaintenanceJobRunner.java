@@ -0,0 +1,130 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.repository.MaintenanceJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs a maintenance job with its {@code maintenance_jobs} bookkeeping: skips
+ * the call if the job is already running on this instance or another one
+ * holds its {@link SchedulerLock} lease, marks the record RUNNING, hands it to
+ * the job body and finally stores it as COMPLETED, or as FAILED with the error
+ * message. Scheduled and manual runs alike go through the lease, and every
+ * checkpoint renews it. A resumable job keeps its last processed id
+ * and counters across runs and is not run again once COMPLETED; any other job
+ * starts from zero every time.
+ */
+@Component
+@Slf4j
+public class MaintenanceJobRunner {
+
+    private final MaintenanceJobRepository maintenanceJobRepository;
+    private final SchedulerLock schedulerLock;
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public MaintenanceJobRunner(MaintenanceJobRepository maintenanceJobRepository, SchedulerLock schedulerLock) {
+        this.maintenanceJobRepository = maintenanceJobRepository;
+        this.schedulerLock = schedulerLock;
+    }
+
+    /**
+     * Work done under a job record; update its counters and message in place
+     */
+    @FunctionalInterface
+    public interface JobBody {
+        void run(MaintenanceJob job) throws Exception;
+    }
+
+    /**
+     * Run the job from scratch
+     *
+     * @return The job record after the run, or the current record if it was already running
+     */
+    public MaintenanceJob run(String jobName, JobBody body) {
+        return execute(jobName, false, body);
+    }
+
+    /**
+     * Continue the job from its stored progress; a completed job is returned as is
+     */
+    public MaintenanceJob resume(String jobName, JobBody body) {
+        return execute(jobName, true, body);
+    }
+
+    /**
+     * Store the job's progress between batches and renew its lease
+     */
+    public void checkpoint(MaintenanceJob job) {
+        maintenanceJobRepository.save(job);
+        if (!schedulerLock.extend(job.getJobName())) {
+            // Another instance may be running it now; the stored progress keeps a resume consistent
+            log.warn("{} lost its scheduler lease", job.getJobName());
+        }
+    }
+
+    public MaintenanceJob find(String jobName) {
+        return maintenanceJobRepository.findById(jobName).orElse(null);
+    }
+
+    public boolean isCompleted(String jobName) {
+        MaintenanceJob job = find(jobName);
+        return job != null && job.getStatus() == MaintenanceJob.Status.COMPLETED;
+    }
+
+    private MaintenanceJob execute(String jobName, boolean resumable, JobBody body) {
+        if (!running.add(jobName)) {
+            log.info("{} is already running, skipping", jobName);
+            return find(jobName);
+        }
+        if (!schedulerLock.tryAcquire(jobName)) {
+            running.remove(jobName);
+            log.info("{} is running on another instance, skipping", jobName);
+            return find(jobName);
+        }
+        try {
+            MaintenanceJob job = find(jobName);
+            if (resumable && job != null && job.getStatus() == MaintenanceJob.Status.COMPLETED) {
+                log.debug("{} already completed at {}", jobName, job.getCompletedAt());
+                return job;
+            }
+            if (job == null) {
+                job = MaintenanceJob.builder().jobName(jobName).build();
+            }
+            if (!resumable || job.getLastProcessedId() == null) {
+                job.setLastProcessedId(0L);
+                job.setProcessedCount(0L);
+                job.setUpdatedCount(0L);
+            }
+            job.setStatus(MaintenanceJob.Status.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job.setCompletedAt(null);
+            job.setMessage(null);
+            maintenanceJobRepository.save(job);
+
+            try {
+                body.run(job);
+                job.setStatus(MaintenanceJob.Status.COMPLETED);
+                job.setCompletedAt(LocalDateTime.now());
+                log.info("{} completed: {} processed, {} updated", jobName, job.getProcessedCount(),
+                        job.getUpdatedCount());
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                log.error("{} failed after id {}: {}", jobName, job.getLastProcessedId(), e.getMessage(), e);
+                job.setStatus(MaintenanceJob.Status.FAILED);
+                job.setMessage(e.getMessage());
+            }
+            return maintenanceJobRepository.save(job);
+        } finally {
+            schedulerLock.release(jobName);
+            running.remove(jobName);
+        }
+    }
+}
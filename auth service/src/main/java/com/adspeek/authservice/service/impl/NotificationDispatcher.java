@@ -0,0 +1,329 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.dto.NotificationDTO;
+import com.adspeek.authservice.entity.Notification;
+import com.adspeek.authservice.entity.User;
+import com.adspeek.authservice.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Writes system notifications off the request thread. Callers hand over the
+ * recipients and the text; the dispatch is queued once the caller's
+ * transaction commits (so related tasks and documents exist and nothing is
+ * sent for a rolled-back change) and a small worker pool drains the queue,
+ * inserting every row of the drained dispatches with one multi-row INSERT
+ * per chunk. Role fan-outs are resolved to user ids on the worker. When the
+ * queue is full the caller inserts its own dispatch, so nothing is dropped.
+ * Listeners receive the written rows (with their generated ids) after each
+ * insert.
+ * <p>
+ * Callers whose own bookkeeping must commit or roll back together with the
+ * notifications (reminder ledgers) use {@link #writeNow} instead, which
+ * inserts in the caller's transaction and notifies listeners after commit.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String INSERT_PREFIX = """
+            INSERT INTO notifications
+                (user_id, title, message, notification_type, is_read, related_task_id, related_document_id, created_at)
+            VALUES
+            """;
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, false, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final BlockingQueue<Dispatch> queue;
+    private final List<Consumer<List<NotificationDTO>>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService workers;
+    private final int workerThreads;
+    private final int batchSize;
+
+    private volatile boolean running = true;
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate, UserRepository userRepository,
+            @Value("${notifications.dispatcher.worker-threads:2}") int workerThreads,
+            @Value("${notifications.dispatcher.queue-capacity:10000}") int queueCapacity,
+            @Value("${notifications.dispatcher.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.workerThreads = Math.max(1, workerThreads);
+        this.batchSize = Math.max(1, batchSize);
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerThreads; i++) {
+            workers.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Queue the same notification for each of the given users
+     */
+    public void dispatch(List<Long> userIds, String title, String message, Notification.NotificationType type,
+            Long taskId, Long documentId) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        enqueue(new Dispatch(List.copyOf(userIds), null, title, message, type, taskId, documentId,
+                LocalDateTime.now()));
+    }
+
+    public void dispatch(Long userId, String title, String message, Notification.NotificationType type,
+            Long taskId, Long documentId) {
+        if (userId != null) {
+            dispatch(List.of(userId), title, message, type, taskId, documentId);
+        }
+    }
+
+    /**
+     * Queue a notification for every user with the role; the recipients are
+     * looked up on the worker, not on the caller's thread
+     */
+    public void dispatchToRole(User.Role role, String title, String message, Notification.NotificationType type,
+            Long taskId, Long documentId) {
+        enqueue(new Dispatch(Collections.emptyList(), role, title, message, type, taskId, documentId,
+                LocalDateTime.now()));
+    }
+
+    /**
+     * Insert the notifications right away, on the caller's thread and in its
+     * transaction, with the same multi-row INSERT as the workers. A failure
+     * is thrown so the caller's transaction rolls back as a whole. Listeners
+     * are told once the transaction has committed, and never for a rollback.
+     *
+     * @return The written rows with their generated ids
+     */
+    public List<NotificationDTO> writeNow(List<PendingNotification> notifications) {
+        List<Row> rows = new ArrayList<>(notifications.size());
+        for (PendingNotification notification : notifications) {
+            rows.add(new Row(notification.userId(), new Dispatch(List.of(notification.userId()), null,
+                    notification.title(), notification.message(), notification.type(), notification.taskId(),
+                    notification.documentId(), LocalDateTime.now())));
+        }
+        List<NotificationDTO> written = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            written.addAll(insertStatement(rows.subList(from, Math.min(rows.size(), from + batchSize))));
+        }
+        if (written.isEmpty()) {
+            return written;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // Synchronization is already cleared here, so listeners act immediately
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        notifyListeners(written);
+                    }
+                }
+            });
+        } else {
+            notifyListeners(written);
+        }
+        return written;
+    }
+
+    /**
+     * Register a callback for written notifications, e.g. to push them to
+     * open streams. Runs on the writing thread, so it must not block.
+     */
+    public void addListener(Consumer<List<NotificationDTO>> listener) {
+        listeners.add(listener);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        // Whatever is still queued is written by the shutting-down thread
+        List<Dispatch> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Writing {} queued notification dispatches before shutdown", remaining.size());
+            write(remaining);
+        }
+    }
+
+    private void enqueue(Dispatch dispatch) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(dispatch);
+                }
+            });
+        } else {
+            offer(dispatch);
+        }
+    }
+
+    private void offer(Dispatch dispatch) {
+        if (!running || !queue.offer(dispatch)) {
+            // Queue full (or shutting down): write it on the caller's thread instead of dropping it
+            write(List.of(dispatch));
+        }
+    }
+
+    private void drainLoop() {
+        List<Dispatch> drained = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Dispatch first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                queue.drainTo(drained, batchSize - 1);
+                write(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Notification dispatcher failed to write {} dispatches: {}", drained.size(),
+                        e.getMessage(), e);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private void write(List<Dispatch> dispatches) {
+        List<Row> rows = new ArrayList<>();
+        for (Dispatch dispatch : dispatches) {
+            List<Long> recipients = dispatch.role() != null ? userRepository.findIdsByRole(dispatch.role())
+                    : dispatch.userIds();
+            for (Long userId : recipients) {
+                rows.add(new Row(userId, dispatch));
+            }
+        }
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            insert(rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private void insert(List<Row> rows) {
+        List<NotificationDTO> written;
+        try {
+            written = insertStatement(rows);
+        } catch (Exception e) {
+            if (rows.size() == 1) {
+                log.error("Failed to insert notification for user {}: {}", rows.get(0).userId(), e.getMessage());
+                return;
+            }
+            // One bad row (e.g. a related task deleted meanwhile) must not cost the others
+            log.warn("Batch insert of {} notifications failed, retrying row by row: {}", rows.size(),
+                    e.getMessage());
+            for (Row row : rows) {
+                insert(List.of(row));
+            }
+            return;
+        }
+        notifyListeners(written);
+    }
+
+    private void notifyListeners(List<NotificationDTO> written) {
+        for (Consumer<List<NotificationDTO>> listener : listeners) {
+            try {
+                listener.accept(written);
+            } catch (Exception e) {
+                log.warn("Notification listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private List<NotificationDTO> insertStatement(List<Row> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(ROW_PLACEHOLDERS);
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    Statement.RETURN_GENERATED_KEYS);
+            int index = 1;
+            for (Row row : rows) {
+                Dispatch dispatch = row.dispatch();
+                statement.setLong(index++, row.userId());
+                statement.setString(index++, dispatch.title());
+                statement.setString(index++, dispatch.message());
+                statement.setString(index++, dispatch.type().name());
+                statement.setObject(index++, dispatch.taskId());
+                statement.setObject(index++, dispatch.documentId());
+                statement.setTimestamp(index++, Timestamp.valueOf(dispatch.createdAt()));
+            }
+            return statement;
+        }, keyHolder);
+
+        // MySQL returns the keys of a multi-row INSERT in row order
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<NotificationDTO> written = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            Dispatch dispatch = row.dispatch();
+            Object key = i < keys.size() ? keys.get(i).values().stream().findFirst().orElse(null) : null;
+            written.add(NotificationDTO.builder()
+                    .id(key instanceof Number number ? number.longValue() : null)
+                    .userId(row.userId())
+                    .title(dispatch.title())
+                    .message(dispatch.message())
+                    .notificationType(dispatch.type())
+                    .isRead(false)
+                    .relatedTaskId(dispatch.taskId())
+                    .relatedDocumentId(dispatch.documentId())
+                    .createdAt(dispatch.createdAt())
+                    .build());
+        }
+        return written;
+    }
+
+    /**
+     * One notification row for {@link #writeNow}
+     */
+    public record PendingNotification(Long userId, String title, String message, Notification.NotificationType type,
+            Long taskId, Long documentId) {
+    }
+
+    private record Dispatch(List<Long> userIds, User.Role role, String title, String message,
+            Notification.NotificationType type, Long taskId, Long documentId, LocalDateTime createdAt) {
+    }
+
+    private record Row(Long userId, Dispatch dispatch) {
+    }
+}
@@ -0,0 +1,248 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.entity.Notification;
+import com.adspeek.authservice.service.NotificationRetentionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Purges read notifications past their retention period. Instead of one
+ * unbounded DELETE, the table is walked in primary-key ranges of
+ * {@code chunk-size} ids, each deleted by its own short statement with a
+ * pause in between, so no statement locks more than one range. The walk
+ * stops at the first range that starts after the newest cutoff. Retention
+ * is configured per notification type with a default for the rest. When
+ * archiving is enabled, each range's rows are appended to a gzip'd
+ * tab-separated file before they are deleted by id. A scheduled or manual run
+ * checkpoints its progress every {@code checkpoint-chunks} ranges, which also
+ * renews its lease.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionServiceImpl implements NotificationRetentionService {
+
+    static final String RETENTION_JOB = "NOTIFICATION_RETENTION";
+
+    private static final DateTimeFormatter ARCHIVE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final boolean enabled;
+    private final int defaultDays;
+    private final Map<String, Integer> daysByType;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final int checkpointChunks;
+    private final boolean archiveEnabled;
+    private final Path archiveDir;
+
+    public NotificationRetentionServiceImpl(JdbcTemplate jdbcTemplate,
+            MaintenanceJobRunner maintenanceJobRunner,
+            @Value("${notifications.retention.enabled:true}") boolean enabled,
+            @Value("${notifications.retention.default-days:90}") int defaultDays,
+            @Value("${notifications.retention.days-by-type:}") String daysByType,
+            @Value("${notifications.retention.chunk-size:2000}") int chunkSize,
+            @Value("${notifications.retention.chunk-pause-ms:100}") long chunkPauseMillis,
+            @Value("${notifications.retention.checkpoint-chunks:50}") int checkpointChunks,
+            @Value("${notifications.retention.archive.enabled:false}") boolean archiveEnabled,
+            @Value("${notifications.retention.archive.dir:uploads/notification-archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.enabled = enabled;
+        this.defaultDays = defaultDays;
+        this.daysByType = parseDaysByType(daysByType);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPauseMillis = Math.max(0, chunkPauseMillis);
+        this.checkpointChunks = Math.max(1, checkpointChunks);
+        this.archiveEnabled = archiveEnabled;
+        this.archiveDir = Paths.get(archiveDir);
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 15 3 * * *}")
+    public void scheduledRetention() {
+        if (enabled) {
+            runRetention();
+        }
+    }
+
+    @Override
+    public MaintenanceJob runRetention() {
+        return maintenanceJobRunner.run(RETENTION_JOB, job -> {
+            PurgeResult result = purge(daysByType, defaultDays, job);
+            job.setProcessedCount(result.chunks());
+            job.setUpdatedCount(result.deleted());
+            job.setMessage(result.archive() != null ? "Archived to " + result.archive() : null);
+        });
+    }
+
+    @Override
+    public long purgeReadOlderThan(int days) {
+        try {
+            return purge(Collections.emptyMap(), days, null).deleted();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to archive notifications", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Notification purge interrupted", e);
+        }
+    }
+
+    /**
+     * @param job Job record to checkpoint while walking, or null for an ad hoc purge
+     */
+    private PurgeResult purge(Map<String, Integer> retentionByType, int retentionDays, MaintenanceJob job)
+            throws IOException, InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> policyArgs = new ArrayList<>();
+        String policy = policyPredicate(retentionByType, retentionDays, now, policyArgs);
+        LocalDateTime newestCutoff = now.minusDays(retentionByType.values().stream()
+                .mapToInt(Integer::intValue).reduce(retentionDays, Math::min));
+
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM notifications", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM notifications", Long.class);
+        if (minId == null || maxId == null) {
+            return new PurgeResult(0, 0, null);
+        }
+
+        long deleted = 0;
+        long chunks = 0;
+        Path archive = null;
+        Writer archiveWriter = null;
+        try {
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                long to = from + chunkSize;
+                // Ids grow with created_at: once a range starts after the newest cutoff, nothing later qualifies
+                Timestamp rangeStart = jdbcTemplate.queryForObject(
+                        "SELECT MIN(created_at) FROM notifications WHERE id >= ? AND id < ?", Timestamp.class,
+                        from, to);
+                if (rangeStart != null && !rangeStart.toLocalDateTime().isBefore(newestCutoff)) {
+                    break;
+                }
+
+                List<Object> args = new ArrayList<>(List.of(from, to));
+                args.addAll(policyArgs);
+                String where = " WHERE id >= ? AND id < ? AND is_read = true AND " + policy;
+                if (archiveEnabled) {
+                    List<Long> ids = new ArrayList<>();
+                    List<String> lines = jdbcTemplate.query("""
+                            SELECT id, user_id, notification_type, title, message, related_task_id,
+                                   related_document_id, created_at, read_at
+                            FROM notifications""" + where, (rs, rowNum) -> {
+                        ids.add(rs.getLong(1));
+                        return String.join("\t", rs.getString(1), rs.getString(2), rs.getString(3),
+                                escape(rs.getString(4)), escape(rs.getString(5)), nullToEmpty(rs.getString(6)),
+                                nullToEmpty(rs.getString(7)), nullToEmpty(rs.getString(8)),
+                                nullToEmpty(rs.getString(9)));
+                    }, args.toArray());
+                    if (!ids.isEmpty()) {
+                        if (archiveWriter == null) {
+                            Files.createDirectories(archiveDir);
+                            archive = archiveDir.resolve("notifications-" + now.format(ARCHIVE_NAME) + ".tsv.gz");
+                            archiveWriter = new BufferedWriter(new OutputStreamWriter(
+                                    new GZIPOutputStream(Files.newOutputStream(archive), true),
+                                    StandardCharsets.UTF_8));
+                        }
+                        for (String line : lines) {
+                            archiveWriter.write(line);
+                            archiveWriter.write('\n');
+                        }
+                        // Rows are only deleted once they are in the archive
+                        archiveWriter.flush();
+                        deleted += jdbcTemplate.update("DELETE FROM notifications WHERE id IN ("
+                                + String.join(",", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+                    }
+                } else {
+                    deleted += jdbcTemplate.update("DELETE FROM notifications" + where, args.toArray());
+                }
+
+                chunks++;
+                if (job != null && chunks % checkpointChunks == 0) {
+                    job.setLastProcessedId(to - 1);
+                    job.setProcessedCount(chunks);
+                    job.setUpdatedCount(deleted);
+                    maintenanceJobRunner.checkpoint(job);
+                }
+                if (chunkPauseMillis > 0) {
+                    Thread.sleep(chunkPauseMillis);
+                }
+            }
+        } finally {
+            if (archiveWriter != null) {
+                archiveWriter.close();
+            }
+        }
+        return new PurgeResult(deleted, chunks, archive);
+    }
+
+    // (type = ? AND created_at < ?) OR ... OR (type NOT IN (...) AND created_at < ?)
+    private static String policyPredicate(Map<String, Integer> retentionByType, int retentionDays, LocalDateTime now,
+            List<Object> args) {
+        if (retentionByType.isEmpty()) {
+            args.add(Timestamp.valueOf(now.minusDays(retentionDays)));
+            return "created_at < ?";
+        }
+        StringBuilder predicate = new StringBuilder("(");
+        retentionByType.forEach((type, days) -> {
+            predicate.append("(notification_type = ? AND created_at < ?) OR ");
+            args.add(type);
+            args.add(Timestamp.valueOf(now.minusDays(days)));
+        });
+        predicate.append("(notification_type NOT IN (")
+                .append(String.join(",", Collections.nCopies(retentionByType.size(), "?")))
+                .append(") AND created_at < ?))");
+        args.addAll(retentionByType.keySet());
+        args.add(Timestamp.valueOf(now.minusDays(retentionDays)));
+        return predicate.toString();
+    }
+
+    // "DEADLINE_REMINDER:30,STATUS_UPDATE:60"
+    private static Map<String, Integer> parseDaysByType(String value) {
+        Map<String, Integer> parsed = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            return parsed;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid notification retention entry: " + entry);
+            }
+            String type = Notification.NotificationType.valueOf(parts[0].trim()).name();
+            parsed.put(type, Integer.parseInt(parts[1].trim()));
+        }
+        return parsed;
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n")
+                .replace("\r", "\\r");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private record PurgeResult(long deleted, long chunks, Path archive) {
+    }
+}
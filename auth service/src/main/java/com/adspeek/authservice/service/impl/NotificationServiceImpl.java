@@ -3,6 +3,7 @@ package com.adspeek.authservice.service.impl;
 import com.adspeek.authservice.dto.NotificationDTO;
 import com.adspeek.authservice.entity.*;
 import com.adspeek.authservice.repository.*;
+import com.adspeek.authservice.service.NotificationRetentionService;
 import com.adspeek.authservice.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +11,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +31,9 @@ public class NotificationServiceImpl implements NotificationService {
     private final DocumentRepository documentRepository;
     private final ClientRepository clientRepository;
     private final StaffRepository staffRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationStreamHub notificationStreamHub;
+    private final NotificationRetentionService notificationRetentionService;
 
     @Override
     public NotificationDTO createNotification(Long userId, String title, String message,
@@ -58,7 +64,9 @@ public class NotificationServiceImpl implements NotificationService {
                     .build();
 
             Notification savedNotification = notificationRepository.save(notification);
-            return NotificationDTO.fromEntity(savedNotification);
+            NotificationDTO notificationDTO = NotificationDTO.fromEntity(savedNotification);
+            notificationStreamHub.publish(List.of(notificationDTO));
+            return notificationDTO;
         } catch (Exception e) {
             log.error("Error creating notification: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to create notification", e);
@@ -80,8 +88,21 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public SseEmitter openNotificationStream(Long userId, Long lastEventId) {
+        // Loaded by the hub once the stream is registered, so nothing committed in between is lost
+        return notificationStreamHub.subscribe(userId, () -> lastEventId == null ? List.of()
+                : notificationRepository.findTop100ByUserIdAndIdGreaterThanOrderByIdAsc(userId, lastEventId).stream()
+                        .map(NotificationDTO::fromEntity)
+                        .toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public long getUnreadNotificationCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        // Kept on the users row by triggers on notifications (db/unread_notification_count_migration.sql)
+        Long count = userRepository.findUnreadNotificationCount(userId);
+        return count != null ? count : 0L;
     }
 
     @Override
@@ -99,10 +120,11 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteOldNotifications(int daysOld) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        notificationRepository.deleteOldReadNotifications(cutoffDate);
-        log.info("Deleted notifications older than {} days", daysOld);
+        // Each chunk commits on its own; one surrounding transaction would hold every lock until the end
+        long deleted = notificationRetentionService.purgeReadOlderThan(daysOld);
+        log.info("Deleted {} notifications older than {} days", deleted, daysOld);
     }
 
     // System notification methods
@@ -119,7 +141,7 @@ public class NotificationServiceImpl implements NotificationService {
             String message = String.format("You have been assigned a new task: '%s'. Due date: %s",
                     task.getTitle(), task.getDueDate());
 
-            createNotification(staff.getUser().getId(), title, message,
+            notificationDispatcher.dispatch(staff.getUser().getId(), title, message,
                     Notification.NotificationType.TASK_ASSIGNED, taskId, null);
         } catch (Exception e) {
             log.error("Error notifying task assignment: {}", e.getMessage(), e);
@@ -138,7 +160,7 @@ public class NotificationServiceImpl implements NotificationService {
                     task.getTitle(), oldStatus, newStatus);
 
             Long clientUserId = task.getClient().getUser().getId();
-            createNotification(clientUserId, title, message,
+            notificationDispatcher.dispatch(clientUserId, title, message,
                     Notification.NotificationType.STATUS_UPDATE, taskId, null);
 
             // Notify assigned staff (if different from updater)
@@ -147,7 +169,7 @@ public class NotificationServiceImpl implements NotificationService {
                         task.getTitle(), newStatus);
 
                 Long staffUserId = task.getAssignedStaff().getUser().getId();
-                createNotification(staffUserId, title, staffMessage,
+                notificationDispatcher.dispatch(staffUserId, title, staffMessage,
                         Notification.NotificationType.STATUS_UPDATE, taskId, null);
             }
         } catch (Exception e) {
@@ -166,7 +188,7 @@ public class NotificationServiceImpl implements NotificationService {
             String message = String.format("Your document '%s' has been successfully uploaded",
                     document.getOriginalFileName());
 
-            createNotification(clientId, title, message,
+            notificationDispatcher.dispatch(clientId, title, message,
                     Notification.NotificationType.DOCUMENT_UPLOADED,
                     document.getTask() != null ? document.getTask().getId() : null, documentId);
 
@@ -175,24 +197,19 @@ public class NotificationServiceImpl implements NotificationService {
                 String staffMessage = String.format("New document '%s' uploaded for task '%s'",
                         document.getOriginalFileName(), document.getTask().getTitle());
 
-                createNotification(document.getTask().getAssignedStaff().getUser().getId(), title, staffMessage,
-                        Notification.NotificationType.DOCUMENT_UPLOADED, document.getTask().getId(), documentId);
+                notificationDispatcher.dispatch(document.getTask().getAssignedStaff().getUser().getId(), title,
+                        staffMessage, Notification.NotificationType.DOCUMENT_UPLOADED,
+                        document.getTask().getId(), documentId);
             } else {
-                // If no task is associated, try to find staff assigned to the client
-                // and notify them about the document upload
-                List<Task> clientTasks = taskRepository.findByClientId(document.getClient().getId());
-                for (Task task : clientTasks) {
-                    if (task.getAssignedStaff() != null) {
-                        String staffMessage = String.format("New document '%s' uploaded by client '%s'",
-                                document.getOriginalFileName(),
-                                document.getClient().getCompanyName() != null ? document.getClient().getCompanyName()
-                                        : document.getClient().getUser().getFirstName() + " "
-                                                + document.getClient().getUser().getLastName());
-
-                        createNotification(task.getAssignedStaff().getUser().getId(), title, staffMessage,
-                                Notification.NotificationType.DOCUMENT_UPLOADED, null, documentId);
-                        break; // Only notify one staff member to avoid duplicates
-                    }
+                // If no task is associated, notify the staff working on the client's open tasks
+                List<Long> staffUserIds = taskRepository
+                        .findActiveAssignedStaffUserIdsByClientId(document.getClient().getId());
+                if (!staffUserIds.isEmpty()) {
+                    String staffMessage = String.format("New document '%s' uploaded by client '%s'",
+                            document.getOriginalFileName(), clientDisplayName(document.getClient()));
+
+                    notificationDispatcher.dispatch(staffUserIds, title, staffMessage,
+                            Notification.NotificationType.DOCUMENT_UPLOADED, null, documentId);
                 }
             }
         } catch (Exception e) {
@@ -215,7 +232,7 @@ public class NotificationServiceImpl implements NotificationService {
                     staff.getUser().getFirstName(), staff.getUser().getLastName(),
                     document.getOriginalFileName());
 
-            createNotification(clientId, title, message,
+            notificationDispatcher.dispatch(clientId, title, message,
                     Notification.NotificationType.DOCUMENT_UPLOADED,
                     document.getTask() != null ? document.getTask().getId() : null, documentId);
 
@@ -226,8 +243,9 @@ public class NotificationServiceImpl implements NotificationService {
                         document.getOriginalFileName(), staff.getUser().getFirstName(), staff.getUser().getLastName(),
                         document.getTask().getTitle());
 
-                createNotification(document.getTask().getAssignedStaff().getUser().getId(), title, staffMessage,
-                        Notification.NotificationType.DOCUMENT_UPLOADED, document.getTask().getId(), documentId);
+                notificationDispatcher.dispatch(document.getTask().getAssignedStaff().getUser().getId(), title,
+                        staffMessage, Notification.NotificationType.DOCUMENT_UPLOADED,
+                        document.getTask().getId(), documentId);
             }
         } catch (Exception e) {
             log.error("Error notifying document upload by staff: {}", e.getMessage(), e);
@@ -246,7 +264,7 @@ public class NotificationServiceImpl implements NotificationService {
 
             // Notify the client
             Long clientUserId = document.getClient().getUser().getId();
-            createNotification(clientUserId, title, message,
+            notificationDispatcher.dispatch(clientUserId, title, message,
                     Notification.NotificationType.DOCUMENT_VERIFIED,
                     document.getTask() != null ? document.getTask().getId() : null, documentId);
 
@@ -255,23 +273,19 @@ public class NotificationServiceImpl implements NotificationService {
                 String staffMessage = String.format("Document '%s' has been verified for task '%s'",
                         document.getOriginalFileName(), document.getTask().getTitle());
 
-                createNotification(document.getTask().getAssignedStaff().getUser().getId(), title, staffMessage,
-                        Notification.NotificationType.DOCUMENT_VERIFIED, document.getTask().getId(), documentId);
+                notificationDispatcher.dispatch(document.getTask().getAssignedStaff().getUser().getId(), title,
+                        staffMessage, Notification.NotificationType.DOCUMENT_VERIFIED,
+                        document.getTask().getId(), documentId);
             } else {
-                // If no task is associated, try to find staff assigned to the client
-                List<Task> clientTasks = taskRepository.findByClientId(document.getClient().getId());
-                for (Task task : clientTasks) {
-                    if (task.getAssignedStaff() != null) {
-                        String staffMessage = String.format("Document '%s' has been verified for client '%s'",
-                                document.getOriginalFileName(),
-                                document.getClient().getCompanyName() != null ? document.getClient().getCompanyName()
-                                        : document.getClient().getUser().getFirstName() + " "
-                                                + document.getClient().getUser().getLastName());
-
-                        createNotification(task.getAssignedStaff().getUser().getId(), title, staffMessage,
-                                Notification.NotificationType.DOCUMENT_VERIFIED, null, documentId);
-                        break; // Only notify one staff member to avoid duplicates
-                    }
+                // If no task is associated, notify the staff working on the client's open tasks
+                List<Long> staffUserIds = taskRepository
+                        .findActiveAssignedStaffUserIdsByClientId(document.getClient().getId());
+                if (!staffUserIds.isEmpty()) {
+                    String staffMessage = String.format("Document '%s' has been verified for client '%s'",
+                            document.getOriginalFileName(), clientDisplayName(document.getClient()));
+
+                    notificationDispatcher.dispatch(staffUserIds, title, staffMessage,
+                            Notification.NotificationType.DOCUMENT_VERIFIED, null, documentId);
                 }
             }
         } catch (Exception e) {
@@ -290,7 +304,7 @@ public class NotificationServiceImpl implements NotificationService {
                     document.getOriginalFileName(), reason);
 
             // Notify the client
-            createNotification(document.getClient().getUser().getId(), title, message,
+            notificationDispatcher.dispatch(document.getClient().getUser().getId(), title, message,
                     Notification.NotificationType.DOCUMENT_REJECTED,
                     document.getTask() != null ? document.getTask().getId() : null, documentId);
 
@@ -299,25 +313,20 @@ public class NotificationServiceImpl implements NotificationService {
                 String staffMessage = String.format("Document '%s' has been rejected for task '%s'. Reason: %s",
                         document.getOriginalFileName(), document.getTask().getTitle(), reason);
 
-                createNotification(document.getTask().getAssignedStaff().getUser().getId(), title, staffMessage,
-                        Notification.NotificationType.DOCUMENT_REJECTED, document.getTask().getId(), documentId);
+                notificationDispatcher.dispatch(document.getTask().getAssignedStaff().getUser().getId(), title,
+                        staffMessage, Notification.NotificationType.DOCUMENT_REJECTED,
+                        document.getTask().getId(), documentId);
             } else {
-                // If no task is associated, try to find staff assigned to the client
-                List<Task> clientTasks = taskRepository.findByClientId(document.getClient().getId());
-                for (Task task : clientTasks) {
-                    if (task.getAssignedStaff() != null) {
-                        String staffMessage = String.format(
-                                "Document '%s' has been rejected for client '%s'. Reason: %s",
-                                document.getOriginalFileName(),
-                                document.getClient().getCompanyName() != null ? document.getClient().getCompanyName()
-                                        : document.getClient().getUser().getFirstName() + " "
-                                                + document.getClient().getUser().getLastName(),
-                                reason);
-
-                        createNotification(task.getAssignedStaff().getUser().getId(), title, staffMessage,
-                                Notification.NotificationType.DOCUMENT_REJECTED, null, documentId);
-                        break; // Only notify one staff member to avoid duplicates
-                    }
+                // If no task is associated, notify the staff working on the client's open tasks
+                List<Long> staffUserIds = taskRepository
+                        .findActiveAssignedStaffUserIdsByClientId(document.getClient().getId());
+                if (!staffUserIds.isEmpty()) {
+                    String staffMessage = String.format(
+                            "Document '%s' has been rejected for client '%s'. Reason: %s",
+                            document.getOriginalFileName(), clientDisplayName(document.getClient()), reason);
+
+                    notificationDispatcher.dispatch(staffUserIds, title, staffMessage,
+                            Notification.NotificationType.DOCUMENT_REJECTED, null, documentId);
                 }
             }
         } catch (Exception e) {
@@ -339,7 +348,7 @@ public class NotificationServiceImpl implements NotificationService {
             String message = String.format("Staff member %s %s has been assigned to your account",
                     staff.getUser().getFirstName(), staff.getUser().getLastName());
 
-            createNotification(client.getUser().getId(), title, message,
+            notificationDispatcher.dispatch(client.getUser().getId(), title, message,
                     Notification.NotificationType.STAFF_ASSIGNED, null, null);
 
             // Notify the staff
@@ -347,7 +356,7 @@ public class NotificationServiceImpl implements NotificationService {
                     client.getCompanyName() != null ? client.getCompanyName()
                             : client.getUser().getFirstName() + " " + client.getUser().getLastName());
 
-            createNotification(staff.getUser().getId(), title, staffMessage,
+            notificationDispatcher.dispatch(staff.getUser().getId(), title, staffMessage,
                     Notification.NotificationType.STAFF_ASSIGNED, null, null);
         } catch (Exception e) {
             log.error("Error notifying staff assignment: {}", e.getMessage(), e);
@@ -363,7 +372,7 @@ public class NotificationServiceImpl implements NotificationService {
             String title = "Task Completed";
             String message = String.format("Your task '%s' has been completed successfully", task.getTitle());
 
-            createNotification(task.getClient().getUser().getId(), title, message,
+            notificationDispatcher.dispatch(task.getClient().getUser().getId(), title, message,
                     Notification.NotificationType.TASK_COMPLETED, taskId, null);
         } catch (Exception e) {
             log.error("Error notifying task completion: {}", e.getMessage(), e);
@@ -381,12 +390,12 @@ public class NotificationServiceImpl implements NotificationService {
                     task.getTitle(), task.getDueDate());
 
             // Notify client
-            createNotification(task.getClient().getUser().getId(), title, message,
+            notificationDispatcher.dispatch(task.getClient().getUser().getId(), title, message,
                     Notification.NotificationType.DEADLINE_REMINDER, taskId, null);
 
             // Notify assigned staff
             if (task.getAssignedStaff() != null) {
-                createNotification(task.getAssignedStaff().getUser().getId(), title, message,
+                notificationDispatcher.dispatch(task.getAssignedStaff().getUser().getId(), title, message,
                         Notification.NotificationType.DEADLINE_REMINDER, taskId, null);
             }
         } catch (Exception e) {
@@ -404,7 +413,7 @@ public class NotificationServiceImpl implements NotificationService {
             String messageText = String.format("You have received a new message from %s %s",
                     fromUser.getFirstName(), fromUser.getLastName());
 
-            createNotification(toUserId, title, messageText,
+            notificationDispatcher.dispatch(toUserId, title, messageText,
                     Notification.NotificationType.MESSAGE_RECEIVED, null, null);
         } catch (Exception e) {
             log.error("Error notifying message received: {}", e.getMessage(), e);
@@ -427,8 +436,8 @@ public class NotificationServiceImpl implements NotificationService {
             String message = String
                     .format("A new lead has been assigned to you. Please review and take necessary action.");
 
-            createNotification(staffUser.getId(), title, message, Notification.NotificationType.LEAD_ASSIGNED, null,
-                    null);
+            notificationDispatcher.dispatch(staffUser.getId(), title, message,
+                    Notification.NotificationType.LEAD_ASSIGNED, null, null);
         } catch (Exception e) {
             log.error("Error creating lead assignment notification: {}", e.getMessage(), e);
         }
@@ -448,26 +457,16 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public void notifyNewLeadCreatedForAdmin(Long leadId) {
         try {
-            // Find all admin users
-            List<User> adminUsers = userRepository.findByRole(User.Role.ADMIN);
-
-            if (adminUsers.isEmpty()) {
-                log.warn("No admin users found to notify about new lead");
-                return;
-            }
-
             String title = "New Lead Inquiry Received";
             String message = String.format(
                     "A new lead inquiry has been submitted. Lead ID: %s. Please review and assign to appropriate staff.",
                     leadId);
 
             // Send notification to all admin users
-            for (User adminUser : adminUsers) {
-                createNotification(adminUser.getId(), title, message, Notification.NotificationType.NEW_LEAD_CREATED,
-                        null, null);
-            }
+            notificationDispatcher.dispatchToRole(User.Role.ADMIN, title, message,
+                    Notification.NotificationType.NEW_LEAD_CREATED, null, null);
 
-            log.info("Created new lead notifications for {} admin users", adminUsers.size());
+            log.info("Queued new lead notifications for admin users, lead ID: {}", leadId);
         } catch (Exception e) {
             log.error("Error creating new lead notification for admins: {}", e.getMessage(), e);
         }
@@ -476,26 +475,16 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public void notifyLeadConvertedToClient(Long leadId, Long clientId) {
         try {
-            // Find all admin users
-            List<User> adminUsers = userRepository.findByRole(User.Role.ADMIN);
-
-            if (adminUsers.isEmpty()) {
-                log.warn("No admin users found to notify about lead conversion");
-                return;
-            }
-
             String title = "Lead Successfully Converted to Client";
             String message = String.format(
                     "A lead has been successfully converted to a client. Lead ID: %s, Client ID: %s. The client account has been created and is ready for service.",
                     leadId, clientId);
 
             // Send notification to all admin users
-            for (User adminUser : adminUsers) {
-                createNotification(adminUser.getId(), title, message, Notification.NotificationType.LEAD_CONVERTED,
-                        null, null);
-            }
+            notificationDispatcher.dispatchToRole(User.Role.ADMIN, title, message,
+                    Notification.NotificationType.LEAD_CONVERTED, null, null);
 
-            log.info("Created lead conversion notifications for {} admin users", adminUsers.size());
+            log.info("Queued lead conversion notifications for admin users, lead ID: {}", leadId);
         } catch (Exception e) {
             log.error("Error creating lead conversion notification for admins: {}", e.getMessage(), e);
         }
@@ -505,26 +494,17 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public void notifyServiceRequestCreated(Long serviceRequestId, Long createdByUserId) {
         try {
-            // Find all admin users to notify about new service request
-            List<User> adminUsers = userRepository.findByRole(User.Role.ADMIN);
-
-            if (adminUsers.isEmpty()) {
-                log.warn("No admin users found to notify about new service request");
-                return;
-            }
-
             String title = "New Service Request Created";
             String message = String.format(
                     "A new service request has been created. Service Request ID: %s. Please review and take necessary action.",
                     serviceRequestId);
 
             // Send notification to all admin users
-            for (User adminUser : adminUsers) {
-                createNotification(adminUser.getId(), title, message,
-                        Notification.NotificationType.SERVICE_REQUEST_CREATED, null, null);
-            }
+            notificationDispatcher.dispatchToRole(User.Role.ADMIN, title, message,
+                    Notification.NotificationType.SERVICE_REQUEST_CREATED, null, null);
 
-            log.info("Created service request notifications for {} admin users", adminUsers.size());
+            log.info("Queued service request notifications for admin users, service request ID: {}",
+                    serviceRequestId);
         } catch (Exception e) {
             log.error("Error creating service request creation notification: {}", e.getMessage(), e);
         }
@@ -561,7 +541,7 @@ public class NotificationServiceImpl implements NotificationService {
             String title = "Service Request Assigned";
             String message = "Your service request has been assigned to a staff member. We will begin working on it soon.";
 
-            createNotification(clientId, title, message,
+            notificationDispatcher.dispatch(clientId, title, message,
                     Notification.NotificationType.SERVICE_REQUEST_ASSIGNED, null, null);
 
             log.info("Created service request assignment notification for client ID: {}", clientId);
@@ -577,7 +557,7 @@ public class NotificationServiceImpl implements NotificationService {
             String title = "Service Request Rejected";
             String message = "Your service request has been rejected. Please contact us for more information.";
 
-            createNotification(clientId, title, message,
+            notificationDispatcher.dispatch(clientId, title, message,
                     Notification.NotificationType.SERVICE_REQUEST_REJECTED, null, null);
 
             log.info("Created service request rejection notification for client ID: {}", clientId);
@@ -594,7 +574,7 @@ public class NotificationServiceImpl implements NotificationService {
             String title = "Service Request Cancelled";
             String message = "Your service request has been cancelled.";
 
-            createNotification(clientId, title, message,
+            notificationDispatcher.dispatch(clientId, title, message,
                     Notification.NotificationType.SERVICE_REQUEST_CANCELLED, null, null);
 
             // If there's assigned staff, notify them about cancellation
@@ -602,7 +582,7 @@ public class NotificationServiceImpl implements NotificationService {
                 String staffTitle = "Service Request Cancelled";
                 String staffMessage = "A service request assigned to you has been cancelled.";
 
-                createNotification(assignedStaffId, staffTitle, staffMessage,
+                notificationDispatcher.dispatch(assignedStaffId, staffTitle, staffMessage,
                         Notification.NotificationType.SERVICE_REQUEST_CANCELLED, null, null);
 
                 log.info("Created service request cancellation notification for staff ID: {}", assignedStaffId);
@@ -621,28 +601,24 @@ public class NotificationServiceImpl implements NotificationService {
             String title = "Service Request Converted to Task";
             String message = "Your service request has been converted to a task and is now being actively worked on.";
 
-            createNotification(clientId, title, message,
+            notificationDispatcher.dispatch(clientId, title, message,
                     Notification.NotificationType.SERVICE_REQUEST_CONVERTED_TO_TASK, taskId, null);
 
-            // Find all admin users to notify about conversion
-            List<User> adminUsers = userRepository.findByRole(User.Role.ADMIN);
-
-            if (!adminUsers.isEmpty()) {
-                String adminTitle = "Service Request Converted to Task";
-                String adminMessage = String.format("Service request ID: %s has been converted to task ID: %s",
-                        serviceRequestId, taskId);
-
-                for (User adminUser : adminUsers) {
-                    createNotification(adminUser.getId(), adminTitle, adminMessage,
-                            Notification.NotificationType.SERVICE_REQUEST_CONVERTED_TO_TASK, taskId, null);
-                }
-
-                log.info("Created service request conversion notifications for {} admin users", adminUsers.size());
-            }
+            // Notify all admin users about conversion
+            String adminTitle = "Service Request Converted to Task";
+            String adminMessage = String.format("Service request ID: %s has been converted to task ID: %s",
+                    serviceRequestId, taskId);
+            notificationDispatcher.dispatchToRole(User.Role.ADMIN, adminTitle, adminMessage,
+                    Notification.NotificationType.SERVICE_REQUEST_CONVERTED_TO_TASK, taskId, null);
 
             log.info("Created service request conversion notification for client ID: {}", clientId);
         } catch (Exception e) {
             log.error("Error creating service request conversion notification: {}", e.getMessage(), e);
         }
     }
+
+    private static String clientDisplayName(Client client) {
+        return client.getCompanyName() != null ? client.getCompanyName()
+                : client.getUser().getFirstName() + " " + client.getUser().getLastName();
+    }
 }
@@ -0,0 +1,292 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.dto.NotificationDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * In-process fan-out of new notifications to connected Server-Sent Events
+ * streams. Each open stream is one {@link SseEmitter} registered under its
+ * user; an idle stream holds no thread. Every stream has its own FIFO send
+ * queue drained by at most one virtual thread at a time, so a slow client
+ * never stalls the notification writers or other users' streams, and events
+ * reach a stream in the order they were published. Every event carries the
+ * notification id as its SSE id, so a reconnecting browser sends it back as
+ * {@code Last-Event-ID} and only misses are replayed.
+ */
+@Component
+@Slf4j
+public class NotificationStreamHub {
+
+    private static final String EVENT_NAME = "notification";
+
+    // A client this far behind is disconnected; it reconnects with Last-Event-ID
+    private static final int MAX_PENDING_EVENTS = 1000;
+
+    // Ids remembered per stream to drop the overlap between the replay and live pushes
+    private static final int RECENT_IDS = 256;
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final Map<Long, CopyOnWriteArrayList<Connection>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final long streamTimeoutMillis;
+    private final int maxStreamsPerUser;
+
+    public NotificationStreamHub(NotificationDispatcher notificationDispatcher,
+            @Value("${notifications.stream.timeout-ms:1800000}") long streamTimeoutMillis,
+            @Value("${notifications.stream.max-streams-per-user:5}") int maxStreamsPerUser) {
+        this.notificationDispatcher = notificationDispatcher;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.maxStreamsPerUser = Math.max(1, maxStreamsPerUser);
+    }
+
+    @PostConstruct
+    public void init() {
+        notificationDispatcher.addListener(this::publish);
+    }
+
+    /**
+     * Open a stream for the user and replay the notifications it missed. The
+     * stream is registered before the replay is loaded, so a notification
+     * committed in between is pushed live instead of being lost; one that
+     * shows up both ways is sent once. Live pushes wait until the replay has
+     * been queued.
+     *
+     * @param missed Loads the notifications created after the client's Last-Event-ID, oldest first
+     */
+    public SseEmitter subscribe(Long userId, Supplier<List<NotificationDTO>> missed) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Connection connection = new Connection(userId, emitter);
+        List<Connection> evicted = new ArrayList<>();
+        connections.compute(userId, (id, userConnections) -> {
+            CopyOnWriteArrayList<Connection> list = userConnections != null ? userConnections
+                    : new CopyOnWriteArrayList<>();
+            list.add(connection);
+            // Oldest stream of a user with too many tabs open makes room
+            while (list.size() > maxStreamsPerUser) {
+                evicted.add(list.remove(0));
+            }
+            return list;
+        });
+        evicted.forEach(Connection::close);
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(error -> remove(connection));
+
+        List<Outgoing> replay = new ArrayList<>();
+        // Flushes the response headers so the browser sees the stream as open
+        replay.add(new Outgoing(null, SseEmitter.event().comment("connected")));
+        try {
+            for (NotificationDTO notification : missed.get()) {
+                replay.add(toOutgoing(notification));
+            }
+        } catch (RuntimeException e) {
+            remove(connection);
+            emitter.completeWithError(e);
+            throw e;
+        }
+        connection.start(replay);
+        return emitter;
+    }
+
+    /**
+     * Push notifications to their recipients' open streams; deferred until
+     * commit when called inside a transaction
+     */
+    public void publish(Collection<NotificationDTO> notifications) {
+        if (notifications.isEmpty() || connections.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<NotificationDTO> pending = new ArrayList<>(notifications);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push(pending);
+                }
+            });
+        } else {
+            push(notifications);
+        }
+    }
+
+    /**
+     * Keeps proxies from closing idle streams and detects dead connections
+     */
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        connections.values().forEach(userConnections -> {
+            for (Connection connection : userConnections) {
+                connection.enqueue(new Outgoing(null, SseEmitter.event().comment("heartbeat")));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::close));
+        connections.clear();
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void push(Collection<NotificationDTO> notifications) {
+        Map<Long, List<Outgoing>> byUser = new LinkedHashMap<>();
+        for (NotificationDTO notification : notifications) {
+            if (notification.getUserId() != null && connections.containsKey(notification.getUserId())) {
+                byUser.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>())
+                        .add(toOutgoing(notification));
+            }
+        }
+        byUser.forEach((userId, events) -> {
+            for (Connection connection : connections.getOrDefault(userId, new CopyOnWriteArrayList<>())) {
+                events.forEach(connection::enqueue);
+            }
+        });
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private static Outgoing toOutgoing(NotificationDTO notification) {
+        return new Outgoing(notification.getId(), SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name(EVENT_NAME)
+                .data(notification, MediaType.APPLICATION_JSON));
+    }
+
+    private record Outgoing(Long notificationId, SseEmitter.SseEventBuilder event) {
+    }
+
+    /**
+     * One open stream with its send queue. Queue and flags are guarded by the
+     * connection's monitor; the drain loop runs on one sender at a time.
+     */
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Outgoing> pending = new ArrayDeque<>();
+        // Only touched by the draining sender
+        private final LinkedHashSet<Long> recentIds = new LinkedHashSet<>();
+        private boolean started;
+        private boolean draining;
+        private boolean closed;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void enqueue(Outgoing outgoing) {
+            if (closed) {
+                return;
+            }
+            if (pending.size() >= MAX_PENDING_EVENTS) {
+                log.warn("Notification stream of user {} is {} events behind, closing it", userId, pending.size());
+                closeLocked();
+                return;
+            }
+            pending.addLast(outgoing);
+            scheduleDrain();
+        }
+
+        // Replay goes ahead of whatever was pushed live while it was loading
+        synchronized void start(List<Outgoing> replay) {
+            for (int i = replay.size() - 1; i >= 0; i--) {
+                pending.addFirst(replay.get(i));
+            }
+            started = true;
+            scheduleDrain();
+        }
+
+        synchronized void close() {
+            closeLocked();
+        }
+
+        private void closeLocked() {
+            if (!closed) {
+                closed = true;
+                pending.clear();
+                remove(this);
+                emitter.complete();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (started && !draining && !closed && !pending.isEmpty()) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing next;
+                synchronized (this) {
+                    next = pending.pollFirst();
+                    if (next == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (next.notificationId() != null && !remember(next.notificationId())) {
+                    continue;
+                }
+                try {
+                    emitter.send(next.event());
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the browser reconnects with Last-Event-ID if it is still there
+                    synchronized (this) {
+                        draining = false;
+                        closed = true;
+                        pending.clear();
+                    }
+                    remove(this);
+                    return;
+                }
+            }
+        }
+
+        private boolean remember(Long notificationId) {
+            if (!recentIds.add(notificationId)) {
+                return false;
+            }
+            if (recentIds.size() > RECENT_IDS) {
+                Iterator<Long> eldest = recentIds.iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.service.NotificationUnreadCountService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Repairs {@code users.unread_notification_count}. Triggers on
+ * {@code notifications} keep the count in step with every notification write
+ * (see db/unread_notification_count_migration.sql); {@link #rebuild()}
+ * recomputes it nightly in case anything drifts. Users are walked in id
+ * batches, each compared and repaired in its own short transaction with the
+ * migration's verification query, so only drifted rows are written.
+ */
+@Service
+@Slf4j
+public class NotificationUnreadCountServiceImpl implements NotificationUnreadCountService {
+
+    static final String REBUILD_JOB = "NOTIFICATION_UNREAD_COUNT_REBUILD";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final int batchSize;
+
+    public NotificationUnreadCountServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MaintenanceJobRunner maintenanceJobRunner,
+            @Value("${notifications.unread-count.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(cron = "${notifications.unread-count.reconcile-cron:0 55 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Override
+    public MaintenanceJob rebuild() {
+        return maintenanceJobRunner.run(REBUILD_JOB, job -> {
+            long afterId = 0L;
+            while (true) {
+                List<Long> userIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?", Long.class, afterId, batchSize);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                long fromId = userIds.get(0);
+                long toId = userIds.get(userIds.size() - 1);
+                Integer repaired = transactionTemplate.execute(status -> repairRange(fromId, toId));
+
+                job.setProcessedCount(job.getProcessedCount() + userIds.size());
+                job.setUpdatedCount(job.getUpdatedCount() + (repaired != null ? repaired : 0));
+                job.setLastProcessedId(toId);
+                maintenanceJobRunner.checkpoint(job);
+                if (userIds.size() < batchSize) {
+                    break;
+                }
+                afterId = toId;
+            }
+            if (job.getUpdatedCount() > 0) {
+                log.warn("Repaired the unread notification count of {} users", job.getUpdatedCount());
+            }
+        });
+    }
+
+    private int repairRange(long fromId, long toId) {
+        // The range's notifications are share-locked first, in the order the triggers
+        // lock (notification, then user), so concurrent writes wait instead of deadlocking
+        jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id BETWEEN ? AND ? LOCK IN SHARE MODE", Long.class,
+                fromId, toId);
+        return jdbcTemplate.update("""
+                UPDATE users u
+                LEFT JOIN (
+                    SELECT user_id, COUNT(*) AS unread
+                    FROM notifications
+                    WHERE user_id BETWEEN ? AND ? AND NOT COALESCE(is_read, FALSE)
+                    GROUP BY user_id
+                ) n ON n.user_id = u.id
+                SET u.unread_notification_count = COALESCE(n.unread, 0)
+                WHERE u.id BETWEEN ? AND ?
+                AND u.unread_notification_count <> COALESCE(n.unread, 0)
+                """, fromId, toId, fromId, toId);
+    }
+}
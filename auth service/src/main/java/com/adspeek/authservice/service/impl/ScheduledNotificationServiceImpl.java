@@ -1,115 +1,188 @@
 package com.adspeek.authservice.service.impl;
 
-import com.adspeek.authservice.entity.Task;
+import com.adspeek.authservice.entity.Notification;
 import com.adspeek.authservice.repository.TaskRepository;
-import com.adspeek.authservice.service.NotificationService;
 import com.adspeek.authservice.service.ScheduledNotificationService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ScheduledNotificationServiceImpl implements ScheduledNotificationService {
 
     private final TaskRepository taskRepository;
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final TaskReminderLedger taskReminderLedger;
+    private final WeeklyTaskSummaryAggregator weeklyTaskSummaryAggregator;
+    private final SchedulerLock schedulerLock;
+    private final TransactionTemplate transactionTemplate;
+    private final int deadlineLookaheadDays;
+    private final int reminderLedgerRetentionDays;
+    private final int overdueBatchSize;
+
+    public ScheduledNotificationServiceImpl(TaskRepository taskRepository,
+            NotificationDispatcher notificationDispatcher, TaskReminderLedger taskReminderLedger,
+            WeeklyTaskSummaryAggregator weeklyTaskSummaryAggregator, SchedulerLock schedulerLock,
+            PlatformTransactionManager transactionManager,
+            @Value("${notifications.reminders.deadline-lookahead-days:1}") int deadlineLookaheadDays,
+            @Value("${notifications.reminders.ledger-retention-days:30}") int reminderLedgerRetentionDays,
+            @Value("${notifications.reminders.overdue-batch-size:500}") int overdueBatchSize) {
+        this.taskRepository = taskRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.taskReminderLedger = taskReminderLedger;
+        this.weeklyTaskSummaryAggregator = weeklyTaskSummaryAggregator;
+        this.schedulerLock = schedulerLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deadlineLookaheadDays = Math.max(0, deadlineLookaheadDays);
+        this.reminderLedgerRetentionDays = Math.max(1, reminderLedgerRetentionDays);
+        this.overdueBatchSize = Math.max(1, overdueBatchSize);
+    }
 
-    // Run every hour to check for deadline reminders
-    @Scheduled(fixedRate = 3600000) // 1 hour in milliseconds
+    // Run every hour to check for deadline reminders; a cron trigger so all instances fire together
+    @Scheduled(cron = "${notifications.reminders.deadline-cron:0 0 * * * *}")
     @Override
     public void sendDeadlineReminders() {
+        schedulerLock.runExclusively("DEADLINE_REMINDERS", this::sendDeadlineRemindersNow);
+    }
+
+    private void sendDeadlineRemindersNow() {
         try {
             log.info("Starting deadline reminder check...");
 
-            // Get tasks due within the next 24 hours
-            LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
-            LocalDateTime now = LocalDateTime.now();
-
-            List<Task> tasksDueSoon = taskRepository.findTasksDueWithin24Hours(now, tomorrow);
-
-            for (Task task : tasksDueSoon) {
-                if (task.getStatus() != Task.Status.COMPLETED && task.getStatus() != Task.Status.CANCELLED) {
-                    notificationService.notifyDeadlineReminder(task.getId());
-                    log.info("Sent deadline reminder for task: {}", task.getTitle());
-                }
+            // Open tasks due today or within the lookahead that were not reminded for this due date yet
+            LocalDate today = LocalDate.now();
+            List<Object[]> dueSoon = taskRepository.findUnremindedTasksDueBetween(today,
+                    today.plusDays(deadlineLookaheadDays), TaskReminderLedger.Kind.DEADLINE.name());
+
+            int sent = 0;
+            if (!dueSoon.isEmpty()) {
+                // The ledger rows and the notification rows commit (or roll back) together;
+                // streams are only told after the commit
+                sent = transactionTemplate.execute(status -> {
+                    Map<Long, LocalDate> dueDates = new LinkedHashMap<>();
+                    for (Object[] row : dueSoon) {
+                        dueDates.put(((Number) row[0]).longValue(), ((java.sql.Date) row[2]).toLocalDate());
+                    }
+                    Set<Long> claimed = taskReminderLedger.claim(TaskReminderLedger.Kind.DEADLINE, dueDates);
+
+                    List<NotificationDispatcher.PendingNotification> reminders = new ArrayList<>();
+                    for (Object[] row : dueSoon) {
+                        Long taskId = ((Number) row[0]).longValue();
+                        if (!claimed.contains(taskId)) {
+                            continue;
+                        }
+                        String message = String.format("Reminder: Task '%s' is due on %s", row[1],
+                                dueDates.get(taskId));
+                        reminders.add(new NotificationDispatcher.PendingNotification(((Number) row[3]).longValue(),
+                                "Deadline Reminder", message, Notification.NotificationType.DEADLINE_REMINDER,
+                                taskId, null));
+                        if (row[4] != null) {
+                            reminders.add(new NotificationDispatcher.PendingNotification(
+                                    ((Number) row[4]).longValue(), "Deadline Reminder", message,
+                                    Notification.NotificationType.DEADLINE_REMINDER, taskId, null));
+                        }
+                    }
+                    notificationDispatcher.writeNow(reminders);
+                    return reminders.size();
+                });
             }
+            taskReminderLedger.purgeBefore(today.minusDays(reminderLedgerRetentionDays));
 
-            log.info("Completed deadline reminder check. Sent {} reminders.", tasksDueSoon.size());
+            log.info("Completed deadline reminder check. Sent {} reminders.", sent);
         } catch (Exception e) {
             log.error("Error sending deadline reminders: {}", e.getMessage(), e);
         }
     }
 
     // Run daily at 9 AM to check for overdue tasks
-    @Scheduled(cron = "0 0 9 * * ?") // Every day at 9:00 AM
+    @Scheduled(cron = "${notifications.reminders.overdue-cron:0 0 9 * * ?}")
     @Override
     public void sendOverdueTaskNotifications() {
+        schedulerLock.runExclusively("OVERDUE_TASK_NOTIFICATIONS", this::sendOverdueTaskNotificationsNow);
+    }
+
+    private void sendOverdueTaskNotificationsNow() {
         try {
             log.info("Starting overdue task notification check...");
 
-            LocalDateTime now = LocalDateTime.now();
-            List<Task> overdueTasks = taskRepository.findOverdueTasks(now);
-
-            for (Task task : overdueTasks) {
-                if (task.getStatus() != Task.Status.COMPLETED && task.getStatus() != Task.Status.CANCELLED) {
-                    // Create custom overdue notification
-                    String title = "Task Overdue";
-                    String message = String.format(
-                            "Your task '%s' is overdue. Please update the status or contact the client.",
-                            task.getTitle());
-
-                    // Notify assigned staff
-                    if (task.getAssignedStaff() != null) {
-                        notificationService.createNotification(
-                                task.getAssignedStaff().getUser().getId(),
-                                title,
-                                message,
-                                com.adspeek.authservice.entity.Notification.NotificationType.DEADLINE_REMINDER,
-                                task.getId(),
-                                null);
-                    }
-
-                    // Notify client
-                    notificationService.createNotification(
-                            task.getClient().getUser().getId(),
-                            "Task Overdue",
-                            String.format("Your task '%s' is overdue. Please contact your assigned staff for updates.",
-                                    task.getTitle()),
-                            com.adspeek.authservice.entity.Notification.NotificationType.DEADLINE_REMINDER,
-                            task.getId(),
-                            null);
-
-                    log.info("Sent overdue notification for task: {}", task.getTitle());
+            LocalDate today = LocalDate.now();
+            long afterId = 0;
+            int tasks = 0;
+            int sent = 0;
+            List<Object[]> batch;
+            do {
+                batch = taskRepository.findUnnotifiedOverdueTasksAfter(afterId, today,
+                        TaskReminderLedger.Kind.OVERDUE.name(), overdueBatchSize);
+                if (batch.isEmpty()) {
+                    break;
                 }
-            }
+                afterId = ((Number) batch.get(batch.size() - 1)[0]).longValue();
+                List<Object[]> rows = batch;
+                // Each batch claims its ledger rows and writes its notification rows in one transaction
+                sent += transactionTemplate.execute(status -> {
+                    Map<Long, LocalDate> windows = new LinkedHashMap<>();
+                    for (Object[] row : rows) {
+                        windows.put(((Number) row[0]).longValue(), today);
+                    }
+                    Set<Long> claimed = taskReminderLedger.claim(TaskReminderLedger.Kind.OVERDUE, windows);
+
+                    List<NotificationDispatcher.PendingNotification> notices = new ArrayList<>();
+                    for (Object[] row : rows) {
+                        Long taskId = ((Number) row[0]).longValue();
+                        if (!claimed.contains(taskId)) {
+                            continue;
+                        }
+                        if (row[2] != null) {
+                            notices.add(new NotificationDispatcher.PendingNotification(((Number) row[2]).longValue(),
+                                    "Task Overdue", String.format("Your task '%s' is overdue. Please update the "
+                                            + "status or contact the client.", row[1]),
+                                    Notification.NotificationType.DEADLINE_REMINDER, taskId, null));
+                        }
+                        notices.add(new NotificationDispatcher.PendingNotification(((Number) row[3]).longValue(),
+                                "Task Overdue", String.format("Your task '%s' is overdue. Please contact your "
+                                        + "assigned staff for updates.", row[1]),
+                                Notification.NotificationType.DEADLINE_REMINDER, taskId, null));
+                    }
+                    notificationDispatcher.writeNow(notices);
+                    return notices.size();
+                });
+                tasks += batch.size();
+            } while (batch.size() == overdueBatchSize);
 
-            log.info("Completed overdue task check. Sent {} notifications.", overdueTasks.size());
+            log.info("Completed overdue task check. {} overdue tasks, sent {} notifications.", tasks, sent);
         } catch (Exception e) {
             log.error("Error sending overdue task notifications: {}", e.getMessage(), e);
         }
     }
 
     // Run weekly on Monday at 9 AM
-    @Scheduled(cron = "0 0 9 * * MON") // Every Monday at 9:00 AM
+    @Scheduled(cron = "${notifications.weekly-summary.cron:0 0 9 * * MON}")
     @Override
     public void sendWeeklyTaskSummaries() {
+        schedulerLock.runExclusively("WEEKLY_TASK_SUMMARIES", this::sendWeeklyTaskSummariesNow);
+    }
+
+    private void sendWeeklyTaskSummariesNow() {
         try {
             log.info("Starting weekly task summary generation...");
 
-            LocalDateTime weekAgo = LocalDateTime.now().minusWeeks(1);
             LocalDateTime now = LocalDateTime.now();
+            LocalDateTime weekAgo = now.minusWeeks(1);
+            int sent = weeklyTaskSummaryAggregator.summarise(weekAgo, now);
 
-            // This would typically involve more complex logic to generate summaries
-            // For now, we'll just log that this feature is available
-            log.info("Weekly task summary feature is available for implementation");
-
+            log.info("Completed weekly task summaries. Sent {} summaries.", sent);
         } catch (Exception e) {
             log.error("Error generating weekly task summaries: {}", e.getMessage(), e);
         }
@@ -0,0 +1,118 @@
+package com.adspeek.authservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.UUID;
+
+/**
+ * Cluster-wide leases for scheduled jobs, kept in the {@code scheduler_locks}
+ * table. Every instance fires the same {@code @Scheduled} methods; the one
+ * whose conditional UPDATE takes the expired lease runs the job and the others
+ * skip that firing. Lease times are computed by the database clock, so clock
+ * drift between instances does not matter. A lease is held for at least
+ * {@code min-hold-ms} after it was taken, so an instance whose timer fires a
+ * little late does not run the job a second time; if the holder dies, the
+ * lease simply expires. That only covers firings at the same moment: leased
+ * jobs must use cron triggers, since fixed-rate and fixed-delay timers run at
+ * a different phase on every instance. Long jobs renew their lease with
+ * {@link #extend} as they make progress.
+ */
+@Component
+@Slf4j
+public class SchedulerLock {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+    private final long leaseMillis;
+    private final long minHoldMillis;
+
+    public SchedulerLock(JdbcTemplate jdbcTemplate,
+            @Value("${scheduling.lock.lease-ms:3600000}") long leaseMillis,
+            @Value("${scheduling.lock.min-hold-ms:30000}") long minHoldMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = ownerId();
+        this.leaseMillis = Math.max(1000, leaseMillis);
+        this.minHoldMillis = Math.max(0, minHoldMillis);
+    }
+
+    /**
+     * Run the job if this instance gets its lease; skip it if another instance holds it
+     *
+     * @return Whether the job ran here
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        if (!tryAcquire(jobName)) {
+            log.debug("Skipping {}: lease held by another instance", jobName);
+            return false;
+        }
+        try {
+            job.run();
+            return true;
+        } finally {
+            release(jobName);
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Take the job's lease if it is free; pair a successful call with {@link #release}
+     */
+    public boolean tryAcquire(String jobName) {
+        // First use of a job name creates its (expired) row
+        jdbcTemplate.update("""
+                INSERT IGNORE INTO scheduler_locks (lock_name, locked_by, locked_at, locked_until)
+                VALUES (?, '', NOW(3), NOW(3))
+                """, jobName);
+        return jdbcTemplate.update("""
+                UPDATE scheduler_locks
+                SET locked_by = ?, locked_at = NOW(3), locked_until = TIMESTAMPADD(MICROSECOND, ?, NOW(3))
+                WHERE lock_name = ? AND locked_until <= NOW(3)
+                """, owner, leaseMillis * 1000, jobName) == 1;
+    }
+
+    /**
+     * Push our lease out by another {@code lease-ms} from now
+     *
+     * @return False if the lease is no longer ours (it expired and another instance took it)
+     */
+    public boolean extend(String jobName) {
+        return jdbcTemplate.update("""
+                UPDATE scheduler_locks
+                SET locked_until = TIMESTAMPADD(MICROSECOND, ?, NOW(3))
+                WHERE lock_name = ? AND locked_by = ?
+                """, leaseMillis * 1000, jobName, owner) == 1;
+    }
+
+    public void release(String jobName) {
+        try {
+            // Only our own lease; a job that overran its lease must not end someone else's
+            jdbcTemplate.update("""
+                    UPDATE scheduler_locks
+                    SET locked_until = GREATEST(NOW(3), TIMESTAMPADD(MICROSECOND, ?, locked_at))
+                    WHERE lock_name = ? AND locked_by = ?
+                    """, minHoldMillis * 1000, jobName, owner);
+        } catch (Exception e) {
+            // The lease expires on its own
+            log.warn("Failed to release scheduler lock {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    private static String ownerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid() + ":"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.dto.AdminDashboardStatsDTO;
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.service.StaffTaskStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reads the {@code staff_task_stats} counters (tasks per staff member, status
+ * and assignment day), so the admin dashboard gets the performance of every
+ * staff member from one grouped query instead of one stored-procedure call per
+ * staff member. Triggers on {@code tasks} keep the counters in step in the
+ * same transaction as each task change; {@link #rebuild()} recomputes them
+ * from {@code tasks} nightly in case anything drifts.
+ */
+@Service
+@Slf4j
+public class StaffTaskStatsServiceImpl implements StaffTaskStatsService {
+
+    static final String REBUILD_JOB = "STAFF_TASK_STATS_REBUILD";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MaintenanceJobRunner maintenanceJobRunner;
+    private final boolean rebuildOnStartup;
+
+    public StaffTaskStatsServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MaintenanceJobRunner maintenanceJobRunner,
+            @Value("${staff.task-stats.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Build the counters once for tasks that existed before they did
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        if (!maintenanceJobRunner.isCompleted(REBUILD_JOB)) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${staff.task-stats.reconcile-cron:0 50 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Override
+    public List<AdminDashboardStatsDTO.StaffPerformance> getStaffPerformance(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT CONCAT(u.first_name, ' ', u.last_name),
+                       COALESCE(SUM(CASE WHEN k.status = 'COMPLETED' THEN k.task_count END), 0),
+                       COALESCE(SUM(CASE WHEN k.status IN ('PENDING', 'IN_PROGRESS', 'ON_HOLD')
+                                         THEN k.task_count END), 0)
+                FROM staff s
+                JOIN users u ON s.user_id = u.id
+                LEFT JOIN staff_task_stats k ON k.staff_id = s.id AND k.assigned_day BETWEEN ? AND ?
+                GROUP BY s.id, u.first_name, u.last_name
+                ORDER BY s.id
+                """, (rs, rowNum) -> AdminDashboardStatsDTO.StaffPerformance.builder()
+                .name(rs.getString(1))
+                .completed(rs.getInt(2))
+                .pending(rs.getInt(3))
+                .build(), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    @Override
+    public MaintenanceJob rebuild() {
+        return maintenanceJobRunner.run(REBUILD_JOB, job -> {
+            // Delete and re-insert in one transaction. The tasks are share-locked
+            // first, in the same order the triggers lock (task, then counter row),
+            // so concurrent task changes wait for the rebuild instead of deadlocking with it
+            Integer buckets = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks LOCK IN SHARE MODE", Long.class);
+                jdbcTemplate.update("DELETE FROM staff_task_stats");
+                return jdbcTemplate.update("""
+                        INSERT INTO staff_task_stats (staff_id, status, assigned_day, task_count)
+                        SELECT t.assigned_staff_id,
+                               COALESCE(t.status, 'PENDING'),
+                               COALESCE(DATE(t.assigned_date), DATE('1970-01-01')),
+                               COUNT(*)
+                        FROM tasks t
+                        WHERE t.assigned_staff_id IS NOT NULL
+                        GROUP BY t.assigned_staff_id, COALESCE(t.status, 'PENDING'),
+                                 COALESCE(DATE(t.assigned_date), DATE('1970-01-01'))
+                        """);
+            });
+            job.setUpdatedCount(buckets != null ? buckets.longValue() : 0L);
+        });
+    }
+}
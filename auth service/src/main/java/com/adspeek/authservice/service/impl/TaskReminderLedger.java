@@ -0,0 +1,92 @@
+package com.adspeek.authservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which task reminders have been sent, one row per task, reminder
+ * kind and window under a unique key. The window is whatever makes a reminder
+ * distinct: the due date for deadline reminders (so a rescheduled task is
+ * reminded again), the day for overdue notices. A reminder is only sent by the
+ * caller whose {@code INSERT IGNORE} created its row, so repeated runs never
+ * send it twice. Claims must be made in the same transaction that inserts
+ * the notification rows (see {@link NotificationDispatcher#writeNow}): a run
+ * that fails before committing leaves neither, and the next run sends again.
+ */
+@Component
+@Slf4j
+public class TaskReminderLedger {
+
+    public enum Kind {
+        DEADLINE, OVERDUE
+    }
+
+    private static final int PURGE_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskReminderLedger(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record reminders of the given kind as sent
+     *
+     * @param windowByTask Window of each task's reminder
+     * @return Ids of the tasks whose reminder was not recorded yet, i.e. the ones to send
+     */
+    public Set<Long> claim(Kind kind, Map<Long, LocalDate> windowByTask) {
+        Set<Long> claimed = new HashSet<>();
+        if (windowByTask.isEmpty()) {
+            return claimed;
+        }
+        List<Long> taskIds = new ArrayList<>(windowByTask.keySet());
+        Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(taskIds.size());
+        for (Long taskId : taskIds) {
+            rows.add(new Object[] { taskId, kind.name(), Date.valueOf(windowByTask.get(taskId)), sentAt });
+        }
+        int[] results = jdbcTemplate.batchUpdate("""
+                INSERT IGNORE INTO task_reminder_ledger (task_id, reminder_kind, window_date, sent_at)
+                VALUES (?, ?, ?, ?)
+                """, rows);
+        for (int i = 0; i < results.length; i++) {
+            // 0 = the row already existed; a driver that rewrites the batch reports SUCCESS_NO_INFO,
+            // which counts as claimed (the NOT EXISTS in the candidate query already filtered those rows)
+            if (results[i] == 1 || results[i] == Statement.SUCCESS_NO_INFO) {
+                claimed.add(taskIds.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Drop entries whose window ended before the cutoff; they can no longer
+     * suppress anything
+     */
+    public long purgeBefore(LocalDate cutoff) {
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM task_reminder_ledger WHERE window_date < ? LIMIT "
+                    + PURGE_BATCH_SIZE, Date.valueOf(cutoff));
+            purged += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (purged > 0) {
+            log.info("Purged {} task reminder ledger entries before {}", purged, cutoff);
+        }
+        return purged;
+    }
+}
@@ -11,6 +11,7 @@ import com.adspeek.authservice.entity.Task;
 import com.adspeek.authservice.entity.User;
 import com.adspeek.authservice.entity.ServiceItem;
 import com.adspeek.authservice.repository.ClientRepository;
+import com.adspeek.authservice.repository.DocumentRepository;
 import com.adspeek.authservice.repository.StaffRepository;
 import com.adspeek.authservice.repository.TaskRepository;
 import com.adspeek.authservice.repository.UserRepository;
@@ -24,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -39,6 +41,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 @Slf4j
 public class TaskServiceImpl implements TaskService {
     private final TaskRepository taskRepository;
+    private final DocumentRepository documentRepository;
     private final ClientRepository clientRepository;
     private final StaffRepository staffRepository;
     private final UserRepository userRepository;
@@ -351,7 +354,11 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long id) {
+        // Detach explicitly so the document_stats triggers move the documents out of the
+        // task's bucket; the FK's ON DELETE SET NULL would not fire them
+        documentRepository.detachAllFromTask(id);
         taskRepository.deleteById(id);
     }
 
@@ -0,0 +1,271 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Builds the weekly summary notifications in one streaming pass over the
+ * week's tasks, documents and staff activities. Rows are read through a
+ * forward-only cursor with a fetch-size hint (Connector/J streams row by row
+ * with {@code Integer.MIN_VALUE}) and folded straight into per-user counters
+ * kept in open-addressing tables keyed by primitive user id, so memory grows
+ * with the number of recipients, never with the number of rows. Each
+ * recipient with any activity gets one notification, handed to the
+ * dispatcher, which writes them in multi-row batches. Reviewer counts go to
+ * whoever verified or rejected a document, staff or admin.
+ */
+@Component
+@Slf4j
+public class WeeklyTaskSummaryAggregator {
+
+    // Staff counters
+    private static final int STAFF_COMPLETED = 0;
+    private static final int STAFF_NEW = 1;
+    private static final int STAFF_OPEN = 2;
+    private static final int STAFF_OVERDUE = 3;
+    private static final int STAFF_DOCUMENTS_REVIEWED = 4;
+    private static final int STAFF_ACTIVITIES = 5;
+    private static final int STAFF_MINUTES = 6;
+    private static final int STAFF_WIDTH = 7;
+
+    // Client counters
+    private static final int CLIENT_COMPLETED = 0;
+    private static final int CLIENT_OPEN = 1;
+    private static final int CLIENT_UPLOADED = 2;
+    private static final int CLIENT_VERIFIED = 3;
+    private static final int CLIENT_REJECTED = 4;
+    private static final int CLIENT_WIDTH = 5;
+
+    private static final String TITLE = "Weekly Summary";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final NotificationDispatcher notificationDispatcher;
+
+    public WeeklyTaskSummaryAggregator(DataSource dataSource, NotificationDispatcher notificationDispatcher,
+            @Value("${notifications.weekly-summary.fetch-size:-2147483648}") int fetchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.notificationDispatcher = notificationDispatcher;
+    }
+
+    /**
+     * Summarise [from, to) for every staff member and client with activity in it
+     *
+     * @return Number of summary notifications dispatched
+     */
+    public int summarise(LocalDateTime from, LocalDateTime to) {
+        Timestamp fromTs = Timestamp.valueOf(from);
+        Timestamp toTs = Timestamp.valueOf(to);
+        Date today = Date.valueOf(to.toLocalDate());
+        UserCounters staff = new UserCounters(STAFF_WIDTH);
+        UserCounters clients = new UserCounters(CLIENT_WIDTH);
+
+        // Open tasks (for the workload figures) plus any task created or completed in the week
+        streamingJdbcTemplate.query("""
+                SELECT cl.user_id, st.user_id, t.status, t.due_date, t.created_at, t.completed_date
+                FROM tasks t
+                JOIN clients cl ON t.client_id = cl.id
+                LEFT JOIN staff st ON t.assigned_staff_id = st.id
+                WHERE t.status NOT IN ('COMPLETED', 'CANCELLED')
+                   OR (t.created_at >= ? AND t.created_at < ?)
+                   OR (t.completed_date >= ? AND t.completed_date < ?)
+                """, rs -> {
+            long clientUserId = rs.getLong(1);
+            long staffUserId = rs.getLong(2);
+            String status = rs.getString(3);
+            boolean open = !"COMPLETED".equals(status) && !"CANCELLED".equals(status);
+            boolean completed = within(rs.getTimestamp(6), fromTs, toTs);
+            Date dueDate = rs.getDate(4);
+            boolean overdue = open && dueDate != null && dueDate.before(today);
+
+            if (completed) {
+                clients.add(clientUserId, CLIENT_COMPLETED, 1);
+            }
+            if (open) {
+                clients.add(clientUserId, CLIENT_OPEN, 1);
+            }
+            if (staffUserId != 0) {
+                if (completed) {
+                    staff.add(staffUserId, STAFF_COMPLETED, 1);
+                }
+                if (within(rs.getTimestamp(5), fromTs, toTs)) {
+                    staff.add(staffUserId, STAFF_NEW, 1);
+                }
+                if (open) {
+                    staff.add(staffUserId, STAFF_OPEN, 1);
+                }
+                if (overdue) {
+                    staff.add(staffUserId, STAFF_OVERDUE, 1);
+                }
+            }
+        }, fromTs, toTs, fromTs, toTs);
+
+        streamingJdbcTemplate.query("""
+                SELECT cl.user_id, d.upload_date, d.verified_by, d.verified_at, d.rejected_by, d.rejected_at
+                FROM documents d
+                JOIN clients cl ON d.client_id = cl.id
+                WHERE (d.upload_date >= ? AND d.upload_date < ?)
+                   OR (d.verified_at >= ? AND d.verified_at < ?)
+                   OR (d.rejected_at >= ? AND d.rejected_at < ?)
+                """, rs -> {
+            long clientUserId = rs.getLong(1);
+            // Reviewers are users, not necessarily staff: admins verify and reject documents too
+            if (within(rs.getTimestamp(2), fromTs, toTs)) {
+                clients.add(clientUserId, CLIENT_UPLOADED, 1);
+            }
+            if (within(rs.getTimestamp(4), fromTs, toTs)) {
+                clients.add(clientUserId, CLIENT_VERIFIED, 1);
+                staff.add(rs.getLong(3), STAFF_DOCUMENTS_REVIEWED, 1);
+            }
+            if (within(rs.getTimestamp(6), fromTs, toTs)) {
+                clients.add(clientUserId, CLIENT_REJECTED, 1);
+                staff.add(rs.getLong(5), STAFF_DOCUMENTS_REVIEWED, 1);
+            }
+        }, fromTs, toTs, fromTs, toTs, fromTs, toTs);
+
+        streamingJdbcTemplate.query("""
+                SELECT st.user_id, sa.duration_minutes
+                FROM staff_activities sa
+                JOIN staff st ON sa.staff_id = st.id
+                WHERE sa.log_date >= ? AND sa.log_date < ?
+                """, rs -> {
+            long staffUserId = rs.getLong(1);
+            staff.add(staffUserId, STAFF_ACTIVITIES, 1);
+            staff.add(staffUserId, STAFF_MINUTES, rs.getLong(2));
+        }, Date.valueOf(from.toLocalDate()), today);
+
+        int[] dispatched = new int[1];
+        LocalDate weekStart = from.toLocalDate();
+        LocalDate weekEnd = to.toLocalDate().minusDays(1);
+        staff.forEach((userId, values, offset) -> {
+            if (values[offset + STAFF_COMPLETED] + values[offset + STAFF_NEW] + values[offset + STAFF_OPEN]
+                    + values[offset + STAFF_DOCUMENTS_REVIEWED] + values[offset + STAFF_ACTIVITIES] == 0) {
+                return;
+            }
+            String message = String.format(
+                    "Your week %s to %s: %d tasks completed, %d new, %d open (%d overdue), %d documents reviewed, "
+                            + "%d activities logged (%.1f hours)",
+                    weekStart, weekEnd, values[offset + STAFF_COMPLETED], values[offset + STAFF_NEW],
+                    values[offset + STAFF_OPEN], values[offset + STAFF_OVERDUE],
+                    values[offset + STAFF_DOCUMENTS_REVIEWED], values[offset + STAFF_ACTIVITIES],
+                    values[offset + STAFF_MINUTES] / 60.0);
+            notificationDispatcher.dispatch(userId, TITLE, message, Notification.NotificationType.SYSTEM, null, null);
+            dispatched[0]++;
+        });
+        clients.forEach((userId, values, offset) -> {
+            if (values[offset + CLIENT_COMPLETED] + values[offset + CLIENT_OPEN] + values[offset + CLIENT_UPLOADED]
+                    + values[offset + CLIENT_VERIFIED] + values[offset + CLIENT_REJECTED] == 0) {
+                return;
+            }
+            String message = String.format(
+                    "Your week %s to %s: %d tasks completed, %d still open (pending, in progress or on hold); "
+                            + "%d documents uploaded, %d verified, %d rejected",
+                    weekStart, weekEnd, values[offset + CLIENT_COMPLETED], values[offset + CLIENT_OPEN],
+                    values[offset + CLIENT_UPLOADED], values[offset + CLIENT_VERIFIED],
+                    values[offset + CLIENT_REJECTED]);
+            notificationDispatcher.dispatch(userId, TITLE, message, Notification.NotificationType.SYSTEM, null, null);
+            dispatched[0]++;
+        });
+        log.info("Weekly summary: {} staff, {} clients aggregated, {} notifications dispatched", staff.size(),
+                clients.size(), dispatched[0]);
+        return dispatched[0];
+    }
+
+    private static boolean within(Timestamp value, Timestamp from, Timestamp to) {
+        return value != null && !value.before(from) && value.before(to);
+    }
+
+    @FunctionalInterface
+    interface CounterVisitor {
+        void visit(long userId, long[] values, int offset);
+    }
+
+    /**
+     * Open-addressing table from user id to a row of {@code width} long
+     * counters, stored inline so neither keys nor counters are boxed. User ids
+     * are positive, so 0 marks a free slot.
+     */
+    static final class UserCounters {
+
+        private final int width;
+        private long[] keys = new long[64];
+        private long[] values;
+        private int size;
+
+        UserCounters(int width) {
+            this.width = width;
+            this.values = new long[keys.length * width];
+        }
+
+        // Ignores 0, which is what getLong returns for a NULL user id
+        void add(long userId, int counter, long delta) {
+            if (userId <= 0) {
+                return;
+            }
+            values[slot(userId) * width + counter] += delta;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(CounterVisitor visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    visitor.visit(keys[i], values, i * width);
+                }
+            }
+        }
+
+        private int slot(long userId) {
+            int mask = keys.length - 1;
+            int i = mix(userId) & mask;
+            while (keys[i] != 0) {
+                if (keys[i] == userId) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                return slot(userId);
+            }
+            keys[i] = userId;
+            size++;
+            return i;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[keys.length * width];
+            int mask = keys.length - 1;
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (oldKeys[old] == 0) {
+                    continue;
+                }
+                int i = mix(oldKeys[old]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[old];
+                System.arraycopy(oldValues, old * width, values, i * width, width);
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
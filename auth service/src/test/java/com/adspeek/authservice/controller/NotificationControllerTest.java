@@ -0,0 +1,182 @@
+package com.adspeek.authservice.controller;
+
+import com.adspeek.authservice.dto.NotificationDTO;
+import com.adspeek.authservice.entity.Notification;
+import com.adspeek.authservice.entity.User;
+import com.adspeek.authservice.repository.NotificationRepository;
+import com.adspeek.authservice.repository.UserRepository;
+import com.adspeek.authservice.security.CustomUserDetailsService;
+import com.adspeek.authservice.security.JwtAuthenticationFilter;
+import com.adspeek.authservice.security.JwtTokenProvider;
+import com.adspeek.authservice.security.StreamTicketStore;
+import com.adspeek.authservice.service.impl.NotificationServiceImpl;
+import com.adspeek.authservice.service.impl.NotificationStreamHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationControllerTest {
+
+    private static final String STREAM_PATH = "/api/notifications/stream";
+    private static final String EMAIL = "client@example.com";
+    private static final long USER_ID = 42L;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private StreamTicketStore streamTicketStore;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationStreamHub notificationStreamHub;
+
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private NotificationController notificationController;
+    private final List<NotificationDTO> replayed = new ArrayList<>();
+    private final SseEmitter emitter = new SseEmitter();
+    private Authentication authenticatedAs;
+
+    @BeforeEach
+    void setUp() {
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService, streamTicketStore);
+        NotificationServiceImpl notificationService = new NotificationServiceImpl(notificationRepository,
+                userRepository, null, null, null, null, null, notificationStreamHub, null);
+        notificationController = new NotificationController(notificationService, userRepository, streamTicketStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamNotifications_ReconnectWithFreshTicketAndLastIdReplaysMissed() throws Exception {
+        // Arrange
+        stubTicketAndUser("fresh-ticket");
+        when(notificationRepository.findTop100ByUserIdAndIdGreaterThanOrderByIdAsc(USER_ID, 41L))
+                .thenReturn(List.of(notification(42L), notification(43L)));
+        when(notificationStreamHub.subscribe(eq(USER_ID), any())).thenAnswer(invocation -> {
+            replayed.addAll(((Supplier<List<NotificationDTO>>) invocation.getArgument(1)).get());
+            return emitter;
+        });
+        MockHttpServletRequest request = streamRequest("fresh-ticket");
+        request.setParameter("lastEventId", "41");
+
+        // Act
+        ResponseEntity<SseEmitter> response = openStream(request);
+
+        // Assert
+        assertEquals(EMAIL, authenticatedAs.getName());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(emitter, response.getBody());
+        assertEquals(List.of(42L, 43L), replayed.stream().map(NotificationDTO::getId).toList());
+    }
+
+    @Test
+    void testStreamNotifications_HeaderTakesPrecedenceOverParameter() throws Exception {
+        // Arrange
+        stubTicketAndUser("fresh-ticket");
+        when(notificationStreamHub.subscribe(eq(USER_ID), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Supplier.class).get();
+            return emitter;
+        });
+        when(notificationRepository.findTop100ByUserIdAndIdGreaterThanOrderByIdAsc(USER_ID, 50L))
+                .thenReturn(List.of());
+        MockHttpServletRequest request = streamRequest("fresh-ticket");
+        request.addHeader("Last-Event-ID", "50");
+        request.setParameter("lastEventId", "41");
+
+        // Act
+        openStream(request);
+
+        // Assert
+        verify(notificationRepository, never()).findTop100ByUserIdAndIdGreaterThanOrderByIdAsc(USER_ID, 41L);
+    }
+
+    @Test
+    void testStreamNotifications_SpentTicketIsNotAuthenticated() throws Exception {
+        // Arrange
+        when(streamTicketStore.redeem("spent-ticket")).thenReturn(null);
+
+        // Act
+        openStream(streamRequest("spent-ticket"));
+
+        // Assert
+        assertNull(authenticatedAs);
+        verify(notificationStreamHub, never()).subscribe(any(), any());
+    }
+
+    private ResponseEntity<SseEmitter> openStream(MockHttpServletRequest request) throws Exception {
+        List<ResponseEntity<SseEmitter>> response = new ArrayList<>();
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> {
+                    authenticatedAs = SecurityContextHolder.getContext().getAuthentication();
+                    response.add(notificationController.streamNotifications(request.getHeader("Last-Event-ID"),
+                            request.getParameter("lastEventId")));
+                });
+        return response.get(0);
+    }
+
+    private void stubTicketAndUser(String ticket) {
+        when(streamTicketStore.redeem(ticket)).thenReturn(EMAIL);
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername(EMAIL)
+                .password("unused")
+                .authorities("ROLE_CLIENT")
+                .build();
+        when(userDetailsService.loadCachedUserByUsername(EMAIL)).thenReturn(principal);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(User.builder().id(USER_ID).email(EMAIL).build()));
+    }
+
+    private static MockHttpServletRequest streamRequest(String ticket) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", STREAM_PATH);
+        request.setServletPath(STREAM_PATH);
+        request.setParameter("ticket", ticket);
+        return request;
+    }
+
+    private static Notification notification(long id) {
+        return Notification.builder()
+                .id(id)
+                .user(User.builder().id(USER_ID).build())
+                .title("Document Verified")
+                .message("Your document was verified")
+                .notificationType(Notification.NotificationType.SYSTEM)
+                .build();
+    }
+}
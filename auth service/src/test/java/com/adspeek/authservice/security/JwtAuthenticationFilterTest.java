@@ -0,0 +1,101 @@
+package com.adspeek.authservice.security;
+
+import com.adspeek.authservice.entity.User;
+import com.adspeek.authservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String EMAIL = "client@example.com";
+
+    private final JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3600, 86400);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PrincipalCache principalCache = new PrincipalCache(10, 60);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(provider,
+            new CustomUserDetailsService(userRepository, principalCache), mock(StreamTicketStore.class));
+
+    private String clientToken;
+    private Authentication authenticatedAs;
+
+    @BeforeEach
+    void setUp() {
+        clientToken = provider.generateAccessToken(new org.springframework.security.core.userdetails.User(EMAIL, "",
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilter_MatchingRoleIsAuthenticatedFromTheCache() throws Exception {
+        stubUser(User.Role.CLIENT);
+
+        filter(clientToken);
+        SecurityContextHolder.clearContext();
+        filter(clientToken);
+
+        assertNotNull(authenticatedAs);
+        assertEquals(List.of("ROLE_CLIENT"), authorities(authenticatedAs));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void testDoFilter_TokenFromBeforeARoleChangeIsNotAuthenticated() throws Exception {
+        stubUser(User.Role.STAFF);
+
+        filter(clientToken);
+
+        assertNull(authenticatedAs);
+    }
+
+    @Test
+    void testDoFilter_EvictedPrincipalPicksUpTheRoleChange() throws Exception {
+        stubUser(User.Role.CLIENT);
+        filter(clientToken);
+        SecurityContextHolder.clearContext();
+
+        // Role changed and saved through JPA; the entity listener evicts the principal
+        stubUser(User.Role.ADMIN);
+        principalCache.evict(1L, EMAIL);
+        filter(clientToken);
+
+        assertNull(authenticatedAs);
+    }
+
+    private void filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setServletPath("/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> authenticatedAs = SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private void stubUser(User.Role role) {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(User.builder()
+                .id(1L)
+                .email(EMAIL)
+                .role(role)
+                .isActive(true)
+                .build()));
+    }
+
+    private static List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(Object::toString).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.adspeek.authservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token.
+ * <ul>
+ * <li>{@code legacyTripleParse}: previous filter path, a fresh parser built three times</li>
+ * <li>{@code sharedParser}: one parse on the pre-built parser</li>
+ * </ul>
+ * Run with {@code mvn test-compile exec:exec -Dbenchmark=JwtTokenProviderBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private SecretKey secretKey;
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        provider = new JwtTokenProvider(SECRET, 3600, 86400);
+        token = provider.generateAccessToken(new User("client@example.com", "",
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+    }
+
+    @Benchmark
+    public void legacyTripleParse(Blackhole blackhole) {
+        blackhole.consume(Jwts.parserBuilder().setSigningKey(secretKey).build()
+                .parseClaimsJws(token).getBody().getSubject());
+        blackhole.consume(Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token));
+        Claims claims = Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+        blackhole.consume(claims.get("roles"));
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return provider.parseClaims(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenProviderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.adspeek.authservice.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3600, 86400);
+
+    @Test
+    void testParseClaims_ValidToken() {
+        String token = provider.generateAccessToken(new User("client@example.com", "",
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+
+        Claims claims = provider.parseClaims(token);
+
+        assertNotNull(claims);
+        assertEquals("client@example.com", claims.getSubject());
+        assertEquals(List.of("ROLE_CLIENT"), provider.getRolesFromClaims(claims));
+    }
+
+    @Test
+    void testParseClaims_TamperedPayloadIsRejected() {
+        String token = provider.generateAccessToken(new User("client@example.com", "",
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+        String admin = provider.generateAccessToken(new User("admin@example.com", "",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        String[] parts = token.split("\\.");
+        String[] adminParts = admin.split("\\.");
+
+        // Admin payload under the client's signature
+        assertNull(provider.parseClaims(parts[0] + "." + adminParts[1] + "." + parts[2]));
+    }
+
+    @Test
+    void testParseClaims_ExpiredTokenIsRejected() {
+        JwtTokenProvider expiring = new JwtTokenProvider(SECRET, -1, -1);
+        String token = expiring.generateAccessToken(new User("client@example.com", "", List.of()));
+
+        assertNull(provider.parseClaims(token));
+    }
+
+    @Test
+    void testParseClaims_ForeignKeyIsRejected() {
+        JwtTokenProvider other = new JwtTokenProvider(
+                "5A7134743777217A25432A462D4A614E645267556B58703273357638792F423F", 3600, 86400);
+        String token = other.generateAccessToken(new User("client@example.com", "", List.of()));
+
+        assertNull(provider.parseClaims(token));
+        assertNull(provider.parseClaims(""));
+        assertNull(provider.parseClaims("not-a-token"));
+    }
+}
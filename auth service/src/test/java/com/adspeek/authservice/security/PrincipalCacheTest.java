@@ -0,0 +1,66 @@
+package com.adspeek.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    @Test
+    void testGet_ExpiredEntryIsDropped() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10);
+        cache.put("live@example.com", "live", System.currentTimeMillis() + 60_000);
+        cache.put("expired@example.com", "expired", System.currentTimeMillis() - 1);
+
+        assertEquals("live", cache.get("live@example.com"));
+        assertNull(cache.get("expired@example.com"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testPut_ZeroTtlDisablesCaching() {
+        PrincipalCache principalCache = new PrincipalCache(10, 0);
+
+        principalCache.put(1L, principal("client@example.com", "ROLE_CLIENT"));
+
+        assertNull(principalCache.get("client@example.com"));
+        assertEquals(0, principalCache.size());
+    }
+
+    @Test
+    void testEvict_ByUserIdRemovesEntryUnderPreviousEmail() {
+        PrincipalCache principalCache = new PrincipalCache(10, 60);
+        principalCache.put(1L, principal("old@example.com", "ROLE_CLIENT"));
+        principalCache.put(2L, principal("other@example.com", "ROLE_STAFF"));
+
+        // The listener sees the row after the email change
+        principalCache.evict(1L, "new@example.com");
+
+        assertNull(principalCache.get("old@example.com"));
+        assertNotNull(principalCache.get("other@example.com"));
+        assertEquals(1, principalCache.size());
+    }
+
+    @Test
+    void testPut_LeastRecentlyUsedEntryIsEvictedAtMaxSize() {
+        PrincipalCache principalCache = new PrincipalCache(2, 60);
+        principalCache.put(1L, principal("a@example.com", "ROLE_CLIENT"));
+        principalCache.put(2L, principal("b@example.com", "ROLE_CLIENT"));
+        principalCache.get("a@example.com");
+
+        principalCache.put(3L, principal("c@example.com", "ROLE_CLIENT"));
+
+        assertNotNull(principalCache.get("a@example.com"));
+        assertNull(principalCache.get("b@example.com"));
+        assertNotNull(principalCache.get("c@example.com"));
+    }
+
+    private static UserDetails principal(String email, String role) {
+        return new User(email, "", List.of(new SimpleGrantedAuthority(role)));
+    }
+}
@@ -1,18 +1,31 @@
 package com.adspeek.authservice.service;
 
 import com.adspeek.authservice.service.impl.IdGenerationServiceImpl;
+import com.adspeek.authservice.service.impl.IdSequenceAllocator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Year;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +34,9 @@ class IdGenerationServiceTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private IdSequenceAllocator idSequenceAllocator;
+
     @InjectMocks
     private IdGenerationServiceImpl idGenerationService;
 
@@ -28,8 +44,7 @@ class IdGenerationServiceTest {
     void testGenerateNextLeadId_FirstLeadOfYear() {
         // Arrange
         int currentYear = Year.now().getValue();
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("LEAD-" + currentYear + "-%")))
-                .thenReturn(1);
+        when(idSequenceAllocator.next(eq("LEAD"), eq(currentYear), any())).thenReturn(1L);
 
         // Act
         String leadId = idGenerationService.generateNextLeadId();
@@ -44,8 +59,7 @@ class IdGenerationServiceTest {
     void testGenerateNextLeadId_SubsequentLeads() {
         // Arrange
         int currentYear = Year.now().getValue();
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("LEAD-" + currentYear + "-%")))
-                .thenReturn(15);
+        when(idSequenceAllocator.next(eq("LEAD"), eq(currentYear), any())).thenReturn(15L);
 
         // Act
         String leadId = idGenerationService.generateNextLeadId();
@@ -60,8 +74,7 @@ class IdGenerationServiceTest {
     void testGenerateNextServiceRequestId_FirstRequestOfYear() {
         // Arrange
         int currentYear = Year.now().getValue();
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("SR-" + currentYear + "-%")))
-                .thenReturn(1);
+        when(idSequenceAllocator.next(eq("SR"), eq(currentYear), any())).thenReturn(1L);
 
         // Act
         String requestId = idGenerationService.generateNextServiceRequestId();
@@ -76,8 +89,7 @@ class IdGenerationServiceTest {
     void testGenerateNextServiceRequestId_SubsequentRequests() {
         // Arrange
         int currentYear = Year.now().getValue();
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("SR-" + currentYear + "-%")))
-                .thenReturn(42);
+        when(idSequenceAllocator.next(eq("SR"), eq(currentYear), any())).thenReturn(42L);
 
         // Act
         String requestId = idGenerationService.generateNextServiceRequestId();
@@ -90,9 +102,11 @@ class IdGenerationServiceTest {
 
     @Test
     void testGenerateNextLeadId_WhenNoExistingLeads() {
-        // Arrange
+        // Arrange: a new year seeds the sequence from the legacy MAX scan
         int currentYear = Year.now().getValue();
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("LEAD-" + currentYear + "-%")))
+        when(idSequenceAllocator.next(eq("LEAD"), eq(currentYear), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, LongSupplier.class).getAsLong());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("LEAD-" + currentYear + "-%")))
                 .thenReturn(null);
 
         // Act
@@ -108,7 +122,9 @@ class IdGenerationServiceTest {
     void testGenerateNextServiceRequestId_WhenNoExistingRequests() {
         // Arrange
         int currentYear = Year.now().getValue();
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("SR-" + currentYear + "-%")))
+        when(idSequenceAllocator.next(eq("SR"), eq(currentYear), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, LongSupplier.class).getAsLong());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("SR-" + currentYear + "-%")))
                 .thenReturn(null);
 
         // Act
@@ -119,4 +135,88 @@ class IdGenerationServiceTest {
         assertTrue(requestId.matches("^SR-" + currentYear + "-\\d{3}$"));
         assertEquals("SR-" + currentYear + "-001", requestId);
     }
+
+    @Test
+    void testGenerateNextServiceRequestId_SeedsFromExistingRequests() {
+        // Arrange: the year already has SR-YYYY-041 from before the sequence existed
+        int currentYear = Year.now().getValue();
+        when(idSequenceAllocator.next(eq("SR"), eq(currentYear), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, LongSupplier.class).getAsLong());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("SR-" + currentYear + "-%")))
+                .thenReturn(41L);
+
+        // Act
+        String requestId = idGenerationService.generateNextServiceRequestId();
+
+        // Assert
+        assertEquals("SR-" + currentYear + "-042", requestId);
+    }
+
+    @Test
+    void testSequenceAllocator_SeedsOnceAndHandsOutBlocks() {
+        // Arrange: an in-memory stand-in for the id_sequences table, empty at first
+        JdbcTemplate sequenceJdbc = mock(JdbcTemplate.class);
+        AtomicLong storedNextValue = new AtomicLong(-1);
+        when(sequenceJdbc.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation ->
+                storedNextValue.get() < 0 ? List.of() : List.of(storedNextValue.get()));
+        when(sequenceJdbc.update(anyString(), any(), any())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            storedNextValue.set(invocation.getArgument(sql.startsWith("INSERT") ? 2 : 1, Long.class));
+            return 1;
+        });
+        IdSequenceAllocator allocator = new IdSequenceAllocator(sequenceJdbc,
+                mock(PlatformTransactionManager.class), 3);
+        AtomicLong seedCalls = new AtomicLong();
+        LongSupplier seed = () -> {
+            seedCalls.incrementAndGet();
+            return 10L;
+        };
+
+        // Act
+        List<Long> values = List.of(allocator.next("LEAD", 2025, seed), allocator.next("LEAD", 2025, seed),
+                allocator.next("LEAD", 2025, seed), allocator.next("LEAD", 2025, seed));
+
+        // Assert: seeded once, second block continues where the first ended
+        assertEquals(List.of(10L, 11L, 12L, 13L), values);
+        assertEquals(1, seedCalls.get());
+        assertEquals(16L, storedNextValue.get());
+    }
+
+    @Test
+    void testSequenceAllocator_ConcurrentCallersGetUniqueValues() throws Exception {
+        // Arrange: an in-memory stand-in for the id_sequences row
+        JdbcTemplate sequenceJdbc = mock(JdbcTemplate.class);
+        AtomicLong storedNextValue = new AtomicLong(1);
+        when(sequenceJdbc.queryForList(anyString(), eq(Long.class), any()))
+                .thenAnswer(invocation -> List.of(storedNextValue.get()));
+        when(sequenceJdbc.update(anyString(), any(), any())).thenAnswer(invocation -> {
+            storedNextValue.set(invocation.getArgument(1, Long.class));
+            return 1;
+        });
+        IdSequenceAllocator allocator = new IdSequenceAllocator(sequenceJdbc,
+                mock(PlatformTransactionManager.class), 50);
+
+        int threads = 8;
+        int perThread = 500;
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < perThread; j++) {
+                    values.add(allocator.next("LEAD", 2025, () -> 1L));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        // Assert
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, values.size());
+    }
 }
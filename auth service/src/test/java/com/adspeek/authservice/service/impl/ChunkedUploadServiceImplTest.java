@@ -0,0 +1,228 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.dto.DocumentDTO;
+import com.adspeek.authservice.dto.UploadSessionDTO;
+import com.adspeek.authservice.entity.UploadSession;
+import com.adspeek.authservice.entity.User;
+import com.adspeek.authservice.repository.ClientRepository;
+import com.adspeek.authservice.repository.TaskRepository;
+import com.adspeek.authservice.repository.UploadSessionRepository;
+import com.adspeek.authservice.repository.UserRepository;
+import com.adspeek.authservice.service.DocumentService;
+import com.adspeek.authservice.service.DocumentStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceImplTest {
+
+    private static final String UPLOAD_ID = "5b0c6f4e-2a8d-4a53-9a57-0d7f3c1e9b21";
+    private static final String EMAIL = "client@example.com";
+    private static final long USER_ID = 7L;
+    private static final String CONTENT = "0123456789ABCDEFGHIJ";
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private DocumentStorage documentStorage;
+
+    @Mock
+    private SchedulerLock schedulerLock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path root;
+
+    private UploadSession session;
+    private ChunkedUploadServiceImpl chunkedUploadService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        chunkedUploadService = new ChunkedUploadServiceImpl(uploadSessionRepository, clientRepository,
+                taskRepository, userRepository, documentService, documentStorage, schedulerLock, transactionManager,
+                root.toString(), CONTENT.length(), 16, 24);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken(EMAIL, null, "ROLE_CLIENT"));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(User.builder().id(USER_ID).email(EMAIL)
+                .role(User.Role.CLIENT).build()));
+
+        Path tempFile = Files.createFile(root.resolve(UPLOAD_ID + ".upload"));
+        session = UploadSession.builder()
+                .uploadId(UPLOAD_ID)
+                .clientId(3L)
+                .documentType("OTHER")
+                .originalFileName("gst-return.pdf")
+                .fileType("application/pdf")
+                .totalSize((long) CONTENT.length())
+                .receivedBytes(0L)
+                .status(UploadSession.Status.IN_PROGRESS)
+                .tempPath(tempFile.toString())
+                .createdBy(USER_ID)
+                .build();
+        // Lenient: not every test reads the session back, locks it or saves it
+        lenient().when(uploadSessionRepository.findById(UPLOAD_ID)).thenAnswer(invocation -> Optional.of(session));
+        lenient().when(uploadSessionRepository.findByIdForUpdate(UPLOAD_ID))
+                .thenAnswer(invocation -> Optional.of(session));
+        lenient().when(uploadSessionRepository.save(any(UploadSession.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // Same guards as the native UPDATE: never backwards, never past a gap
+        lenient().when(uploadSessionRepository.advanceReceivedBytes(eq(UPLOAD_ID), anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    long offset = invocation.getArgument(1);
+                    long end = invocation.getArgument(2);
+                    if (session.getReceivedBytes() < offset || session.getReceivedBytes() >= end) {
+                        return 0;
+                    }
+                    session.setReceivedBytes(end);
+                    return 1;
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testWriteChunk_OffsetPastReceivedBytesConflicts() throws Exception {
+        // Arrange
+        writeChunk(0, CONTENT.substring(0, 5));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> writeChunk(8, CONTENT.substring(8, 12)));
+        assertEquals(5L, session.getReceivedBytes());
+    }
+
+    @Test
+    void testWriteChunk_ResentOverlappingChunkOnlyAdvancesPastTheOverlap() throws Exception {
+        // Arrange
+        writeChunk(0, CONTENT.substring(0, 10));
+
+        // Act: the client missed the response and resends from an earlier offset
+        UploadSessionDTO upload = writeChunk(5, CONTENT.substring(5, 15));
+
+        // Assert
+        assertEquals(15L, upload.getReceivedBytes());
+        assertEquals(CONTENT.substring(0, 15), Files.readString(Path.of(session.getTempPath())));
+    }
+
+    @Test
+    void testWriteChunk_ShortBodyAcknowledgesOnlyTheBytesReceived() throws Exception {
+        // Act: Content-Length promised 10 bytes, the connection dropped after 4
+        UploadSessionDTO upload = chunkedUploadService.writeChunk(UPLOAD_ID, 0,
+                new ByteArrayInputStream(CONTENT.substring(0, 4).getBytes(StandardCharsets.UTF_8)), 10);
+
+        // Assert
+        assertEquals(4L, upload.getReceivedBytes());
+        assertEquals(CONTENT.substring(0, 4), Files.readString(Path.of(session.getTempPath())));
+    }
+
+    @Test
+    void testCompleteUpload_RetriedCompleteReturnsTheSameDocument() throws Exception {
+        // Arrange
+        writeChunk(0, CONTENT.substring(0, 16));
+        writeChunk(16, CONTENT.substring(16));
+        stubStoreAndCreate();
+
+        // Act
+        DocumentDTO first = chunkedUploadService.completeUpload(UPLOAD_ID);
+        when(documentService.getDocumentById(first.getId())).thenReturn(first);
+        DocumentDTO retried = chunkedUploadService.completeUpload(UPLOAD_ID);
+
+        // Assert
+        assertSame(first, retried);
+        assertEquals(UploadSession.Status.COMPLETED, session.getStatus());
+        verify(documentStorage, times(1)).storeFile(any());
+        verify(documentService, times(1)).createDocumentFromBlob(any(), anyString(), anyString(), any(), any(),
+                anyString());
+    }
+
+    @Test
+    void testCompleteUpload_ConcurrentCompleteFindsTheContentAlreadyStored() throws Exception {
+        // Arrange: this request read the session before the other complete moved the temp file
+        session.setReceivedBytes((long) CONTENT.length());
+        UploadSession readEarlier = UploadSession.builder()
+                .uploadId(UPLOAD_ID)
+                .totalSize(session.getTotalSize())
+                .receivedBytes(session.getReceivedBytes())
+                .status(UploadSession.Status.IN_PROGRESS)
+                .tempPath(session.getTempPath())
+                .createdBy(USER_ID)
+                .build();
+        when(uploadSessionRepository.findById(UPLOAD_ID)).thenReturn(Optional.of(readEarlier));
+        session.setStatus(UploadSession.Status.ASSEMBLED);
+        session.setChecksum("c".repeat(64));
+        session.setStoragePath("blobs/cc/" + "c".repeat(64));
+        Files.delete(Path.of(session.getTempPath()));
+        DocumentDTO created = DocumentDTO.builder().id(99L).build();
+        when(documentService.createDocumentFromBlob(any(), anyString(), anyString(), any(), any(), anyString()))
+                .thenReturn(created);
+
+        // Act
+        DocumentDTO document = chunkedUploadService.completeUpload(UPLOAD_ID);
+
+        // Assert
+        assertSame(created, document);
+        assertEquals(99L, session.getDocumentId());
+        verify(documentStorage, never()).storeFile(any());
+    }
+
+    private UploadSessionDTO writeChunk(long offset, String chunk) throws Exception {
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        return chunkedUploadService.writeChunk(UPLOAD_ID, offset, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private void stubStoreAndCreate() throws Exception {
+        String checksum = "c".repeat(64);
+        when(documentStorage.storeFile(Path.of(session.getTempPath()))).thenAnswer(invocation -> {
+            Files.delete(invocation.getArgument(0, Path.class));
+            return new DocumentStorage.StoredBlob(checksum, "blobs/cc/" + checksum, CONTENT.length(), false);
+        });
+        when(documentService.createDocumentFromBlob(any(), anyString(), anyString(), any(), any(), anyString()))
+                .thenReturn(DocumentDTO.builder().id(99L).build());
+    }
+}
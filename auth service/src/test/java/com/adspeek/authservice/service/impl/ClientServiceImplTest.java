@@ -0,0 +1,72 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.Client;
+import com.adspeek.authservice.entity.User;
+import com.adspeek.authservice.repository.ClientRepository;
+import com.adspeek.authservice.repository.DocumentRepository;
+import com.adspeek.authservice.repository.StaffRepository;
+import com.adspeek.authservice.repository.TaskRepository;
+import com.adspeek.authservice.repository.UserRepository;
+import com.adspeek.authservice.service.AuditLogService;
+import com.adspeek.authservice.service.DocumentSearchIndexService;
+import com.adspeek.authservice.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientServiceImplTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StaffRepository staffRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private DocumentSearchIndexService documentSearchIndexService;
+
+    @InjectMocks
+    private ClientServiceImpl clientService;
+
+    @Test
+    void testDeleteClient_DeletesTasksExplicitlyBeforeTheClient() {
+        // Arrange
+        User user = User.builder().id(7L).build();
+        Client client = Client.builder().id(3L).user(user).build();
+        when(clientRepository.findById(3L)).thenReturn(Optional.of(client));
+
+        // Act
+        clientService.deleteClient(3L);
+
+        // Assert
+        InOrder order = inOrder(documentRepository, taskRepository, clientRepository, userRepository);
+        order.verify(documentRepository).deleteAllByClientIdInBulk(3L);
+        order.verify(taskRepository).deleteAllByClientIdInBulk(3L);
+        order.verify(clientRepository).delete(client);
+        order.verify(userRepository).delete(user);
+    }
+}
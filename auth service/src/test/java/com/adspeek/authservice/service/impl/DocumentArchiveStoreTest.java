@@ -0,0 +1,96 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.DocumentArchiveEntry;
+import com.adspeek.authservice.repository.DocumentArchiveEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentArchiveStoreTest {
+
+    private static final String CHECKSUM = "a".repeat(64);
+    private static final String CONTENT = "GST return for FY 2025-26";
+
+    @Mock
+    private DocumentArchiveEntryRepository archiveEntryRepository;
+
+    @TempDir
+    private Path root;
+
+    private DocumentArchiveStore archiveStore;
+
+    @BeforeEach
+    void setUp() {
+        // One-byte segments: every append after the first starts a new segment
+        archiveStore = new DocumentArchiveStore(archiveEntryRepository, root.toString(), 1);
+        when(archiveEntryRepository.save(any(DocumentArchiveEntry.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testOpen_EntryReadBeforeCompactionFollowsTheMovedBlob() throws Exception {
+        // Arrange
+        DocumentArchiveEntry stored = archiveStore.append(CHECKSUM, blob(), true);
+        DocumentArchiveEntry readBeforeCompaction = copyOf(stored);
+        when(archiveEntryRepository.findBySegmentNameOrderByEntryOffset(stored.getSegmentName()))
+                .thenReturn(List.of(stored));
+        archiveStore.compact(stored.getSegmentName(), root.resolve("retired"));
+        when(archiveEntryRepository.findById(CHECKSUM)).thenReturn(Optional.of(stored));
+
+        // Act
+        String content;
+        try (InputStream in = archiveStore.open(readBeforeCompaction)) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Assert
+        assertEquals("segment-000002.seg", stored.getSegmentName());
+        assertEquals(CONTENT, content);
+    }
+
+    @Test
+    void testOpen_RemovedEntryOfRetiredSegmentStillFails() throws Exception {
+        // Arrange
+        DocumentArchiveEntry stored = archiveStore.append(CHECKSUM, blob(), false);
+        when(archiveEntryRepository.findBySegmentNameOrderByEntryOffset(stored.getSegmentName()))
+                .thenReturn(List.of());
+        archiveStore.compact(stored.getSegmentName(), root.resolve("retired"));
+        when(archiveEntryRepository.findById(CHECKSUM)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchFileException.class, () -> archiveStore.open(stored));
+    }
+
+    private Path blob() throws Exception {
+        return Files.writeString(root.resolve(CHECKSUM), CONTENT);
+    }
+
+    private static DocumentArchiveEntry copyOf(DocumentArchiveEntry entry) {
+        return DocumentArchiveEntry.builder()
+                .checksum(entry.getChecksum())
+                .segmentName(entry.getSegmentName())
+                .entryOffset(entry.getEntryOffset())
+                .storedLength(entry.getStoredLength())
+                .originalSize(entry.getOriginalSize())
+                .compressed(entry.getCompressed())
+                .archivedAt(entry.getArchivedAt())
+                .build();
+    }
+}
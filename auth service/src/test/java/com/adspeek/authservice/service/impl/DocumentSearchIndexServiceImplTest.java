@@ -0,0 +1,59 @@
+package com.adspeek.authservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DocumentSearchIndexServiceImplTest {
+
+    private final DocumentSearchIndexServiceImpl searchIndexService = new DocumentSearchIndexServiceImpl(
+            mock(JdbcTemplate.class), mock(PlatformTransactionManager.class), mock(MaintenanceJobRunner.class),
+            500, false);
+
+    @Test
+    void testQueryTokens_ShortTermFallsBackToLike() {
+        // "an" is a substring of "pan_card"; it must not be narrowed to documents with a word starting "an"
+        assertTrue(searchIndexService.queryTokens("an").isEmpty());
+        assertTrue(searchIndexService.queryTokens("a b").isEmpty());
+    }
+
+    @Test
+    void testQueryTokens_MatchesSubstringOfIndexedWord() {
+        Set<String> indexed = DocumentSearchIndexServiceImpl.documentTokens(
+                new DocumentSearchIndexServiceImpl.IndexRow(1L, "pan_card.pdf", "Acme Traders", "PAN_CARD"));
+
+        for (String term : List.of("pan", "an_ca", "card", "acme trad", "PAN Ca")) {
+            List<String> tokens = searchIndexService.queryTokens(term);
+            assertTrue(indexed.containsAll(tokens), () -> term + " -> " + tokens);
+        }
+    }
+
+    @Test
+    void testQueryTokens_ExcludesDocumentsWithoutTheTrigrams() {
+        Set<String> indexed = DocumentSearchIndexServiceImpl.documentTokens(
+                new DocumentSearchIndexServiceImpl.IndexRow(1L, "pan_card.pdf", "Acme Traders", "PAN_CARD"));
+
+        assertFalse(indexed.containsAll(searchIndexService.queryTokens("invoice")));
+    }
+
+    @Test
+    void testDocumentTokens_LongNamesAreNotTruncated() {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            name.append("section").append(i).append("_");
+        }
+        name.append("zebrafinal.pdf");
+
+        Set<String> indexed = DocumentSearchIndexServiceImpl.documentTokens(
+                new DocumentSearchIndexServiceImpl.IndexRow(1L, name.toString(), "Acme Traders", "OTHER"));
+
+        assertTrue(indexed.containsAll(searchIndexService.queryTokens("zebrafinal")));
+        assertTrue(indexed.containsAll(searchIndexService.queryTokens("traders")));
+    }
+}
@@ -0,0 +1,94 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import com.adspeek.authservice.repository.MaintenanceJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceJobRunnerTest {
+
+    private static final String JOB = "TEST_JOB";
+
+    @Mock
+    private MaintenanceJobRepository maintenanceJobRepository;
+
+    @Mock
+    private SchedulerLock schedulerLock;
+
+    @InjectMocks
+    private MaintenanceJobRunner maintenanceJobRunner;
+
+    @Test
+    void testRun_SkipsWhileAnotherInstanceHoldsTheLease() {
+        // Arrange
+        MaintenanceJob current = MaintenanceJob.builder().jobName(JOB).status(MaintenanceJob.Status.RUNNING).build();
+        when(schedulerLock.tryAcquire(JOB)).thenReturn(false);
+        when(maintenanceJobRepository.findById(JOB)).thenReturn(Optional.of(current));
+        boolean[] ran = { false };
+
+        // Act
+        MaintenanceJob result = maintenanceJobRunner.run(JOB, job -> ran[0] = true);
+
+        // Assert
+        assertSame(current, result);
+        assertFalse(ran[0]);
+        verify(maintenanceJobRepository, never()).save(any());
+        verify(schedulerLock, never()).release(JOB);
+    }
+
+    @Test
+    void testRun_CheckpointsRenewTheLeaseUntilRelease() {
+        // Arrange
+        when(schedulerLock.tryAcquire(JOB)).thenReturn(true);
+        when(schedulerLock.extend(JOB)).thenReturn(true);
+        when(maintenanceJobRepository.findById(JOB)).thenReturn(Optional.empty());
+        when(maintenanceJobRepository.save(any(MaintenanceJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        MaintenanceJob result = maintenanceJobRunner.run(JOB, job -> {
+            job.setProcessedCount(1L);
+            maintenanceJobRunner.checkpoint(job);
+        });
+
+        // Assert
+        assertEquals(MaintenanceJob.Status.COMPLETED, result.getStatus());
+        InOrder order = inOrder(schedulerLock);
+        order.verify(schedulerLock).tryAcquire(JOB);
+        order.verify(schedulerLock).extend(JOB);
+        order.verify(schedulerLock).release(JOB);
+    }
+
+    @Test
+    void testRun_ReleasesTheLeaseWhenTheJobFails() {
+        // Arrange
+        when(schedulerLock.tryAcquire(JOB)).thenReturn(true);
+        when(maintenanceJobRepository.findById(JOB)).thenReturn(Optional.empty());
+        when(maintenanceJobRepository.save(any(MaintenanceJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        MaintenanceJob result = maintenanceJobRunner.run(JOB, job -> {
+            throw new IllegalStateException("Disk full");
+        });
+
+        // Assert
+        assertEquals(MaintenanceJob.Status.FAILED, result.getStatus());
+        assertEquals("Disk full", result.getMessage());
+        verify(schedulerLock).release(JOB);
+    }
+}
@@ -0,0 +1,89 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.repository.NotificationRepository;
+import com.adspeek.authservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+
+    @Test
+    void testGetUnreadNotificationCount_ReadsTriggerMaintainedColumn() {
+        // Arrange
+        when(userRepository.findUnreadNotificationCount(42L)).thenReturn(7L);
+
+        // Act
+        long count = notificationService.getUnreadNotificationCount(42L);
+
+        // Assert
+        assertEquals(7L, count);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void testGetUnreadNotificationCount_UnknownUserIsZero() {
+        // Arrange
+        when(userRepository.findUnreadNotificationCount(42L)).thenReturn(null);
+
+        // Act
+        long count = notificationService.getUnreadNotificationCount(42L);
+
+        // Assert
+        assertEquals(0L, count);
+    }
+
+    @Test
+    void testMarkNotificationsAsRead_SingleUpdateLeavesCountToTriggers() {
+        // Act
+        notificationService.markNotificationsAsRead(List.of(1L, 2L, 3L));
+
+        // Assert
+        verify(notificationRepository).markNotificationsAsRead(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class));
+        verifyNoMoreInteractions(notificationRepository);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testMarkNotificationsAsRead_EmptyListDoesNothing() {
+        // Act
+        notificationService.markNotificationsAsRead(List.of());
+
+        // Assert
+        verifyNoInteractions(notificationRepository, userRepository);
+    }
+
+    @Test
+    void testMarkAllNotificationsAsRead_SingleUpdateLeavesCountToTriggers() {
+        // Act
+        notificationService.markAllNotificationsAsRead(42L);
+
+        // Assert
+        verify(notificationRepository).markAllNotificationsAsRead(eq(42L), any(LocalDateTime.class));
+        verifyNoMoreInteractions(notificationRepository);
+        verifyNoInteractions(userRepository);
+    }
+}
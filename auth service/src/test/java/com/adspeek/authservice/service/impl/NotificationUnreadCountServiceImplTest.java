@@ -0,0 +1,95 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationUnreadCountServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MaintenanceJobRunner maintenanceJobRunner;
+
+    private NotificationUnreadCountServiceImpl notificationUnreadCountService;
+
+    @BeforeEach
+    void setUp() {
+        notificationUnreadCountService = new NotificationUnreadCountServiceImpl(jdbcTemplate, transactionManager,
+                maintenanceJobRunner, 2);
+    }
+
+    @Test
+    void testRebuild_RepairsUserBatchesAndCheckpointsEach() {
+        // Arrange
+        stubRunnerToRunBody();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(2);
+            return afterId == 0L ? List.of(1L, 5L) : List.of(9L);
+        });
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1).equals(1L) ? 1 : 0);
+
+        // Act
+        MaintenanceJob job = notificationUnreadCountService.rebuild();
+
+        // Assert
+        assertEquals(3L, job.getProcessedCount());
+        assertEquals(1L, job.getUpdatedCount());
+        assertEquals(9L, job.getLastProcessedId());
+        InOrder order = inOrder(jdbcTemplate, maintenanceJobRunner);
+        order.verify(jdbcTemplate).queryForObject(startsWith("SELECT COUNT(*) FROM notifications"), eq(Long.class),
+                eq(1L), eq(5L));
+        order.verify(jdbcTemplate).update(startsWith("UPDATE users u"), eq(1L), eq(5L), eq(1L), eq(5L));
+        order.verify(maintenanceJobRunner).checkpoint(job);
+        order.verify(jdbcTemplate).update(startsWith("UPDATE users u"), eq(9L), eq(9L), eq(9L), eq(9L));
+        verify(maintenanceJobRunner, times(2)).checkpoint(job);
+    }
+
+    @Test
+    void testScheduledRebuild_RunsUnderTheMaintenanceJobRunner() {
+        // Act
+        notificationUnreadCountService.scheduledRebuild();
+
+        // Assert
+        verify(maintenanceJobRunner).run(eq(NotificationUnreadCountServiceImpl.REBUILD_JOB), any());
+    }
+
+    private void stubRunnerToRunBody() {
+        when(maintenanceJobRunner.run(eq(NotificationUnreadCountServiceImpl.REBUILD_JOB), any()))
+                .thenAnswer(invocation -> {
+                    MaintenanceJob job = MaintenanceJob.builder()
+                            .jobName(invocation.getArgument(0))
+                            .processedCount(0L)
+                            .updatedCount(0L)
+                            .build();
+                    invocation.getArgument(1, MaintenanceJobRunner.JobBody.class).run(job);
+                    return job;
+                });
+    }
+}
@@ -0,0 +1,187 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledNotificationServiceImplTest {
+
+    private static final long TASK_ID = 11L;
+    private static final long CLIENT_USER_ID = 21L;
+    private static final long STAFF_USER_ID = 31L;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @Mock
+    private WeeklyTaskSummaryAggregator weeklyTaskSummaryAggregator;
+
+    @Mock
+    private SchedulerLock schedulerLock;
+
+    private InMemoryLedger ledger;
+    private ScheduledNotificationServiceImpl scheduledNotificationService;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new InMemoryLedger();
+        scheduledNotificationService = new ScheduledNotificationServiceImpl(taskRepository, notificationDispatcher,
+                ledger, weeklyTaskSummaryAggregator, schedulerLock, new LedgerTransactionManager(ledger), 1, 30, 500);
+        when(schedulerLock.runExclusively(anyString(), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return true;
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSendDeadlineReminders_RerunSendsNothing() {
+        // Arrange
+        stubTaskDueToday();
+        when(notificationDispatcher.writeNow(anyList())).thenReturn(List.of());
+
+        // Act
+        scheduledNotificationService.sendDeadlineReminders();
+        scheduledNotificationService.sendDeadlineReminders();
+
+        // Assert
+        ArgumentCaptor<List<NotificationDispatcher.PendingNotification>> written = ArgumentCaptor.forClass(List.class);
+        verify(notificationDispatcher, times(2)).writeNow(written.capture());
+        assertEquals(List.of(CLIENT_USER_ID, STAFF_USER_ID),
+                written.getAllValues().get(0).stream().map(NotificationDispatcher.PendingNotification::userId)
+                        .toList());
+        assertTrue(written.getAllValues().get(1).isEmpty());
+        assertEquals(Set.of(TASK_ID), ledger.committed);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSendDeadlineReminders_RolledBackRunSendsAgain() {
+        // Arrange
+        stubTaskDueToday();
+        when(notificationDispatcher.writeNow(anyList()))
+                .thenThrow(new IllegalStateException("Connection lost"))
+                .thenReturn(List.of());
+
+        // Act
+        scheduledNotificationService.sendDeadlineReminders();
+        Set<Long> afterFailedRun = Set.copyOf(ledger.committed);
+        scheduledNotificationService.sendDeadlineReminders();
+
+        // Assert
+        assertTrue(afterFailedRun.isEmpty());
+        ArgumentCaptor<List<NotificationDispatcher.PendingNotification>> written = ArgumentCaptor.forClass(List.class);
+        verify(notificationDispatcher, times(2)).writeNow(written.capture());
+        assertEquals(2, written.getAllValues().get(1).size());
+        assertEquals(Set.of(TASK_ID), ledger.committed);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSendOverdueTaskNotifications_RolledBackRunSendsAgainOnce() {
+        // Arrange
+        when(taskRepository.findUnnotifiedOverdueTasksAfter(eq(0L), eq(LocalDate.now()), eq("OVERDUE"), eq(500)))
+                .thenReturn(List.<Object[]>of(new Object[] { TASK_ID, "GST return", STAFF_USER_ID, CLIENT_USER_ID }));
+        when(notificationDispatcher.writeNow(anyList()))
+                .thenThrow(new IllegalStateException("Connection lost"))
+                .thenReturn(List.of());
+
+        // Act
+        scheduledNotificationService.sendOverdueTaskNotifications();
+        scheduledNotificationService.sendOverdueTaskNotifications();
+        scheduledNotificationService.sendOverdueTaskNotifications();
+
+        // Assert
+        ArgumentCaptor<List<NotificationDispatcher.PendingNotification>> written = ArgumentCaptor.forClass(List.class);
+        verify(notificationDispatcher, times(3)).writeNow(written.capture());
+        assertEquals(List.of(STAFF_USER_ID, CLIENT_USER_ID),
+                written.getAllValues().get(1).stream().map(NotificationDispatcher.PendingNotification::userId)
+                        .toList());
+        assertTrue(written.getAllValues().get(2).isEmpty());
+        assertEquals(Set.of(TASK_ID), ledger.committed);
+    }
+
+    // The candidate query keeps returning the task, as it would for a run racing the previous commit
+    private void stubTaskDueToday() {
+        LocalDate today = LocalDate.now();
+        when(taskRepository.findUnremindedTasksDueBetween(eq(today), eq(today.plusDays(1)), eq("DEADLINE")))
+                .thenReturn(List.<Object[]>of(new Object[] { TASK_ID, "GST return", java.sql.Date.valueOf(today),
+                        CLIENT_USER_ID, STAFF_USER_ID }));
+    }
+
+    /**
+     * Ledger whose claims only stick when the surrounding transaction commits
+     */
+    private static final class InMemoryLedger extends TaskReminderLedger {
+
+        private final Set<Long> committed = new HashSet<>();
+        private final Set<Long> pending = new HashSet<>();
+
+        InMemoryLedger() {
+            super(null);
+        }
+
+        @Override
+        public Set<Long> claim(Kind kind, Map<Long, LocalDate> windowByTask) {
+            Set<Long> claimed = new HashSet<>();
+            for (Long taskId : windowByTask.keySet()) {
+                if (!committed.contains(taskId) && pending.add(taskId)) {
+                    claimed.add(taskId);
+                }
+            }
+            return claimed;
+        }
+
+        @Override
+        public long purgeBefore(LocalDate cutoff) {
+            return 0;
+        }
+    }
+
+    private record LedgerTransactionManager(InMemoryLedger ledger) implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            ledger.committed.addAll(ledger.pending);
+            ledger.pending.clear();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            ledger.pending.clear();
+        }
+    }
+}
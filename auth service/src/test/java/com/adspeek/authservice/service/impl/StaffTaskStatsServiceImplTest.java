@@ -0,0 +1,95 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.MaintenanceJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StaffTaskStatsServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MaintenanceJobRunner maintenanceJobRunner;
+
+    private StaffTaskStatsServiceImpl staffTaskStatsService;
+
+    @BeforeEach
+    void setUp() {
+        staffTaskStatsService = new StaffTaskStatsServiceImpl(jdbcTemplate, transactionManager, maintenanceJobRunner,
+                true);
+    }
+
+    @Test
+    void testRebuild_ShareLocksTasksBeforeReplacingCounters() {
+        // Arrange
+        stubRunnerToRunBody();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.update(anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0, String.class).startsWith("INSERT") ? 4 : 0);
+
+        // Act
+        MaintenanceJob job = staffTaskStatsService.rebuild();
+
+        // Assert
+        assertEquals(4L, job.getUpdatedCount());
+        InOrder order = inOrder(transactionManager, jdbcTemplate);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).queryForObject("SELECT COUNT(*) FROM tasks LOCK IN SHARE MODE", Long.class);
+        order.verify(jdbcTemplate).update("DELETE FROM staff_task_stats");
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO staff_task_stats"));
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testScheduledRebuild_RunsUnderTheMaintenanceJobRunner() {
+        // Act
+        staffTaskStatsService.scheduledRebuild();
+
+        // Assert
+        verify(maintenanceJobRunner).run(eq(StaffTaskStatsServiceImpl.REBUILD_JOB), any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testRebuildOnStartup_SkippedOnceARebuildCompleted() {
+        // Arrange
+        when(maintenanceJobRunner.isCompleted(StaffTaskStatsServiceImpl.REBUILD_JOB)).thenReturn(true);
+
+        // Act
+        staffTaskStatsService.rebuildOnStartup();
+
+        // Assert
+        verify(maintenanceJobRunner, never()).run(any(), any());
+    }
+
+    private void stubRunnerToRunBody() {
+        when(maintenanceJobRunner.run(eq(StaffTaskStatsServiceImpl.REBUILD_JOB), any())).thenAnswer(invocation -> {
+            MaintenanceJob job = MaintenanceJob.builder().jobName(invocation.getArgument(0)).build();
+            invocation.getArgument(1, MaintenanceJobRunner.JobBody.class).run(job);
+            return job;
+        });
+    }
+}
@@ -0,0 +1,189 @@
+package com.adspeek.authservice.service.impl;
+
+import com.adspeek.authservice.entity.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WeeklyTaskSummaryAggregatorTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 10, 5, 9, 0);
+    private static final LocalDateTime TO = FROM.plusDays(7);
+
+    private static final long CLIENT_USER_ID = 100L;
+    private static final long STAFF_USER_ID = 200L;
+    private static final long ADMIN_USER_ID = 1L;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    private final Map<String, List<Object[]>> rowsByTable = new HashMap<>();
+    private final List<PreparedStatement> statements = new ArrayList<>();
+
+    private WeeklyTaskSummaryAggregator aggregator;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Lenient: the counter test never opens a connection
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            String table = rowsByTable.keySet().stream().filter(name -> sql.contains("FROM " + name + " "))
+                    .findFirst().orElseThrow();
+            PreparedStatement statement = mock(PreparedStatement.class);
+            ResultSet resultSet = resultSet(rowsByTable.get(table));
+            when(statement.executeQuery()).thenReturn(resultSet);
+            statements.add(statement);
+            return statement;
+        });
+        aggregator = new WeeklyTaskSummaryAggregator(dataSource, notificationDispatcher, Integer.MIN_VALUE);
+    }
+
+    @Test
+    void testUserCounters_GrowsAndKeepsEveryRow() {
+        // Arrange
+        WeeklyTaskSummaryAggregator.UserCounters counters = new WeeklyTaskSummaryAggregator.UserCounters(3);
+        Map<Long, long[]> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            long userId = 1 + random.nextInt(5_000);
+            int counter = random.nextInt(3);
+            counters.add(userId, counter, i);
+            expected.computeIfAbsent(userId, id -> new long[3])[counter] += i;
+        }
+        counters.add(0, 0, 99);
+        counters.add(-5, 1, 99);
+
+        // Assert
+        assertEquals(expected.size(), counters.size());
+        Map<Long, long[]> actual = new HashMap<>();
+        counters.forEach((userId, values, offset) -> actual.put(userId,
+                new long[] { values[offset], values[offset + 1], values[offset + 2] }));
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((userId, values) -> assertArrayEquals(values, actual.get(userId)));
+    }
+
+    @Test
+    void testSummarise_FoldsStreamedRowsPerRecipient() {
+        // Arrange
+        Timestamp inWeek = Timestamp.valueOf(FROM.plusDays(2));
+        Timestamp beforeWeek = Timestamp.valueOf(FROM.minusDays(20));
+        rowsByTable.put("tasks", List.of(
+                // client user, staff user, status, due date, created at, completed date
+                new Object[] { CLIENT_USER_ID, STAFF_USER_ID, "PENDING", Date.valueOf("2026-10-01"), inWeek, null },
+                new Object[] { CLIENT_USER_ID, STAFF_USER_ID, "ON_HOLD", null, beforeWeek, null },
+                new Object[] { CLIENT_USER_ID, null, "IN_PROGRESS", null, beforeWeek, null },
+                new Object[] { CLIENT_USER_ID, STAFF_USER_ID, "COMPLETED", null, beforeWeek, inWeek }));
+        rowsByTable.put("documents", List.of(
+                // client user, uploaded at, verified by, verified at, rejected by, rejected at
+                new Object[] { CLIENT_USER_ID, inWeek, STAFF_USER_ID, inWeek, null, null },
+                new Object[] { CLIENT_USER_ID, beforeWeek, ADMIN_USER_ID, inWeek, null, null },
+                new Object[] { CLIENT_USER_ID, inWeek, null, null, ADMIN_USER_ID, inWeek }));
+        rowsByTable.put("staff_activities", List.<Object[]>of(
+                new Object[] { STAFF_USER_ID, 90L }));
+
+        // Act
+        int dispatched = aggregator.summarise(FROM, TO);
+
+        // Assert
+        assertEquals(3, dispatched);
+        assertEquals("Your week 2026-10-05 to 2026-10-11: 1 tasks completed, 1 new, 2 open (1 overdue), "
+                + "1 documents reviewed, 1 activities logged (1.5 hours)", messageTo(STAFF_USER_ID));
+        assertEquals("Your week 2026-10-05 to 2026-10-11: 0 tasks completed, 0 new, 0 open (0 overdue), "
+                + "2 documents reviewed, 0 activities logged (0.0 hours)", messageTo(ADMIN_USER_ID));
+        assertEquals("Your week 2026-10-05 to 2026-10-11: 1 tasks completed, 3 still open (pending, in progress "
+                + "or on hold); 2 documents uploaded, 2 verified, 1 rejected", messageTo(CLIENT_USER_ID));
+        assertEquals(3, statements.size());
+        for (PreparedStatement statement : statements) {
+            verify(statement).setFetchSize(Integer.MIN_VALUE);
+        }
+    }
+
+    @Test
+    void testSummarise_NoActivityDispatchesNothing() {
+        // Arrange
+        rowsByTable.put("tasks", List.of());
+        rowsByTable.put("documents", List.of());
+        rowsByTable.put("staff_activities", List.of());
+
+        // Act
+        int dispatched = aggregator.summarise(FROM, TO);
+
+        // Assert
+        assertEquals(0, dispatched);
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    private String messageTo(long userId) {
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(notificationDispatcher, atLeastOnce()).dispatch(eq(userId), eq("Weekly Summary"), message.capture(),
+                eq(Notification.NotificationType.SYSTEM), isNull(), isNull());
+        assertEquals(1, message.getAllValues().size());
+        return message.getValue();
+    }
+
+    /**
+     * Forward-only result set over the given rows, read the way the aggregator
+     * reads it (1-based column getters, 0 for a NULL number)
+     */
+    private static ResultSet resultSet(List<Object[]> rows) {
+        int[] cursor = { -1 };
+        return mock(ResultSet.class, invocation -> {
+            String method = invocation.getMethod().getName();
+            if (method.equals("next")) {
+                return ++cursor[0] < rows.size();
+            }
+            if (!method.startsWith("get") || invocation.getArguments().length != 1
+                    || !(invocation.getArgument(0) instanceof Integer)) {
+                return RETURNS_DEFAULTS.answer(invocation);
+            }
+            Object value = rows.get(cursor[0])[(Integer) invocation.getArgument(0) - 1];
+            return switch (method) {
+                case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                case "getString" -> (String) value;
+                case "getTimestamp" -> (Timestamp) value;
+                case "getDate" -> (Date) value;
+                default -> value;
+            };
+        });
+    }
+}
@@ -0,0 +1,41 @@
+-- Document Archive Migration Script
+-- Tax Consultancy Web Portal
+-- Cold storage tiering of old verified documents into packed archive segments
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- CREATE DOCUMENT ARCHIVE ENTRIES TABLE
+-- =====================================================
+
+-- One row per archived blob (keyed by content checksum, like the blob store).
+-- The content sits at entry_offset in the segment file
+-- <documents.storage.root>/archive/<segment_name>, stored_length bytes long,
+-- gzip-compressed when compressed = 1. documents.file_path is unchanged; a
+-- blob missing from the hot store is looked up here.
+CREATE TABLE IF NOT EXISTS document_archive_entries (
+    checksum VARCHAR(64) PRIMARY KEY,
+    segment_name VARCHAR(100) NOT NULL,
+    entry_offset BIGINT NOT NULL,
+    stored_length BIGINT NOT NULL,
+    original_size BIGINT NOT NULL,
+    compressed BOOLEAN NOT NULL,
+    archived_at DATETIME NOT NULL,
+    INDEX idx_document_archive_entries_segment (segment_name)
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Size and compression ratio per segment
+SELECT segment_name, COUNT(*) AS blobs,
+       SUM(original_size) AS original_bytes,
+       SUM(stored_length) AS stored_bytes,
+       ROUND(SUM(stored_length) * 100 / NULLIF(SUM(original_size), 0), 1) AS stored_percent
+FROM document_archive_entries
+GROUP BY segment_name
+ORDER BY segment_name;
+
+-- Last tiering run
+SELECT * FROM maintenance_jobs WHERE job_name = 'DOCUMENT_ARCHIVE_TIERING';
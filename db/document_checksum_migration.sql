@@ -0,0 +1,31 @@
+-- Document Checksum Migration Script
+-- Tax Consultancy Web Portal
+-- Content-addressed document storage (deduplicated blobs)
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- ADD CHECKSUM COLUMN TO DOCUMENTS
+-- =====================================================
+
+-- SHA-256 of the stored content. New uploads are stored once per checksum
+-- under uploads/documents/blobs/ab/cd/<checksum>; rows sharing a checksum
+-- share the blob. Deleting a row never deletes the blob: unreferenced blobs
+-- are reclaimed only by the document store reconciliation job, which
+-- quarantines them first.
+-- Existing rows keep checksum NULL and their original file_path.
+ALTER TABLE documents ADD COLUMN checksum VARCHAR(64) NULL AFTER file_type;
+
+CREATE INDEX idx_documents_checksum ON documents (checksum);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Blobs shared by more than one document
+SELECT checksum, COUNT(*) AS references_count, MAX(file_size) AS file_size
+FROM documents
+WHERE checksum IS NOT NULL
+GROUP BY checksum
+HAVING COUNT(*) > 1
+ORDER BY references_count DESC;
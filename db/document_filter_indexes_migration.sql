@@ -0,0 +1,30 @@
+-- Document Filter Indexes Migration Script
+-- Tax Consultancy Web Portal
+-- Database-side filtering and keyset pagination for the admin document grid
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- INDEXES FOR FILTERED, PAGED DOCUMENT QUERIES
+-- =====================================================
+
+-- The grid is ordered by (upload_date DESC, id DESC) and pages continue
+-- after the last (upload_date, id) seen, so every common filter gets an index
+-- that ends in the same two columns.
+CREATE INDEX idx_documents_upload_date_id ON documents (upload_date, id);
+CREATE INDEX idx_documents_client_upload ON documents (client_id, upload_date, id);
+CREATE INDEX idx_documents_task_upload ON documents (task_id, upload_date, id);
+CREATE INDEX idx_documents_status_upload ON documents (status, upload_date, id);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Should use idx_documents_client_upload without a filesort
+EXPLAIN
+SELECT d.id, d.upload_date
+FROM documents d
+WHERE d.client_id = 1
+  AND (d.upload_date < NOW() OR (d.upload_date = NOW() AND d.id < 1000000))
+ORDER BY d.upload_date DESC, d.id DESC
+LIMIT 10;
@@ -0,0 +1,35 @@
+-- Document Pipeline Retries Migration Script
+-- Tax Consultancy Web Portal
+-- Post-upload stages deferred because the worker queue was full
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- DEFERRED POST-UPLOAD STAGES
+-- =====================================================
+
+-- One row per deferred stage run. event_json is the serialized
+-- DocumentUploadedEvent; principal_name is the uploader the stage runs as.
+-- The DOCUMENT_PIPELINE_RETRY_DRAIN job runs rows whose next_attempt_at has
+-- passed and deletes them once they succeed or run out of attempts.
+CREATE TABLE IF NOT EXISTS document_pipeline_retries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    stage_name VARCHAR(64) NOT NULL,
+    event_json TEXT NOT NULL,
+    principal_name VARCHAR(255),
+    attempt INT NOT NULL DEFAULT 1,
+    next_attempt_at TIMESTAMP(3) NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_document_pipeline_retries_due (next_attempt_at, id)
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Backlog per stage; a growing count means the pipeline cannot keep up
+SELECT stage_name, COUNT(*) AS pending, MIN(next_attempt_at) AS next_due, MAX(attempt) AS max_attempt
+FROM document_pipeline_retries
+GROUP BY stage_name
+ORDER BY stage_name;
@@ -0,0 +1,51 @@
+-- Document Search Index Migration Script
+-- Tax Consultancy Web Portal
+-- Indexed document search over file name, client company name and document type
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- CREATE DOCUMENT SEARCH TOKENS TABLE
+-- =====================================================
+
+-- Every word of documents.original_file_name, clients.company_name and
+-- documents.document_type is stored as its trigrams (g:abc). A search term is
+-- resolved to the documents carrying all trigrams of the term's words before
+-- the substring LIKE match runs on them; a term whose words are all shorter
+-- than three characters is matched by the LIKE alone.
+-- Rows are maintained by the application on upload, client rename and delete;
+-- existing documents are indexed by the DOCUMENT_SEARCH_INDEX_BACKFILL job
+-- on first startup (see maintenance_jobs).
+CREATE TABLE IF NOT EXISTS document_search_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    token VARCHAR(16) NOT NULL,
+    UNIQUE KEY uk_document_search_tokens_token_document (token, document_id),
+    INDEX idx_document_search_tokens_document (document_id)
+);
+
+-- =====================================================
+-- UPGRADE FROM THE PREFIX-TOKEN INDEX
+-- =====================================================
+
+-- Earlier builds also stored 1-2 character prefixes (p:ab) and capped a
+-- document at 512 tokens. Drop the prefixes and let the backfill re-run on the
+-- next startup so truncated documents get all of their trigrams.
+DELETE FROM document_search_tokens WHERE token LIKE 'p:%';
+DELETE FROM maintenance_jobs WHERE job_name = 'DOCUMENT_SEARCH_INDEX_BACKFILL';
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Backfill progress
+SELECT job_name, status, processed_count, last_processed_id, completed_at
+FROM maintenance_jobs
+WHERE job_name = 'DOCUMENT_SEARCH_INDEX_BACKFILL';
+
+-- Documents without any search tokens (once the backfill completed, only names made of 1-2 character words)
+SELECT d.id, d.original_file_name
+FROM documents d
+LEFT JOIN document_search_tokens t ON t.document_id = d.id
+WHERE t.id IS NULL
+LIMIT 20;
@@ -0,0 +1,119 @@
+-- Document Stats Migration Script
+-- Tax Consultancy Web Portal
+-- Incrementally maintained rollup behind the document dashboard statistics
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- CREATE DOCUMENT STATS ROLLUP TABLE
+-- =====================================================
+
+-- One row per (client, task, status, upload day). task_id is 0 for documents
+-- without a task and upload_day is 1970-01-01 for rows without an upload date.
+-- The triggers below add +1/-1 deltas in the same transaction as the
+-- document change.
+CREATE TABLE IF NOT EXISTS document_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    client_id BIGINT NOT NULL,
+    task_id BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    upload_day DATE NOT NULL,
+    document_count BIGINT NOT NULL DEFAULT 0,
+    total_file_size BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_document_stats_bucket (client_id, task_id, status, upload_day),
+    INDEX idx_document_stats_task (task_id),
+    INDEX idx_document_stats_upload_day (upload_day)
+);
+
+-- =====================================================
+-- TRIGGERS MAINTAINING THE ROLLUP
+-- =====================================================
+
+-- FK cascades (client delete) and ON DELETE SET NULL (task delete) do not fire
+-- triggers in MySQL; the application deletes a client's documents and detaches
+-- a task's documents with explicit statements first. A scheduled rebuild
+-- (DOCUMENT_STATS_REBUILD) recomputes the rollup in case anything else drifts.
+
+DROP TRIGGER IF EXISTS document_stats_insert_trigger;
+DROP TRIGGER IF EXISTS document_stats_update_trigger;
+DROP TRIGGER IF EXISTS document_stats_delete_trigger;
+
+DELIMITER //
+
+CREATE TRIGGER document_stats_insert_trigger
+AFTER INSERT ON documents
+FOR EACH ROW
+BEGIN
+    INSERT INTO document_stats (client_id, task_id, status, upload_day, document_count, total_file_size)
+    VALUES (NEW.client_id, COALESCE(NEW.task_id, 0), COALESCE(NEW.status, 'PENDING'),
+            COALESCE(DATE(NEW.upload_date), DATE('1970-01-01')), 1, COALESCE(NEW.file_size, 0))
+    ON DUPLICATE KEY UPDATE
+        document_count = document_count + VALUES(document_count),
+        total_file_size = total_file_size + VALUES(total_file_size);
+END //
+
+CREATE TRIGGER document_stats_update_trigger
+AFTER UPDATE ON documents
+FOR EACH ROW
+BEGIN
+    IF NOT (OLD.client_id <=> NEW.client_id
+            AND OLD.task_id <=> NEW.task_id
+            AND OLD.status <=> NEW.status
+            AND DATE(OLD.upload_date) <=> DATE(NEW.upload_date)
+            AND OLD.file_size <=> NEW.file_size) THEN
+        INSERT INTO document_stats (client_id, task_id, status, upload_day, document_count, total_file_size)
+        VALUES (OLD.client_id, COALESCE(OLD.task_id, 0), COALESCE(OLD.status, 'PENDING'),
+                COALESCE(DATE(OLD.upload_date), DATE('1970-01-01')), -1, -COALESCE(OLD.file_size, 0))
+        ON DUPLICATE KEY UPDATE
+            document_count = document_count + VALUES(document_count),
+            total_file_size = total_file_size + VALUES(total_file_size);
+        INSERT INTO document_stats (client_id, task_id, status, upload_day, document_count, total_file_size)
+        VALUES (NEW.client_id, COALESCE(NEW.task_id, 0), COALESCE(NEW.status, 'PENDING'),
+                COALESCE(DATE(NEW.upload_date), DATE('1970-01-01')), 1, COALESCE(NEW.file_size, 0))
+        ON DUPLICATE KEY UPDATE
+            document_count = document_count + VALUES(document_count),
+            total_file_size = total_file_size + VALUES(total_file_size);
+    END IF;
+END //
+
+CREATE TRIGGER document_stats_delete_trigger
+AFTER DELETE ON documents
+FOR EACH ROW
+BEGIN
+    INSERT INTO document_stats (client_id, task_id, status, upload_day, document_count, total_file_size)
+    VALUES (OLD.client_id, COALESCE(OLD.task_id, 0), COALESCE(OLD.status, 'PENDING'),
+            COALESCE(DATE(OLD.upload_date), DATE('1970-01-01')), -1, -COALESCE(OLD.file_size, 0))
+    ON DUPLICATE KEY UPDATE
+        document_count = document_count + VALUES(document_count),
+        total_file_size = total_file_size + VALUES(total_file_size);
+END //
+
+DELIMITER ;
+
+-- =====================================================
+-- POPULATE FROM EXISTING DOCUMENTS
+-- =====================================================
+
+DELETE FROM document_stats;
+
+INSERT INTO document_stats (client_id, task_id, status, upload_day, document_count, total_file_size)
+SELECT d.client_id,
+       COALESCE(d.task_id, 0),
+       COALESCE(d.status, 'PENDING'),
+       COALESCE(DATE(d.upload_date), DATE('1970-01-01')),
+       COUNT(*),
+       COALESCE(SUM(d.file_size), 0)
+FROM documents d
+GROUP BY d.client_id, COALESCE(d.task_id, 0), COALESCE(d.status, 'PENDING'),
+         COALESCE(DATE(d.upload_date), DATE('1970-01-01'));
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Rollup totals should match the documents table
+SELECT
+    (SELECT COUNT(*) FROM documents) AS documents_count,
+    (SELECT COALESCE(SUM(document_count), 0) FROM document_stats) AS rollup_count,
+    (SELECT COALESCE(SUM(file_size), 0) FROM documents) AS documents_size,
+    (SELECT COALESCE(SUM(total_file_size), 0) FROM document_stats) AS rollup_size;
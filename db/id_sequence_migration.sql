@@ -0,0 +1,46 @@
+-- ID Sequence Migration Script
+-- Tax Consultancy Web Portal
+-- Per-year sequences for LEAD-YYYY-NNN and SR-YYYY-NNN identifiers
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- CREATE ID_SEQUENCES TABLE
+-- =====================================================
+
+-- One row per prefix and year (e.g. LEAD-2025, SR-2025). The application
+-- reserves blocks of values by locking the row and advancing next_value.
+CREATE TABLE IF NOT EXISTS id_sequences (
+    sequence_key VARCHAR(32) NOT NULL,
+    next_value BIGINT NOT NULL,
+    updated_at DATETIME DEFAULT NULL,
+    PRIMARY KEY (sequence_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =====================================================
+-- SEED CURRENT YEAR FROM EXISTING DATA
+-- =====================================================
+
+-- Optional: the application seeds a missing year on first use, but seeding
+-- here avoids the one-off scan on the first request after deployment.
+INSERT IGNORE INTO id_sequences (sequence_key, next_value, updated_at)
+SELECT CONCAT('LEAD-', YEAR(CURDATE())),
+       COALESCE(MAX(CAST(SUBSTRING_INDEX(lead_id, '-', -1) AS UNSIGNED)), 0) + 1,
+       NOW()
+FROM leads
+WHERE lead_id LIKE CONCAT('LEAD-', YEAR(CURDATE()), '-%')
+  AND lead_id REGEXP '^LEAD-[0-9]{4}-[0-9]{3,}$';
+
+INSERT IGNORE INTO id_sequences (sequence_key, next_value, updated_at)
+SELECT CONCAT('SR-', YEAR(CURDATE())),
+       COALESCE(MAX(CAST(SUBSTRING_INDEX(request_id, '-', -1) AS UNSIGNED)), 0) + 1,
+       NOW()
+FROM service_requests
+WHERE request_id LIKE CONCAT('SR-', YEAR(CURDATE()), '-%')
+  AND request_id REGEXP '^SR-[0-9]{4}-[0-9]{3,}$';
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+SELECT * FROM id_sequences ORDER BY sequence_key;
@@ -0,0 +1,35 @@
+-- Maintenance Jobs Migration Script
+-- Tax Consultancy Web Portal
+-- Progress and completion records of one-shot, resumable and recurring maintenance jobs
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- CREATE MAINTENANCE JOBS TABLE
+-- =====================================================
+
+-- One row per job name (e.g. LEGACY_LEAD_ID_REPAIR, DOCUMENT_STATS_REBUILD,
+-- NOTIFICATION_RETENTION). Resumable jobs keep the last processed primary key
+-- so an interrupted run continues where it stopped; a COMPLETED one-shot job
+-- is not run again.
+CREATE TABLE IF NOT EXISTS maintenance_jobs (
+    job_name VARCHAR(100) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    last_processed_id BIGINT NULL,
+    processed_count BIGINT NULL,
+    updated_count BIGINT NULL,
+    message TEXT NULL,
+    started_at DATETIME(6) NULL,
+    completed_at DATETIME(6) NULL,
+    updated_at DATETIME(6) NULL
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Last run of every job; RUNNING rows with an old updated_at were interrupted
+SELECT job_name, status, last_processed_id, processed_count, updated_count,
+       started_at, completed_at, updated_at
+FROM maintenance_jobs
+ORDER BY job_name;
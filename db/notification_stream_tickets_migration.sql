@@ -0,0 +1,27 @@
+-- Notification Stream Tickets Migration Script
+-- Tax Consultancy Web Portal
+-- Single-use tickets for opening the notification SSE stream without a JWT in the URL
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- NOTIFICATION STREAM TICKETS
+-- =====================================================
+
+-- ticket_hash is the SHA-256 (hex) of the ticket handed to the client; the
+-- ticket itself is never stored. Redeeming a ticket deletes its row; expired
+-- rows are cleared as new tickets are issued.
+CREATE TABLE IF NOT EXISTS notification_stream_tickets (
+    ticket_hash CHAR(64) PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP(3) NOT NULL,
+    INDEX idx_notification_stream_tickets_expires (expires_at)
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Outstanding tickets; this should stay close to zero
+SELECT COUNT(*) AS outstanding, SUM(expires_at < NOW(3)) AS expired
+FROM notification_stream_tickets;
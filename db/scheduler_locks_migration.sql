@@ -0,0 +1,28 @@
+-- Scheduler Locks Migration Script
+-- Tax Consultancy Web Portal
+-- Cluster-wide leases so each scheduled job runs on one instance per firing
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- SCHEDULER LOCKS
+-- =====================================================
+
+-- One row per job. An instance runs a job only if its conditional UPDATE
+-- takes a lease whose locked_until has passed; all times come from the
+-- database clock (NOW(3)).
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    lock_name VARCHAR(64) PRIMARY KEY,
+    locked_by VARCHAR(255) NOT NULL,
+    locked_at TIMESTAMP(3) NOT NULL,
+    locked_until TIMESTAMP(3) NOT NULL
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Current holders; a lease in the future means the job is running or was run recently
+SELECT lock_name, locked_by, locked_at, locked_until, locked_until > NOW(3) AS held
+FROM scheduler_locks
+ORDER BY lock_name;
@@ -0,0 +1,122 @@
+-- Staff Task Stats Migration Script
+-- Tax Consultancy Web Portal
+-- Per-staff task counters for the admin dashboard's staff performance panel
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- STAFF TASK STATS
+-- =====================================================
+
+-- Tasks per staff member, status and assignment day. The triggers below add
+-- +1/-1 deltas in the same transaction as the task change; the nightly
+-- STAFF_TASK_STATS_REBUILD job recomputes them from tasks. Unassigned tasks
+-- are not counted.
+CREATE TABLE IF NOT EXISTS staff_task_stats (
+    staff_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    assigned_day DATE NOT NULL,
+    task_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (staff_id, status, assigned_day),
+    FOREIGN KEY (staff_id) REFERENCES staff(id) ON DELETE CASCADE
+);
+
+-- =====================================================
+-- TRIGGERS MAINTAINING THE COUNTERS
+-- =====================================================
+
+-- FK cascades (client delete) do not fire triggers in MySQL; the application
+-- deletes a client's tasks with an explicit statement first. The scheduled
+-- rebuild recomputes the counters in case anything else drifts.
+
+DROP TRIGGER IF EXISTS staff_task_stats_insert_trigger;
+DROP TRIGGER IF EXISTS staff_task_stats_update_trigger;
+DROP TRIGGER IF EXISTS staff_task_stats_delete_trigger;
+
+DELIMITER //
+
+CREATE TRIGGER staff_task_stats_insert_trigger
+AFTER INSERT ON tasks
+FOR EACH ROW
+BEGIN
+    IF NEW.assigned_staff_id IS NOT NULL THEN
+        INSERT INTO staff_task_stats (staff_id, status, assigned_day, task_count)
+        VALUES (NEW.assigned_staff_id, COALESCE(NEW.status, 'PENDING'),
+                COALESCE(DATE(NEW.assigned_date), DATE('1970-01-01')), 1)
+        ON DUPLICATE KEY UPDATE task_count = task_count + VALUES(task_count);
+    END IF;
+END //
+
+CREATE TRIGGER staff_task_stats_update_trigger
+AFTER UPDATE ON tasks
+FOR EACH ROW
+BEGIN
+    IF NOT (OLD.assigned_staff_id <=> NEW.assigned_staff_id
+            AND OLD.status <=> NEW.status
+            AND DATE(OLD.assigned_date) <=> DATE(NEW.assigned_date)) THEN
+        IF OLD.assigned_staff_id IS NOT NULL THEN
+            INSERT INTO staff_task_stats (staff_id, status, assigned_day, task_count)
+            VALUES (OLD.assigned_staff_id, COALESCE(OLD.status, 'PENDING'),
+                    COALESCE(DATE(OLD.assigned_date), DATE('1970-01-01')), -1)
+            ON DUPLICATE KEY UPDATE task_count = task_count + VALUES(task_count);
+        END IF;
+        IF NEW.assigned_staff_id IS NOT NULL THEN
+            INSERT INTO staff_task_stats (staff_id, status, assigned_day, task_count)
+            VALUES (NEW.assigned_staff_id, COALESCE(NEW.status, 'PENDING'),
+                    COALESCE(DATE(NEW.assigned_date), DATE('1970-01-01')), 1)
+            ON DUPLICATE KEY UPDATE task_count = task_count + VALUES(task_count);
+        END IF;
+    END IF;
+END //
+
+CREATE TRIGGER staff_task_stats_delete_trigger
+AFTER DELETE ON tasks
+FOR EACH ROW
+BEGIN
+    IF OLD.assigned_staff_id IS NOT NULL THEN
+        INSERT INTO staff_task_stats (staff_id, status, assigned_day, task_count)
+        VALUES (OLD.assigned_staff_id, COALESCE(OLD.status, 'PENDING'),
+                COALESCE(DATE(OLD.assigned_date), DATE('1970-01-01')), -1)
+        ON DUPLICATE KEY UPDATE task_count = task_count + VALUES(task_count);
+    END IF;
+END //
+
+DELIMITER ;
+
+-- =====================================================
+-- POPULATE FROM EXISTING TASKS
+-- =====================================================
+
+DELETE FROM staff_task_stats;
+
+INSERT INTO staff_task_stats (staff_id, status, assigned_day, task_count)
+SELECT t.assigned_staff_id,
+       COALESCE(t.status, 'PENDING'),
+       COALESCE(DATE(t.assigned_date), DATE('1970-01-01')),
+       COUNT(*)
+FROM tasks t
+WHERE t.assigned_staff_id IS NOT NULL
+GROUP BY t.assigned_staff_id, COALESCE(t.status, 'PENDING'),
+         COALESCE(DATE(t.assigned_date), DATE('1970-01-01'));
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Counters should match a direct count (no rows returned)
+SELECT k.staff_id, k.status, k.task_count, COUNT(t.id) AS actual
+FROM staff_task_stats k
+LEFT JOIN tasks t ON t.assigned_staff_id = k.staff_id
+    AND COALESCE(t.status, 'PENDING') = k.status
+    AND COALESCE(DATE(t.assigned_date), DATE('1970-01-01')) = k.assigned_day
+GROUP BY k.staff_id, k.status, k.assigned_day, k.task_count
+HAVING k.task_count <> COUNT(t.id);
+
+-- Dashboard query: one grouped pass for all staff
+SELECT s.id,
+       COALESCE(SUM(CASE WHEN k.status = 'COMPLETED' THEN k.task_count END), 0) AS completed,
+       COALESCE(SUM(CASE WHEN k.status IN ('PENDING', 'IN_PROGRESS', 'ON_HOLD') THEN k.task_count END), 0) AS pending
+FROM staff s
+LEFT JOIN staff_task_stats k ON k.staff_id = s.id
+    AND k.assigned_day BETWEEN CURDATE() - INTERVAL 1 MONTH AND CURDATE()
+GROUP BY s.id;
@@ -0,0 +1,26 @@
+-- Task Notification Indexes Migration Script
+-- Tax Consultancy Web Portal
+-- Lets document notifications find a client's assigned staff from the index alone
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- INDEXES FOR ASSIGNED-STAFF LOOKUPS
+-- =====================================================
+
+-- Document events notify the staff on the client's open tasks. With all three
+-- columns in the index the lookup reads index entries for that one client and
+-- never touches the task rows.
+CREATE INDEX idx_tasks_client_status_staff ON tasks (client_id, status, assigned_staff_id);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Should use idx_tasks_client_status_staff ("Using index" on tasks)
+EXPLAIN
+SELECT DISTINCT st.user_id
+FROM tasks t
+JOIN staff st ON t.assigned_staff_id = st.id
+WHERE t.client_id = 1
+  AND t.status NOT IN ('COMPLETED', 'CANCELLED');
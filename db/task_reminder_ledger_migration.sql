@@ -0,0 +1,43 @@
+-- Task Reminder Ledger Migration Script
+-- Tax Consultancy Web Portal
+-- Records sent task reminders so each one goes out once per task and window
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- TASK REMINDER LEDGER
+-- =====================================================
+
+-- One row per sent reminder. window_date is the due date for DEADLINE
+-- reminders (a rescheduled task is reminded again) and the day of the notice
+-- for OVERDUE ones. The scheduler claims rows with INSERT IGNORE and only
+-- notifies for the rows it created.
+CREATE TABLE IF NOT EXISTS task_reminder_ledger (
+    task_id BIGINT NOT NULL,
+    reminder_kind VARCHAR(20) NOT NULL,
+    window_date DATE NOT NULL,
+    sent_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (task_id, reminder_kind, window_date),
+    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
+    INDEX idx_task_reminder_ledger_window (window_date)
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Reminders sent per kind and day
+SELECT reminder_kind, window_date, COUNT(*) AS reminders
+FROM task_reminder_ledger
+GROUP BY reminder_kind, window_date
+ORDER BY window_date DESC, reminder_kind;
+
+-- Should probe the ledger by primary key for each candidate task
+EXPLAIN
+SELECT t.id
+FROM tasks t
+WHERE t.due_date BETWEEN CURDATE() AND CURDATE() + INTERVAL 1 DAY
+  AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+  AND NOT EXISTS (
+    SELECT 1 FROM task_reminder_ledger l
+    WHERE l.task_id = t.id AND l.reminder_kind = 'DEADLINE' AND l.window_date = t.due_date);
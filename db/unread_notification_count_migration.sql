@@ -0,0 +1,102 @@
+-- Unread Notification Count Migration Script
+-- Tax Consultancy Web Portal
+-- Per-user unread notification count kept on users and maintained by triggers
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- ADD UNREAD COUNT COLUMN TO USERS
+-- =====================================================
+
+-- Read by primary key for the notification badge (/api/notifications/count),
+-- so every instance sees the same value. Not mapped on the User entity, so a
+-- JPA save of a user never writes a stale count back. Guarded so the script
+-- can be re-run (MySQL has no ADD COLUMN IF NOT EXISTS).
+SET @add_unread_count = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE()
+     AND TABLE_NAME = 'users'
+     AND COLUMN_NAME = 'unread_notification_count') = 0,
+    'ALTER TABLE users ADD COLUMN unread_notification_count INT NOT NULL DEFAULT 0',
+    'SELECT ''unread_notification_count already exists''');
+PREPARE add_unread_count FROM @add_unread_count;
+EXECUTE add_unread_count;
+DEALLOCATE PREPARE add_unread_count;
+
+-- =====================================================
+-- TRIGGERS MAINTAINING THE COUNT
+-- =====================================================
+
+-- Every notification write (JPA, dispatcher batch inserts, mark-read,
+-- mark-all-read, retention) moves the count in the same transaction. A NULL
+-- is_read counts as unread. The only FK cascade into notifications is the
+-- user delete, which removes the users row as well. The nightly
+-- NOTIFICATION_UNREAD_COUNT_REBUILD job repairs any drift with the comparison
+-- of the verification query below.
+
+DROP TRIGGER IF EXISTS notifications_unread_insert_trigger;
+DROP TRIGGER IF EXISTS notifications_unread_update_trigger;
+DROP TRIGGER IF EXISTS notifications_unread_delete_trigger;
+
+DELIMITER //
+
+CREATE TRIGGER notifications_unread_insert_trigger
+AFTER INSERT ON notifications
+FOR EACH ROW
+BEGIN
+    IF NOT COALESCE(NEW.is_read, FALSE) THEN
+        UPDATE users SET unread_notification_count = unread_notification_count + 1
+        WHERE id = NEW.user_id;
+    END IF;
+END //
+
+CREATE TRIGGER notifications_unread_update_trigger
+AFTER UPDATE ON notifications
+FOR EACH ROW
+BEGIN
+    IF NOT COALESCE(OLD.is_read, FALSE) AND (COALESCE(NEW.is_read, FALSE) OR NOT OLD.user_id <=> NEW.user_id) THEN
+        UPDATE users SET unread_notification_count = GREATEST(unread_notification_count - 1, 0)
+        WHERE id = OLD.user_id;
+    END IF;
+    IF NOT COALESCE(NEW.is_read, FALSE) AND (COALESCE(OLD.is_read, FALSE) OR NOT OLD.user_id <=> NEW.user_id) THEN
+        UPDATE users SET unread_notification_count = unread_notification_count + 1
+        WHERE id = NEW.user_id;
+    END IF;
+END //
+
+CREATE TRIGGER notifications_unread_delete_trigger
+AFTER DELETE ON notifications
+FOR EACH ROW
+BEGIN
+    IF NOT COALESCE(OLD.is_read, FALSE) THEN
+        UPDATE users SET unread_notification_count = GREATEST(unread_notification_count - 1, 0)
+        WHERE id = OLD.user_id;
+    END IF;
+END //
+
+DELIMITER ;
+
+-- =====================================================
+-- POPULATE FROM EXISTING NOTIFICATIONS
+-- =====================================================
+
+UPDATE users u
+SET u.unread_notification_count = (
+    SELECT COUNT(*) FROM notifications n
+    WHERE n.user_id = u.id AND NOT COALESCE(n.is_read, FALSE)
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Users whose stored count differs from the notifications table (should be empty)
+SELECT u.id, u.unread_notification_count, COALESCE(n.unread, 0) AS actual
+FROM users u
+LEFT JOIN (
+    SELECT user_id, COUNT(*) AS unread
+    FROM notifications
+    WHERE NOT COALESCE(is_read, FALSE)
+    GROUP BY user_id
+) n ON n.user_id = u.id
+WHERE u.unread_notification_count <> COALESCE(n.unread, 0);
@@ -0,0 +1,45 @@
+-- Upload Sessions Migration Script
+-- Tax Consultancy Web Portal
+-- Resumable chunked document uploads
+
+USE tax_consultancy_portal;
+
+-- =====================================================
+-- CREATE UPLOAD SESSIONS TABLE
+-- =====================================================
+
+-- One row per chunked upload. received_bytes is the offset the next chunk
+-- must start at and only advances after the chunk is flushed to temp_path.
+-- Sessions left IN_PROGRESS past expires_at are marked EXPIRED and their
+-- partial file is deleted.
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    upload_id VARCHAR(36) PRIMARY KEY,
+    client_id BIGINT NOT NULL,
+    task_id BIGINT NULL,
+    document_type VARCHAR(50) NOT NULL,
+    original_file_name VARCHAR(255) NOT NULL,
+    file_type VARCHAR(255) NULL,
+    total_size BIGINT NOT NULL,
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    temp_path VARCHAR(500) NOT NULL,
+    checksum VARCHAR(64) NULL,
+    storage_path VARCHAR(500) NULL,
+    document_id BIGINT NULL,
+    created_by BIGINT NOT NULL,
+    created_at DATETIME NULL,
+    updated_at DATETIME NULL,
+    expires_at DATETIME NOT NULL,
+    INDEX idx_upload_sessions_status_expires (status, expires_at)
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+
+-- Uploads currently in progress
+SELECT upload_id, original_file_name, received_bytes, total_size,
+       ROUND(received_bytes * 100 / total_size, 1) AS percent_received, expires_at
+FROM upload_sessions
+WHERE status = 'IN_PROGRESS'
+ORDER BY updated_at DESC;